@@ -0,0 +1,320 @@
+/*
+ * Plugins de Paper del Proyecto Khron
+ * Copyright (C) 2026 Comunidad Aylas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.aylas.khron.tiemporeal;
+
+import static org.bukkit.Bukkit.getServer;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.World;
+import org.bukkit.block.Biome;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+/**
+ * Mantiene, para cada sección de 16 bloques de altura de cada chunk cargado,
+ * los valores mínimo y máximo del modificador de temperatura de sus biomas, de
+ * forma que se pueda acotar la temperatura de una zona sin muestrear sus
+ * biomas bloque a bloque.
+ *
+ * <p>
+ * Las cotas de un chunk se calculan la primera vez que se consultan, a partir
+ * de una instantánea suya recorrida fuera del hilo principal, de forma que
+ * solo se acoten los chunks en los que hay jugadores cuya temperatura interesa.
+ * Las secciones con biomas cuyo modificador de temperatura varía bloque a
+ * bloque mucho más de lo que cubre el margen de las cotas no se acotan.
+ * </p>
+ *
+ * @author AlexTMjugador
+ */
+public final class CotasTemperaturaBiomas implements Listener {
+    /**
+     * La separación, en bloques, entre las muestras de bioma tomadas en cada
+     * eje, que coincide con la resolución con la que Minecraft guarda los
+     * biomas.
+     */
+    private static final int SEPARACION_MUESTRAS = 4;
+
+    /**
+     * El margen que se aplica a las cotas para cubrir las variaciones del
+     * modificador de temperatura entre muestras, que se deben a la altura con la
+     * que Minecraft lo ajusta. No cubre las de los biomas de
+     * {@link #BIOMAS_TEMPERATURA_MODIFICADA}.
+     */
+    private static final float MARGEN_COTAS = 0.05f;
+
+    /**
+     * La diferencia máxima entre dos modificadores de temperatura para que se
+     * consideren iguales, que absorbe los errores de redondeo de las cotas.
+     */
+    private static final float TOLERANCIA_MODIFICADORES = 1e-5f;
+
+    /**
+     * Los biomas a los que Minecraft aplica un modificador de temperatura basado
+     * en ruido, que puede hacer que la temperatura de un bloque caiga muy por
+     * debajo de la de las muestras cercanas. Las secciones que los contienen no
+     * se pueden acotar.
+     */
+    private static final Set<Biome> BIOMAS_TEMPERATURA_MODIFICADA = Set.of(
+        Biome.FROZEN_OCEAN, Biome.DEEP_FROZEN_OCEAN
+    );
+
+    /**
+     * Las cotas de un chunk que todavía se están calculando.
+     */
+    private static final float[] COTAS_PENDIENTES = new float[0];
+
+    /**
+     * Las cotas de cada chunk acotado, por identificador de mundo y clave de
+     * chunk. Cada array contiene, para cada sección del chunk de abajo a arriba,
+     * el mínimo seguido del máximo del modificador de temperatura de sus biomas,
+     * que son NaN si la sección no se puede acotar.
+     */
+    private final Map<UUID, Map<Long, float[]>> cotasMundos = new ConcurrentHashMap<>();
+
+    /**
+     * Restringe la instanciación de esta clase a otras clases.
+     */
+    private CotasTemperaturaBiomas() {}
+
+    /**
+     * Obtiene la única instancia de las cotas de temperatura de biomas en la
+     * JVM, creándola si no lo ha sido ya.
+     *
+     * @return La devandicha instancia.
+     */
+    public static CotasTemperaturaBiomas get() {
+        return PoseedorInstanciaClase.INSTANCIA;
+    }
+
+    /**
+     * Descarta todas las cotas calculadas.
+     */
+    public void detener() {
+        cotasMundos.clear();
+    }
+
+    /**
+     * Obtiene una cota inferior de la temperatura resultante de aplicar a una
+     * temperatura base el modificador de temperatura de cualquier bioma de una
+     * zona rectangular a una altura dada. Debe de llamarse desde el hilo dueño
+     * de la zona.
+     *
+     * @param w               El mundo de la zona.
+     * @param temperaturaBase La temperatura base, en grados Celsius.
+     * @param xMinima         La coordenada X mínima de la zona, inclusiva.
+     * @param xMaxima         La coordenada X máxima de la zona, inclusiva.
+     * @param y               La altura de la zona.
+     * @param zMinima         La coordenada Z mínima de la zona, inclusiva.
+     * @param zMaxima         La coordenada Z máxima de la zona, inclusiva.
+     * @return La devandicha cota, en grados Celsius, o NaN si no se puede
+     *         acotar porque algún chunk de la zona no se ha acotado todavía,
+     *         alguna de sus secciones no es acotable o la altura está fuera de
+     *         los límites del mundo.
+     */
+    public float getTemperaturaMinima(
+        World w, float temperaturaBase, int xMinima, int xMaxima, int y, int zMinima, int zMaxima
+    ) {
+        Map<Long, float[]> cotasChunks = cotasMundos.computeIfAbsent(w.getUID(), uid -> new ConcurrentHashMap<>());
+        int seccionMinima = (Math.max(y - SEPARACION_MUESTRAS, w.getMinHeight()) - w.getMinHeight()) >> 4;
+        int seccionMaxima = (Math.min(y + SEPARACION_MUESTRAS, w.getMaxHeight() - 1) - w.getMinHeight()) >> 4;
+        boolean acotable = y >= w.getMinHeight() && y < w.getMaxHeight();
+        // Con temperaturas base negativas, el modificador más alto da la menor temperatura
+        int desplazamientoCota = temperaturaBase >= 0 ? 0 : 1;
+        float modificadorPeor = temperaturaBase >= 0 ? Float.POSITIVE_INFINITY : Float.NEGATIVE_INFINITY;
+
+        // Ampliar la zona en una muestra en cada dirección, como en getModificadorUniforme
+        int cxMaximo = (xMaxima + SEPARACION_MUESTRAS) >> 4;
+        int czMaximo = (zMaxima + SEPARACION_MUESTRAS) >> 4;
+
+        for (int cx = (xMinima - SEPARACION_MUESTRAS) >> 4; cx <= cxMaximo && acotable; ++cx) {
+            for (int cz = (zMinima - SEPARACION_MUESTRAS) >> 4; cz <= czMaximo && acotable; ++cz) {
+                float[] cotas = cotasChunks.get(Chunk.getChunkKey(cx, cz));
+
+                if (cotas != null && cotas != COTAS_PENDIENTES) {
+                    for (int seccion = seccionMinima; seccion <= seccionMaxima && acotable; ++seccion) {
+                        float modificador = cotas[seccion * 2 + desplazamientoCota];
+
+                        acotable = !Float.isNaN(modificador);
+                        modificadorPeor = temperaturaBase >= 0 ?
+                            Math.min(modificadorPeor, modificador) :
+                            Math.max(modificadorPeor, modificador);
+                    }
+                } else {
+                    acotable = false;
+
+                    if (cotas == null && w.isChunkLoaded(cx, cz)) {
+                        acotarChunk(w.getChunkAt(cx, cz));
+                    }
+                }
+            }
+        }
+
+        return acotable ? temperaturaBase * modificadorPeor : Float.NaN;
+    }
+
+    /**
+     * Obtiene el modificador de temperatura de los biomas de una zona
+     * rectangular alrededor de una altura dada, si es el mismo en toda ella. En
+     * ese caso, aplicarlo a una temperatura base da exactamente la temperatura
+     * que se obtendría muestreando los biomas de la zona. La zona se amplía en
+     * una muestra en cada dirección, para cubrir el desplazamiento con el que
+     * Minecraft elige el bioma de cada bloque. Debe de llamarse desde el hilo
+     * dueño de la zona.
+     *
+     * @param w       El mundo de la zona.
+     * @param xMinima La coordenada X mínima de la zona, inclusiva.
+     * @param xMaxima La coordenada X máxima de la zona, inclusiva.
+     * @param y       La altura de la zona.
+     * @param zMinima La coordenada Z mínima de la zona, inclusiva.
+     * @param zMaxima La coordenada Z máxima de la zona, inclusiva.
+     * @return El devandicho modificador, o NaN si varía dentro de la zona, si
+     *         algún chunk de la zona no se ha acotado todavía, si alguna de sus
+     *         secciones no es acotable o si la altura está fuera de los límites
+     *         del mundo.
+     */
+    public float getModificadorUniforme(World w, int xMinima, int xMaxima, int y, int zMinima, int zMaxima) {
+        Map<Long, float[]> cotasChunks = cotasMundos.computeIfAbsent(w.getUID(), uid -> new ConcurrentHashMap<>());
+        int seccionMinima = (Math.max(y - SEPARACION_MUESTRAS, w.getMinHeight()) - w.getMinHeight()) >> 4;
+        int seccionMaxima = (Math.min(y + SEPARACION_MUESTRAS, w.getMaxHeight() - 1) - w.getMinHeight()) >> 4;
+        boolean uniforme = y >= w.getMinHeight() && y < w.getMaxHeight();
+        float toret = Float.NaN;
+
+        int cxMaximo = (xMaxima + SEPARACION_MUESTRAS) >> 4;
+        int czMaximo = (zMaxima + SEPARACION_MUESTRAS) >> 4;
+
+        for (int cx = (xMinima - SEPARACION_MUESTRAS) >> 4; cx <= cxMaximo && uniforme; ++cx) {
+            for (int cz = (zMinima - SEPARACION_MUESTRAS) >> 4; cz <= czMaximo && uniforme; ++cz) {
+                float[] cotas = cotasChunks.get(Chunk.getChunkKey(cx, cz));
+
+                if (cotas != null && cotas != COTAS_PENDIENTES) {
+                    for (int seccion = seccionMinima; seccion <= seccionMaxima && uniforme; ++seccion) {
+                        // Las cotas de una sección uniforme solo se separan por el margen,
+                        // y las de una sección no acotable son NaN
+                        float minimo = cotas[seccion * 2] + MARGEN_COTAS;
+                        float maximo = cotas[seccion * 2 + 1] - MARGEN_COTAS;
+
+                        uniforme = !Float.isNaN(minimo) && maximo - minimo <= TOLERANCIA_MODIFICADORES &&
+                            (Float.isNaN(toret) || Math.abs(minimo - toret) <= TOLERANCIA_MODIFICADORES);
+                        toret = minimo;
+                    }
+                } else {
+                    uniforme = false;
+
+                    if (cotas == null && w.isChunkLoaded(cx, cz)) {
+                        acotarChunk(w.getChunkAt(cx, cz));
+                    }
+                }
+            }
+        }
+
+        return uniforme ? toret : Float.NaN;
+    }
+
+    /**
+     * Descarta las cotas de un chunk que se descarga.
+     *
+     * @param event El evento de descarga del chunk.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldEvent(ChunkUnloadEvent event) {
+        Map<Long, float[]> cotasChunks = cotasMundos.get(event.getWorld().getUID());
+
+        if (cotasChunks != null) {
+            cotasChunks.remove(event.getChunk().getChunkKey());
+        }
+    }
+
+    /**
+     * Descarta las cotas de los chunks de un mundo que se descarga.
+     *
+     * @param event El evento de descarga del mundo.
+     */
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+    public void onWorldEvent(WorldUnloadEvent event) {
+        cotasMundos.remove(event.getWorld().getUID());
+    }
+
+    /**
+     * Comienza a calcular las cotas de un chunk cargado, si no se ha hecho ya,
+     * recorriendo una instantánea de sus biomas en otro hilo. Hasta que termine,
+     * el chunk no se puede acotar. La instantánea se toma en el hilo que
+     * consulta las cotas, que es el dueño del chunk.
+     *
+     * @param chunk El chunk a acotar.
+     */
+    private void acotarChunk(Chunk chunk) {
+        World w = chunk.getWorld();
+        Map<Long, float[]> cotasChunks = cotasMundos.computeIfAbsent(w.getUID(), uid -> new ConcurrentHashMap<>());
+        long claveChunk = chunk.getChunkKey();
+
+        if (cotasChunks.putIfAbsent(claveChunk, COTAS_PENDIENTES) == null) {
+            ChunkSnapshot instantanea = chunk.getChunkSnapshot(false, true, false);
+            int alturaMinima = w.getMinHeight();
+            int alturaMaxima = w.getMaxHeight();
+
+            getServer().getAsyncScheduler().runNow(PluginTiempoReal.getPlugin(PluginTiempoReal.class), tarea -> {
+                float[] cotas = new float[((alturaMaxima - alturaMinima) >> 4) * 2];
+
+                for (int seccion = 0; seccion < cotas.length / 2; ++seccion) {
+                    int yBase = alturaMinima + (seccion << 4);
+                    float minimo = Float.POSITIVE_INFINITY;
+                    float maximo = Float.NEGATIVE_INFINITY;
+                    boolean temperaturaModificada = false;
+
+                    for (int y = yBase; y < yBase + 16 && !temperaturaModificada; y += SEPARACION_MUESTRAS) {
+                        for (int x = 0; x < 16 && !temperaturaModificada; x += SEPARACION_MUESTRAS) {
+                            for (int z = 0; z < 16 && !temperaturaModificada; z += SEPARACION_MUESTRAS) {
+                                float modificador = (float) instantanea.getRawBiomeTemperature(x, y, z);
+                                minimo = Math.min(minimo, modificador);
+                                maximo = Math.max(maximo, modificador);
+                                temperaturaModificada = BIOMAS_TEMPERATURA_MODIFICADA.contains(
+                                    instantanea.getBiome(x, y, z)
+                                );
+                            }
+                        }
+                    }
+
+                    cotas[seccion * 2] = temperaturaModificada ? Float.NaN : minimo - MARGEN_COTAS;
+                    cotas[seccion * 2 + 1] = temperaturaModificada ? Float.NaN : maximo + MARGEN_COTAS;
+                }
+
+                // Guardar las cotas salvo que el chunk se haya descargado mientras tanto
+                cotasChunks.replace(claveChunk, COTAS_PENDIENTES, cotas);
+            });
+        }
+    }
+
+    /**
+     * Ayuda a implementar el patrón singleton de inicialización retardada al uso de
+     * la instancia, de forma segura entre hilos y eficiente.
+     *
+     * @author AlexTMjugador
+     */
+    private static final class PoseedorInstanciaClase {
+        private static final CotasTemperaturaBiomas INSTANCIA = new CotasTemperaturaBiomas();
+    }
+}
\ No newline at end of file
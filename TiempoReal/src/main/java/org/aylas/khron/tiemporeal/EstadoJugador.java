@@ -0,0 +1,457 @@
+/*
+ * Plugins de Paper del Proyecto Khron
+ * Copyright (C) 2026 Comunidad Aylas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.aylas.khron.tiemporeal;
+
+import java.util.Arrays;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+/**
+ * Contiene todo el estado que el plugin mantiene sobre un jugador conectado,
+ * con campos primitivos, de forma que los diferentes subsistemas puedan acceder
+ * a él sin búsquedas en mapas adicionales ni conversiones a tipos envoltorio.
+ * Las instancias de esta clase las crea y descarta el
+ * {@link RegistroJugadores} cuando el jugador se conecta y desconecta.
+ *
+ * <p>
+ * Salvo {@link #getJugador()}, {@link #getCubeta()}, {@link #isConectado()},
+ * {@link #getTickProximaSimulacionHipotermia()}, {@link #getCeldaGeografica()},
+ * {@link #getDesfaseTiempo()}, {@link #getTickUltimaPasadaRelojes()},
+ * {@link #getSegundoUltimaPasadaRelojes()} y {@link #tieneRelojesActivos()},
+ * los métodos de esta clase no admiten accesos concurrentes, así que solo se deben de llamar desde el hilo
+ * dueño del jugador, que en Folia es el de la región en la que está.
+ * </p>
+ *
+ * @author AlexTMjugador
+ */
+public final class EstadoJugador {
+    /**
+     * El número máximo de relojes diferentes de los que se puede guardar estado.
+     */
+    public static final int MAXIMO_RELOJES = Integer.SIZE;
+
+    /**
+     * El valor del estado de un reloj que indica que no se ha guardado ninguno.
+     */
+    public static final long SIN_ESTADO_RELOJ = Long.MIN_VALUE;
+
+    /**
+     * El valor de la celda geográfica que indica que no se conoce ninguna.
+     */
+    public static final long SIN_CELDA_GEOGRAFICA = Long.MIN_VALUE;
+
+    /**
+     * El valor del desfase del tiempo de reloj que indica que no se le ha
+     * aplicado ninguno al jugador.
+     */
+    public static final long SIN_DESFASE_TIEMPO = Long.MIN_VALUE;
+
+    /**
+     * El jugador al que se refiere este estado.
+     */
+    private final Player jugador;
+
+    /**
+     * La cubeta del {@link RegistroJugadores} en la que está este estado.
+     */
+    private final int cubeta;
+
+    /**
+     * Una ubicación reutilizada para obtener la posición del jugador sin crear
+     * nuevos objetos.
+     */
+    private final Location posicion = new Location(null, 0, 0, 0);
+
+    /**
+     * Verdadero mientras el jugador siga conectado y este estado siga
+     * registrado.
+     */
+    private volatile boolean conectado = true;
+
+    /**
+     * La temperatura de la última información meteorológica simulada
+     * específicamente para el jugador, en grados Celsius, o NaN si no hay
+     * ninguna.
+     */
+    private float temperaturaMeteorologica = Float.NaN;
+
+    /**
+     * Cuántos grados Celsius baja la armadura que lleva puesta el jugador la
+     * temperatura a partir de la cual padece hipotermia.
+     */
+    private float aislamientoArmadura = 0;
+
+    /**
+     * El tick del {@link org.aylas.khron.tiemporeal.planificador.PlanificadorTiempoReal}
+     * a partir del cual se debe de volver a simular la hipotermia del jugador.
+     */
+    private volatile long tickProximaSimulacionHipotermia = 0;
+
+    /**
+     * La celda geográfica en la que estaba el jugador la última vez que se
+     * simuló su tiempo de reloj, en el formato que usa el
+     * {@link SimuladorTiempo}.
+     */
+    private volatile long celdaGeografica = SIN_CELDA_GEOGRAFICA;
+
+    /**
+     * El desfase respecto al tiempo del mundo del tiempo de reloj que se le ha
+     * aplicado al jugador por última vez.
+     */
+    private volatile long desfaseTiempo = SIN_DESFASE_TIEMPO;
+
+    /**
+     * El tick del {@link org.aylas.khron.tiemporeal.planificador.PlanificadorTiempoReal}
+     * en el que se realizó la última pasada completa de los relojes para el
+     * jugador.
+     */
+    private volatile long tickUltimaPasadaRelojes = 0;
+
+    /**
+     * El segundo de tiempo real, desde la época Unix, de la última pasada
+     * completa de los relojes para el jugador.
+     */
+    private volatile long segundoUltimaPasadaRelojes = Long.MIN_VALUE;
+
+    /**
+     * Máscara de bits con los relojes cuyo display se le está mostrando al
+     * jugador, indexada por el índice de cada reloj.
+     */
+    private int relojesMostrandoDisplay = 0;
+
+    /**
+     * Máscara de bits con los relojes que el jugador tiene en su inventario,
+     * indexada por el índice de cada reloj.
+     */
+    private volatile int relojesEnInventario = 0;
+
+    /**
+     * Máscara de bits con los relojes que tienen un estado asociado al jugador,
+     * indexada por el índice de cada reloj.
+     */
+    private volatile int relojesConEstado = 0;
+
+    /**
+     * El estado de cada reloj asociado al jugador, indexado por el índice de cada
+     * reloj. Crece según se necesita.
+     */
+    private long[] estadosRelojes = new long[0];
+
+    /**
+     * Crea el estado de un jugador recién conectado.
+     *
+     * @param jugador El jugador al que se refiere el estado.
+     * @param cubeta  La cubeta del {@link RegistroJugadores} en la que estará el
+     *                estado.
+     */
+    EstadoJugador(Player jugador, int cubeta) {
+        this.jugador = jugador;
+        this.cubeta = cubeta;
+    }
+
+    /**
+     * Obtiene el jugador al que se refiere este estado.
+     *
+     * @return El devandicho jugador.
+     */
+    public Player getJugador() {
+        return jugador;
+    }
+
+    /**
+     * Obtiene la cubeta del {@link RegistroJugadores} en la que está este estado.
+     *
+     * @return La devandicha cubeta.
+     */
+    public int getCubeta() {
+        return cubeta;
+    }
+
+    /**
+     * Obtiene la posición actual del jugador. El objeto devuelto se reutiliza en
+     * cada llamada a este método, así que no debe de guardarse ni modificarse.
+     *
+     * @return La devandicha posición.
+     */
+    public Location getPosicion() {
+        return jugador.getLocation(posicion);
+    }
+
+    /**
+     * Comprueba si el jugador sigue conectado y este estado sigue registrado.
+     *
+     * @return Verdadero en caso afirmativo, falso en otro caso.
+     */
+    public boolean isConectado() {
+        return conectado;
+    }
+
+    /**
+     * Marca este estado como perteneciente a un jugador que se ha desconectado.
+     */
+    void marcarDesconectado() {
+        conectado = false;
+    }
+
+    /**
+     * Comprueba si se ha simulado información meteorológica específica para el
+     * jugador.
+     *
+     * @return Verdadero en caso afirmativo, falso en otro caso.
+     */
+    public boolean tieneTemperaturaMeteorologica() {
+        return !Float.isNaN(temperaturaMeteorologica);
+    }
+
+    /**
+     * Obtiene la temperatura de la última información meteorológica simulada para
+     * el jugador.
+     *
+     * @return La devandicha temperatura, en grados Celsius, o NaN si no hay
+     *         ninguna.
+     */
+    public float getTemperaturaMeteorologica() {
+        return temperaturaMeteorologica;
+    }
+
+    /**
+     * Establece la temperatura de la última información meteorológica simulada
+     * para el jugador.
+     *
+     * @param temperaturaMeteorologica La temperatura, en grados Celsius, o NaN
+     *                                 para descartarla.
+     */
+    public void setTemperaturaMeteorologica(float temperaturaMeteorologica) {
+        this.temperaturaMeteorologica = temperaturaMeteorologica;
+    }
+
+    /**
+     * Obtiene cuántos grados Celsius baja la armadura que lleva puesta el jugador
+     * la temperatura a partir de la cual padece hipotermia.
+     *
+     * @return El devandicho aislamiento térmico, en grados Celsius.
+     */
+    public float getAislamientoArmadura() {
+        return aislamientoArmadura;
+    }
+
+    /**
+     * Establece cuántos grados Celsius baja la armadura que lleva puesta el
+     * jugador la temperatura a partir de la cual padece hipotermia.
+     *
+     * @param aislamientoArmadura El aislamiento térmico, en grados Celsius.
+     */
+    public void setAislamientoArmadura(float aislamientoArmadura) {
+        this.aislamientoArmadura = aislamientoArmadura;
+    }
+
+    /**
+     * Obtiene el tick del
+     * {@link org.aylas.khron.tiemporeal.planificador.PlanificadorTiempoReal} a
+     * partir del cual se debe de volver a simular la hipotermia del jugador.
+     * Este método admite accesos concurrentes.
+     *
+     * @return El devandicho tick.
+     */
+    public long getTickProximaSimulacionHipotermia() {
+        return tickProximaSimulacionHipotermia;
+    }
+
+    /**
+     * Establece el tick del
+     * {@link org.aylas.khron.tiemporeal.planificador.PlanificadorTiempoReal} a
+     * partir del cual se debe de volver a simular la hipotermia del jugador.
+     *
+     * @param tickProximaSimulacionHipotermia El tick, o cero para simularla en
+     *                                        la próxima ocasión.
+     */
+    public void setTickProximaSimulacionHipotermia(long tickProximaSimulacionHipotermia) {
+        this.tickProximaSimulacionHipotermia = tickProximaSimulacionHipotermia;
+    }
+
+    /**
+     * Obtiene la celda geográfica en la que estaba el jugador la última vez que
+     * se simuló su tiempo de reloj. Este método admite accesos concurrentes.
+     *
+     * @return La devandicha celda, o {@link #SIN_CELDA_GEOGRAFICA} si todavía
+     *         no se ha simulado.
+     */
+    public long getCeldaGeografica() {
+        return celdaGeografica;
+    }
+
+    /**
+     * Establece la celda geográfica en la que estaba el jugador la última vez
+     * que se simuló su tiempo de reloj.
+     *
+     * @param celdaGeografica La celda geográfica.
+     */
+    public void setCeldaGeografica(long celdaGeografica) {
+        this.celdaGeografica = celdaGeografica;
+    }
+
+    /**
+     * Obtiene el desfase respecto al tiempo del mundo del tiempo de reloj que se
+     * le ha aplicado al jugador por última vez. Este método admite accesos
+     * concurrentes.
+     *
+     * @return El devandicho desfase, o {@link #SIN_DESFASE_TIEMPO} si el jugador
+     *         ve el tiempo del mundo.
+     */
+    public long getDesfaseTiempo() {
+        return desfaseTiempo;
+    }
+
+    /**
+     * Establece el desfase respecto al tiempo del mundo del tiempo de reloj que
+     * se le ha aplicado al jugador por última vez.
+     *
+     * @param desfaseTiempo El desfase, o {@link #SIN_DESFASE_TIEMPO} si el
+     *                      jugador ve el tiempo del mundo.
+     */
+    public void setDesfaseTiempo(long desfaseTiempo) {
+        this.desfaseTiempo = desfaseTiempo;
+    }
+
+    /**
+     * Obtiene el tick del
+     * {@link org.aylas.khron.tiemporeal.planificador.PlanificadorTiempoReal} en
+     * el que se realizó la última pasada completa de los relojes para el
+     * jugador. Este método admite accesos concurrentes.
+     *
+     * @return El devandicho tick.
+     */
+    public long getTickUltimaPasadaRelojes() {
+        return tickUltimaPasadaRelojes;
+    }
+
+    /**
+     * Obtiene el segundo de tiempo real, desde la época Unix, de la última
+     * pasada completa de los relojes para el jugador. Este método admite
+     * accesos concurrentes.
+     *
+     * @return El devandicho segundo, o {@link Long#MIN_VALUE} si todavía no se
+     *         ha realizado ninguna.
+     */
+    public long getSegundoUltimaPasadaRelojes() {
+        return segundoUltimaPasadaRelojes;
+    }
+
+    /**
+     * Registra que se ha realizado una pasada completa de los relojes para el
+     * jugador.
+     *
+     * @param tick    El tick del
+     *                {@link org.aylas.khron.tiemporeal.planificador.PlanificadorTiempoReal}
+     *                en el que se ha realizado.
+     * @param segundo El segundo de tiempo real, desde la época Unix, en el que
+     *                se ha realizado.
+     */
+    public void setUltimaPasadaRelojes(long tick, long segundo) {
+        tickUltimaPasadaRelojes = tick;
+        segundoUltimaPasadaRelojes = segundo;
+    }
+
+    /**
+     * Comprueba si se le está mostrando al jugador el display de un reloj.
+     *
+     * @param indiceReloj El índice del reloj.
+     * @return Verdadero en caso afirmativo, falso en otro caso.
+     */
+    public boolean isMostrandoDisplayReloj(int indiceReloj) {
+        return (relojesMostrandoDisplay & (1 << indiceReloj)) != 0;
+    }
+
+    /**
+     * Establece si se le está mostrando al jugador el display de un reloj.
+     *
+     * @param indiceReloj El índice del reloj.
+     * @param mostrando   Verdadero si se le está mostrando, falso en otro caso.
+     */
+    public void setMostrandoDisplayReloj(int indiceReloj, boolean mostrando) {
+        relojesMostrandoDisplay = mostrando ?
+            relojesMostrandoDisplay | (1 << indiceReloj) :
+            relojesMostrandoDisplay & ~(1 << indiceReloj);
+    }
+
+    /**
+     * Comprueba si el jugador tiene un reloj en su inventario.
+     *
+     * @param indiceReloj El índice del reloj.
+     * @return Verdadero en caso afirmativo, falso en otro caso.
+     */
+    public boolean tieneRelojEnInventario(int indiceReloj) {
+        return (relojesEnInventario & (1 << indiceReloj)) != 0;
+    }
+
+    /**
+     * Establece si el jugador tiene un reloj en su inventario.
+     *
+     * @param indiceReloj El índice del reloj.
+     * @param tiene       Verdadero si lo tiene, falso en otro caso.
+     */
+    public void setRelojEnInventario(int indiceReloj, boolean tiene) {
+        relojesEnInventario = tiene ?
+            relojesEnInventario | (1 << indiceReloj) :
+            relojesEnInventario & ~(1 << indiceReloj);
+    }
+
+    /**
+     * Comprueba si el jugador tiene algún reloj en su inventario, o algún reloj
+     * tiene un estado asociado a él. Este método admite accesos concurrentes.
+     *
+     * @return Verdadero en caso afirmativo, falso en otro caso.
+     */
+    public boolean tieneRelojesActivos() {
+        return (relojesEnInventario | relojesConEstado) != 0;
+    }
+
+    /**
+     * Obtiene el estado de un reloj asociado al jugador.
+     *
+     * @param indiceReloj El índice del reloj.
+     * @return El estado, o {@link #SIN_ESTADO_RELOJ} si no se ha guardado ninguno.
+     */
+    public long getEstadoReloj(int indiceReloj) {
+        return indiceReloj < estadosRelojes.length ? estadosRelojes[indiceReloj] : SIN_ESTADO_RELOJ;
+    }
+
+    /**
+     * Establece el estado de un reloj asociado al jugador.
+     *
+     * @param indiceReloj El índice del reloj.
+     * @param estado      El estado, o {@link #SIN_ESTADO_RELOJ} para descartarlo.
+     */
+    public void setEstadoReloj(int indiceReloj, long estado) {
+        // No hace falta hacer crecer el array para descartar un estado que no existe
+        if (indiceReloj >= estadosRelojes.length && estado != SIN_ESTADO_RELOJ) {
+            int longitudAnterior = estadosRelojes.length;
+            estadosRelojes = Arrays.copyOf(estadosRelojes, indiceReloj + 1);
+            Arrays.fill(estadosRelojes, longitudAnterior, estadosRelojes.length, SIN_ESTADO_RELOJ);
+        }
+
+        if (indiceReloj < estadosRelojes.length) {
+            estadosRelojes[indiceReloj] = estado;
+        }
+
+        relojesConEstado = estado != SIN_ESTADO_RELOJ ?
+            relojesConEstado | (1 << indiceReloj) :
+            relojesConEstado & ~(1 << indiceReloj);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,108 @@
+/*
+ * Plugins de Paper del Proyecto Khron
+ * Copyright (C) 2026 Comunidad Aylas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.aylas.khron.tiemporeal;
+
+import org.aylas.khron.tiemporeal.configuraciones.ParametrosSimulacionMundo;
+import org.bukkit.World;
+import org.bukkit.World.Environment;
+
+/**
+ * Representa el estado de un mundo en un momento dado, tal y como lo ve el
+ * simulador de tiempo. Las instantáneas de los mundos simulados se publican una
+ * vez por actualización de la simulación, y las de los demás mundos se crean
+ * bajo demanda como mucho una vez por tick, de forma que los relojes, el
+ * cálculo de temperaturas y el simulador de hipotermia no tengan que consultar
+ * de nuevo el mundo y la configuración para cada jugador. Al ser inmutables,
+ * pueden compartirse libremente.
+ *
+ * @param mundo                El mundo al que se refiere la instantánea.
+ * @param entorno              El entorno, o dimensión, del mundo.
+ * @param tormenta             Verdadero si está lloviendo o nevando en el mundo.
+ * @param truenos              Verdadero si hay una tormenta eléctrica en el
+ *                             mundo.
+ * @param parametrosSimulacion Los parámetros de simulación del mundo, o nulo si
+ *                             no se está simulando.
+ * @param tiempoCivil          El conversor a la hora civil de la franja horaria
+ *                             del mundo.
+ * @param milisegundoUtc       El instante, en milisegundos desde la época Unix,
+ *                             al que corresponde la hora civil del mundo en el
+ *                             momento en que se creó la instantánea. En los
+ *                             mundos no simulados depende del tiempo de
+ *                             Minecraft, y no del tiempo real.
+ * @param temperaturaBase      La temperatura base del mundo, en grados Celsius,
+ *                             a la que se aplica el modificador de temperatura
+ *                             de cada bioma.
+ * @param tickServidor         El tick del servidor en el que se creó la
+ *                             instantánea.
+ * @author AlexTMjugador
+ */
+public record InstantaneaMundo(
+    World mundo, Environment entorno, boolean tormenta, boolean truenos,
+    ParametrosSimulacionMundo parametrosSimulacion, TiempoCivil tiempoCivil, long milisegundoUtc,
+    float temperaturaBase, int tickServidor
+) {
+    /**
+     * Comprueba si el mundo tiene un ciclo día-noche, y por tanto una hora
+     * válida que mostrar en los relojes.
+     *
+     * @return Verdadero en caso afirmativo, falso en otro caso.
+     */
+    public boolean conCicloDiaNoche() {
+        return entorno == Environment.NORMAL;
+    }
+
+    /**
+     * Comprueba si el tiempo de este mundo está siendo simulado.
+     *
+     * @return Verdadero en caso afirmativo, falso en otro caso.
+     */
+    public boolean simulado() {
+        return parametrosSimulacion != null;
+    }
+
+    /**
+     * Obtiene el instante al que corresponde la hora civil del mundo en el
+     * segundo de tiempo real especificado. En los mundos simulados la hora
+     * avanza con el tiempo real, así que se desplaza el instante de la
+     * instantánea, que puede haberse creado hasta unos pocos ticks antes, para
+     * que los relojes cambien de segundo a la vez que el tiempo real. En los
+     * demás mundos la hora depende del tiempo de Minecraft, y se devuelve tal
+     * cual.
+     *
+     * @param segundo El segundo de tiempo real, desde la época Unix.
+     * @return El devandicho instante, en milisegundos desde la época Unix.
+     */
+    public long getMilisegundoUtc(long segundo) {
+        return simulado() ?
+            milisegundoUtc + (segundo - Math.floorDiv(milisegundoUtc, 1000)) * 1000 :
+            milisegundoUtc;
+    }
+
+    /**
+     * Obtiene la fecha y hora civil del mundo en el segundo de tiempo real
+     * especificado, de igual forma que {@link #getMilisegundoUtc(long)}. Sus
+     * campos se pueden obtener con los métodos de {@link TiempoCivil}.
+     *
+     * @param segundo El segundo de tiempo real, desde la época Unix.
+     * @return La devandicha fecha y hora, en milisegundos locales desde la época
+     *         Unix.
+     */
+    public long getFechaHora(long segundo) {
+        return tiempoCivil.getMilisegundoLocal(getMilisegundoUtc(segundo));
+    }
+}
\ No newline at end of file
@@ -20,16 +20,23 @@ package org.aylas.khron.tiemporeal;
 import java.util.Map;
 
 import org.aylas.khron.tiemporeal.configuraciones.ParametrosSimulacionMundo;
+import org.bukkit.Material;
 import org.bukkit.command.TabExecutor;
 
 import org.aylas.khron.libconfig.ComandosConfiguracion;
 import org.aylas.khron.libconfig.NotificableCambioConfiguracion;
 import org.aylas.khron.libconfig.PluginConfigurable;
+import org.aylas.khron.tiemporeal.barraacciones.CompositorBarraAcciones;
+import org.aylas.khron.tiemporeal.configuraciones.AislamientoArmaduras;
 import org.aylas.khron.tiemporeal.configuraciones.ClaveWeatherbit;
 import org.aylas.khron.tiemporeal.configuraciones.MapaParametrosSimulacionMundo;
+import org.aylas.khron.tiemporeal.configuraciones.PlantillaTextoReloj;
+import org.aylas.khron.tiemporeal.configuraciones.PresupuestoTick;
 import org.aylas.khron.tiemporeal.configuraciones.TextoReloj;
 import org.aylas.khron.tiemporeal.configuraciones.TextoRelojDimensionSinCiclo;
+import org.aylas.khron.tiemporeal.efectostermicos.IndiceFuentesCalor;
 import org.aylas.khron.tiemporeal.efectostermicos.SimuladorHipotermia;
+import org.aylas.khron.tiemporeal.planificador.PlanificadorTiempoReal;
 import org.aylas.khron.tiemporeal.relojes.Reloj;
 import org.aylas.khron.tiemporeal.relojes.RelojAnalogico;
 import org.aylas.khron.tiemporeal.relojes.RelojDigital;
@@ -93,6 +100,18 @@ public final class PluginTiempoReal extends PluginConfigurable {
      */
     private ClaveWeatherbit claveWeatherbit;
 
+    /**
+     * El parámetro de configuración que indica el tiempo máximo que las tareas
+     * periódicas del plugin pueden dedicar a trabajo por jugador en cada tick.
+     */
+    private PresupuestoTick presupuestoTick;
+
+    /**
+     * El parámetro de configuración que indica cuánto abriga cada material de
+     * armadura frente a la hipotermia.
+     */
+    private AislamientoArmaduras aislamientoArmaduras;
+
     /**
      * Crea los objetos y eventos necesarios para sincronizar el tiempo y extender
      * la funcionalidad de relojes, además de inicializar los valores de
@@ -108,10 +127,12 @@ public final class PluginTiempoReal extends PluginConfigurable {
         this.textoReloj = new TextoReloj();
         this.textoRelojDimensionSinCiclo = new TextoRelojDimensionSinCiclo();
         this.claveWeatherbit = new ClaveWeatherbit();
+        this.presupuestoTick = new PresupuestoTick();
+        this.aislamientoArmaduras = new AislamientoArmaduras();
 
         boolean configuracionLeida = leerParametrosConfiguracion(
             parametrosSimulacionMundo, textoReloj, textoRelojDimensionSinCiclo,
-            claveWeatherbit
+            claveWeatherbit, presupuestoTick, aislamientoArmaduras
         );
 
         if (configuracionLeida) {
@@ -119,26 +140,43 @@ public final class PluginTiempoReal extends PluginConfigurable {
             TabExecutor ejecutorComandos = new ComandosConfiguracion(
                 COMANDO_ESTABLECER_CONFIG, COMANDO_RECARGAR_CONFIG,
                 parametrosSimulacionMundo, textoReloj, textoRelojDimensionSinCiclo,
-                claveWeatherbit
+                claveWeatherbit, presupuestoTick, aislamientoArmaduras
             );
             getCommand(COMANDO_ESTABLECER_CONFIG).setExecutor(ejecutorComandos);
             getCommand(COMANDO_ESTABLECER_CONFIG).setTabCompleter(ejecutorComandos);
             getCommand(COMANDO_RECARGAR_CONFIG).setExecutor(ejecutorComandos);
             getCommand(COMANDO_RECARGAR_CONFIG).setTabCompleter(ejecutorComandos);
 
+            // Crear el estado de los jugadores ya conectados, antes de que lo
+            // necesite cualquier otra parte del plugin
+            RegistroJugadores.get().inicializar();
+
+            // Acotar bajo demanda la temperatura de los biomas de los chunks en
+            // los que se consulte, y olvidar las cotas de los que se descarguen
+            getPluginManager().registerEvents(CotasTemperaturaBiomas.get(), this);
+
             // Comenzar simulación de ciclos diurnos
             SimuladorTiempo.get().comenzarSimulacion();
             getPluginManager().registerEvents(SimuladorTiempo.get(), this);
 
+            // Registrar el compositor de la barra de acciones, usado por los relojes
+            getPluginManager().registerEvents(CompositorBarraAcciones.get(), this);
+
             // Registrar relojes
             relojDigital = RelojDigital.get();
             relojAnalogico = RelojAnalogico.get();
             getPluginManager().registerEvents(relojDigital, this);
             getPluginManager().registerEvents(relojAnalogico, this);
 
-            // Registrar simulador de congelación
+            // Registrar simulador de congelación, y el índice de fuentes de calor que usa
+            getPluginManager().registerEvents(IndiceFuentesCalor.get(), this);
             getPluginManager().registerEvents(SimuladorHipotermia.inicializar(), this);
 
+            // Registrar el registro de jugadores el último, para que descarte el estado
+            // de los jugadores que se desconectan después de que el resto de receptores
+            // de eventos hayan procesado su desconexión
+            getPluginManager().registerEvents(RegistroJugadores.get(), this);
+
             inicializado = true;
         }
     }
@@ -150,11 +188,16 @@ public final class PluginTiempoReal extends PluginConfigurable {
     public void onDisable() {
         if (inicializado) {
             SimuladorHipotermia.detener();
+            IndiceFuentesCalor.get().detener();
             SimuladorTiempo.get().detenerSimulacion();
             relojDigital.detener();
             relojAnalogico.detener();
             relojDigital = null;
             relojAnalogico = null;
+            CompositorBarraAcciones.get().detener();
+            PlanificadorTiempoReal.get().detener();
+            CotasTemperaturaBiomas.get().detener();
+            RegistroJugadores.get().detener();
         }
     }
 
@@ -169,26 +212,27 @@ public final class PluginTiempoReal extends PluginConfigurable {
     }
 
     /**
-     * Obtiene el valor actual del parámetro de configuración que indica el texto a
-     * mostrar cuando un jugador empuña un reloj.
+     * Obtiene la plantilla correspondiente al valor actual del parámetro de
+     * configuración que indica el texto a mostrar cuando un jugador empuña un
+     * reloj.
      *
-     * @return El devandicho valor del parámetro de configuración. Puede ser nulo si
-     *         todavía no se ha inicializado la configuración del plugin.
+     * @return La devandicha plantilla. Puede ser nula si todavía no se ha
+     *         inicializado la configuración del plugin.
      */
-    public String getTextoReloj() {
-        return textoReloj == null ? null : textoReloj.getValor();
+    public PlantillaTextoReloj getPlantillaTextoReloj() {
+        return textoReloj == null ? null : textoReloj.getPlantilla();
     }
 
     /**
-     * Obtiene el valor actual del parámetro de configuración que indica el texto a
-     * mostrar cuando un jugador empuña un reloj en una dimensión que no tenga un
-     * ciclo día-noche.
+     * Obtiene la plantilla correspondiente al valor actual del parámetro de
+     * configuración que indica el texto a mostrar cuando un jugador empuña un
+     * reloj en una dimensión que no tenga un ciclo día-noche.
      *
-     * @return El devandicho valor del parámetro de configuración. Puede ser nulo si
-     *         todavía no se ha inicializado la configuración del plugin.
+     * @return La devandicha plantilla. Puede ser nula si todavía no se ha
+     *         inicializado la configuración del plugin.
      */
-    public String getTextoRelojDimensionSinCiclo() {
-        return textoRelojDimensionSinCiclo == null ? null : textoRelojDimensionSinCiclo.getValor();
+    public PlantillaTextoReloj getPlantillaTextoRelojDimensionSinCiclo() {
+        return textoRelojDimensionSinCiclo == null ? null : textoRelojDimensionSinCiclo.getPlantilla();
     }
 
     /**
@@ -201,6 +245,29 @@ public final class PluginTiempoReal extends PluginConfigurable {
         return claveWeatherbit == null ? null : claveWeatherbit.getValor();
     }
 
+    /**
+     * Obtiene el valor actual del parámetro de configuración que indica el
+     * tiempo máximo, en milisegundos, que las tareas periódicas del plugin
+     * pueden dedicar a trabajo por jugador en cada tick.
+     *
+     * @return El devandicho tiempo. Puede ser nulo si todavía no se ha
+     *         inicializado la configuración del plugin.
+     */
+    public Double getPresupuestoTick() {
+        return presupuestoTick == null ? null : presupuestoTick.getValor();
+    }
+
+    /**
+     * Obtiene el valor actual del parámetro de configuración que indica cuántos
+     * grados Celsius abriga cada material de armadura frente a la hipotermia.
+     *
+     * @return El devandicho valor. Puede ser nulo si todavía no se ha
+     *         inicializado la configuración del plugin.
+     */
+    public Map<Material, Float> getAislamientoArmaduras() {
+        return aislamientoArmaduras == null ? null : aislamientoArmaduras.getValor();
+    }
+
     /**
      * Reacciona al cambio de la configuración del texto de reloj.
      *
@@ -209,7 +276,7 @@ public final class PluginTiempoReal extends PluginConfigurable {
     public static final class NotificableConfigTextoReloj implements NotificableCambioConfiguracion<String> {
         @Override
         public void onNewConfig(String antiguoValor, String nuevoValor) {
-            Reloj.actualizarComponentesTextoReloj(nuevoValor);
+            Reloj.actualizarPlantillaTextoReloj(getPlugin(PluginTiempoReal.class).getPlantillaTextoReloj());
         }
     }
 
@@ -222,7 +289,9 @@ public final class PluginTiempoReal extends PluginConfigurable {
     public static final class NotificableConfigTextoRelojDimensionSinCiclo implements NotificableCambioConfiguracion<String> {
         @Override
         public void onNewConfig(String antiguoValor, String nuevoValor) {
-            Reloj.actualizarComponentesTextoRelojDimensionSinCiclo(nuevoValor);
+            Reloj.actualizarPlantillaTextoRelojDimensionSinCiclo(
+                getPlugin(PluginTiempoReal.class).getPlantillaTextoRelojDimensionSinCiclo()
+            );
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,225 @@
+/*
+ * Plugins de Paper del Proyecto Khron
+ * Copyright (C) 2026 Comunidad Aylas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.aylas.khron.tiemporeal;
+
+import static org.bukkit.Bukkit.getServer;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Mantiene el {@link EstadoJugador} de cada jugador conectado, creándolo cuando
+ * se conecta y descartándolo cuando se desconecta, de forma que no se guarde
+ * información de jugadores que ya no están en el servidor.
+ *
+ * <p>
+ * El estado se crea antes de que el resto de componentes del plugin procesen
+ * la conexión del jugador. Para que se descarte después de que procesen su
+ * desconexión, este objeto debe de registrarse como receptor de eventos después
+ * que ellos.
+ * </p>
+ *
+ * <p>
+ * En Folia, los jugadores se conectan y desconectan en los hilos de sus
+ * regiones, así que las colecciones del registro admiten accesos concurrentes.
+ * </p>
+ *
+ * @author AlexTMjugador
+ */
+public final class RegistroJugadores implements Listener {
+    /**
+     * El número de cubetas en las que se reparten los estados de los jugadores
+     * según su id de entidad, de forma que el trabajo periódico sobre ellos se
+     * pueda repartir entre varios ticks. Equivale a un segundo de ticks.
+     */
+    public static final int CUBETAS = 20;
+
+    /**
+     * El estado de cada jugador conectado, indexado por su UUID.
+     */
+    private final Map<UUID, EstadoJugador> estadosJugadores = new ConcurrentHashMap<>(
+        (int) ((getServer().getMaxPlayers() + 1) / 0.75)
+    );
+
+    /**
+     * Una vista no modificable de los estados de los jugadores conectados.
+     */
+    private final Collection<EstadoJugador> vistaEstadosJugadores = Collections.unmodifiableCollection(
+        estadosJugadores.values()
+    );
+
+    /**
+     * Los estados de los jugadores conectados, repartidos en {@link #CUBETAS}
+     * cubetas según su id de entidad.
+     */
+    private final List<Set<EstadoJugador>> cubetas = new ArrayList<>(CUBETAS);
+
+    /**
+     * Vistas no modificables de cada cubeta de {@link #cubetas}.
+     */
+    private final List<Collection<EstadoJugador>> vistasCubetas = new ArrayList<>(CUBETAS);
+
+    /**
+     * Restringe la instanciación de esta clase a otras clases.
+     */
+    private RegistroJugadores() {
+        for (int i = 0; i < CUBETAS; ++i) {
+            Set<EstadoJugador> cubeta = ConcurrentHashMap.newKeySet();
+
+            cubetas.add(cubeta);
+            vistasCubetas.add(Collections.unmodifiableCollection(cubeta));
+        }
+    }
+
+    /**
+     * Obtiene la única instancia del registro de jugadores en la JVM, creándola
+     * si no lo ha sido ya.
+     *
+     * @return La devandicha instancia.
+     */
+    public static RegistroJugadores get() {
+        return PoseedorInstanciaClase.INSTANCIA;
+    }
+
+    /**
+     * Crea el estado de los jugadores que ya están conectados, lo que es
+     * necesario si el plugin se habilita con el servidor en marcha.
+     */
+    public void inicializar() {
+        for (Player p : getServer().getOnlinePlayers()) {
+            if (!estadosJugadores.containsKey(p.getUniqueId())) {
+                registrar(p);
+            }
+        }
+    }
+
+    /**
+     * Descarta el estado de todos los jugadores.
+     */
+    public void detener() {
+        for (EstadoJugador estado : estadosJugadores.values()) {
+            estado.marcarDesconectado();
+        }
+
+        estadosJugadores.clear();
+
+        for (Set<EstadoJugador> cubeta : cubetas) {
+            cubeta.clear();
+        }
+    }
+
+    /**
+     * Obtiene el estado de un jugador conectado.
+     *
+     * @param p El jugador del que obtener su estado.
+     * @return El estado del jugador, o nulo si no está registrado, como ocurre
+     *         con las entidades de jugador que no representan a un jugador
+     *         conectado.
+     */
+    public EstadoJugador getEstadoJugador(Player p) {
+        return estadosJugadores.get(p.getUniqueId());
+    }
+
+    /**
+     * Obtiene los estados de todos los jugadores conectados.
+     *
+     * @return Una vista no modificable de los devandichos estados, que refleja
+     *         los cambios posteriores en el registro.
+     */
+    public Collection<EstadoJugador> getEstadosJugadores() {
+        return vistaEstadosJugadores;
+    }
+
+    /**
+     * Obtiene los estados de los jugadores conectados que están en una cubeta.
+     *
+     * @param cubeta El índice de la cubeta, en el intervalo [0, {@link #CUBETAS}).
+     * @return Una vista no modificable de los devandichos estados, que refleja
+     *         los cambios posteriores en el registro.
+     */
+    public Collection<EstadoJugador> getCubeta(int cubeta) {
+        return vistasCubetas.get(cubeta);
+    }
+
+    /**
+     * Crea el estado de un jugador que se conecta, antes de que lo necesite
+     * cualquier otro componente del plugin.
+     *
+     * @param event El evento de conexión del jugador.
+     */
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        registrar(event.getPlayer());
+    }
+
+    /**
+     * Descarta el estado de un jugador que se desconecta.
+     *
+     * @param event El evento de desconexión del jugador.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        EstadoJugador estado = estadosJugadores.remove(event.getPlayer().getUniqueId());
+
+        if (estado != null) {
+            cubetas.get(estado.getCubeta()).remove(estado);
+            estado.marcarDesconectado();
+        }
+    }
+
+    /**
+     * Crea y registra el estado de un jugador, sustituyendo al anterior si lo
+     * hubiera.
+     *
+     * @param p El jugador cuyo estado registrar.
+     */
+    private void registrar(Player p) {
+        EstadoJugador estado = new EstadoJugador(p, Math.floorMod(p.getEntityId(), CUBETAS));
+        EstadoJugador estadoAnterior = estadosJugadores.put(p.getUniqueId(), estado);
+
+        if (estadoAnterior != null) {
+            cubetas.get(estadoAnterior.getCubeta()).remove(estadoAnterior);
+            estadoAnterior.marcarDesconectado();
+        }
+
+        cubetas.get(estado.getCubeta()).add(estado);
+    }
+
+    /**
+     * Ayuda a implementar el patrón singleton de inicialización retardada al uso de
+     * la instancia, de forma segura entre hilos y eficiente.
+     *
+     * @author AlexTMjugador
+     */
+    private static final class PoseedorInstanciaClase {
+        private static final RegistroJugadores INSTANCIA = new RegistroJugadores();
+    }
+}
\ No newline at end of file
@@ -23,11 +23,15 @@ import static org.bukkit.Bukkit.getWorlds;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.concurrent.ExecutionException;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import java.util.regex.Pattern;
 
@@ -37,6 +41,8 @@ import org.aylas.khron.tiemporeal.meteorologia.Clima;
 import org.aylas.khron.tiemporeal.meteorologia.InformacionMeteorologica;
 import org.aylas.khron.tiemporeal.meteorologia.MeteorologiaDesconocidaException;
 import org.aylas.khron.tiemporeal.meteorologia.TiempoAtmosferico;
+import org.aylas.khron.tiemporeal.planificador.PlanificadorTiempoReal;
+import org.aylas.khron.tiemporeal.planificador.TareaPlanificada;
 import org.bukkit.ChatColor;
 import org.bukkit.GameRule;
 import org.bukkit.Location;
@@ -52,16 +58,13 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerChangedWorldEvent;
 import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
 import org.bukkit.event.server.ServerCommandEvent;
 import org.bukkit.event.world.WorldLoadEvent;
 import org.bukkit.event.world.WorldUnloadEvent;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
-import org.bukkit.util.Vector;
-import org.slf4j.Logger;
-
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 
 import org.aylas.khron.libconfig.NotificableCambioConfiguracion;
 
@@ -69,6 +72,13 @@ import org.aylas.khron.libconfig.NotificableCambioConfiguracion;
  * Simula características de tiempo atmosférico y de reloj de un mundo,
  * siguiendo estrategias configurables para tal propósito.
  *
+ * <p>
+ * El estado de los mundos se actualiza en el hilo de la región global, y el de
+ * cada jugador en el hilo dueño del jugador, que en Folia es el de la región en
+ * la que está. Las instantáneas de los mundos se pueden consultar desde
+ * cualquier hilo.
+ * </p>
+ *
  * @author AlexTMjugador
  */
 public final class SimuladorTiempo implements Listener, NotificableCambioConfiguracion<Map<String, ParametrosSimulacionMundo>> {
@@ -78,6 +88,46 @@ public final class SimuladorTiempo implements Listener, NotificableCambioConfigu
      */
     private static final int TICKS_ACTUALIZACION_SIMULACION = 10;
 
+    /**
+     * Los ticks en los que, como mucho, puede diferir el tiempo de reloj de dos
+     * puntos de una misma celda geográfica, que ven el mismo tiempo.
+     */
+    private static final double TICKS_TOLERADOS_CELDA = 1;
+
+    /**
+     * El desplazamiento en radianes de latitud o longitud con el que se estima
+     * cuánto cambia el tiempo de reloj al desplazarse en cada eje.
+     */
+    private static final double DESPLAZAMIENTO_SENSIBILIDAD = 0.01;
+
+    /**
+     * El exponente máximo del lado de una celda geográfica, expresado como una
+     * potencia de dos en bloques.
+     */
+    private static final int EXPONENTE_MAXIMO_CELDA = 24;
+
+    /**
+     * Cada cuántas pasadas de actualización se vuelve a obtener la celda
+     * geográfica de todos los jugadores a partir de su posición, por si alguno
+     * ha cambiado de celda sin que se haya notado, por ejemplo, al desplazarse
+     * en un vehículo.
+     */
+    private static final int PASADAS_REVISION_CELDAS = 20;
+
+    /**
+     * El exponente del lado de una celda meteorológica, expresado como una
+     * potencia de dos en bloques. Se recuerda el último tiempo atmosférico
+     * calculado para cada celda, con el que se atiende a los jugadores que
+     * aparecen en ella.
+     */
+    private static final int EXPONENTE_CELDA_METEOROLOGICA = 9;
+
+    /**
+     * Los milisegundos durante los que se considera vigente el último tiempo
+     * atmosférico calculado para una celda meteorológica.
+     */
+    private static final long MILISEGUNDOS_VALIDEZ_METEOROLOGIA_CELDA = 1800000;
+
     /**
      * El radio en bloques de la circunferencia definida en torno a un bloque del
      * que se desea obtener la temperatura, para calcular la temperatura de un
@@ -121,36 +171,32 @@ public final class SimuladorTiempo implements Listener, NotificableCambioConfigu
     /**
      * Los mundos que se están simulando actualmente.
      */
-    private final Map<World, DatosSimulacion> mundosSimulados = new HashMap<>(
+    private final Map<World, DatosSimulacion> mundosSimulados = new ConcurrentHashMap<>(
         (int) (getServer().getWorlds().size() / 0.75)
     );
 
-    /**
-     * La caché de tiempos de reloj simulados calculados para cada mundo, usada
-     * para evitar repetir cálculos en cada tick de la simulación.
-     */
-    private final Cache<Vector, Long> cacheTiemposCalculados = CacheBuilder.newBuilder()
-        .concurrencyLevel(1)
-        .softValues() // Es deseable permitir que Java quite entradas si cree que tiene poca memoria
-        .initialCapacity(Math.max(getServer().getMaxPlayers() / 2, 8))
-        .build();
-
     /**
      * La tarea usada para actualizar periódicamente la simulación del tiempo de
      * los mundos.
      */
-    private BukkitTask tareaActualizacionSimulacion = null;
+    private ActualizarSimulacion tareaActualizacionSimulacion = null;
 
     /**
-     * El último momento simulado en los ciclos diurnos de todos los mundos.
+     * La última pasada de actualización comenzada en cada mundo simulado, con
+     * la que se calcula el tiempo de reloj de los jugadores que cambian de
+     * celda geográfica entre pasadas.
      */
-    private Instant ultimoMomentoSimulado = null;
+    private final Map<World, PasadaMundo> pasadasMundos = new ConcurrentHashMap<>(
+        (int) (getServer().getWorlds().size() / 0.75)
+    );
 
     /**
-     * La última información meteorológica simulada para cada jugador.
+     * La última instantánea publicada de cada mundo. Las de los mundos simulados
+     * se publican en cada actualización de la simulación, y las del resto se
+     * crean bajo demanda.
      */
-    private final Map<Player, InformacionMeteorologica> ultimaInformacionMeteorologicaSimulada = new HashMap<>(
-        (int) ((getServer().getMaxPlayers() + 1) / 0.75)
+    private final Map<World, InstantaneaMundo> instantaneasMundos = new ConcurrentHashMap<>(
+        (int) (getServer().getWorlds().size() / 0.75)
     );
 
     /**
@@ -188,6 +234,7 @@ public final class SimuladorTiempo implements Listener, NotificableCambioConfigu
     @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
     public void onWorldUnload(WorldUnloadEvent event) {
         detenerSimulacion(event.getWorld());
+        instantaneasMundos.remove(event.getWorld());
     }
 
     /**
@@ -205,13 +252,17 @@ public final class SimuladorTiempo implements Listener, NotificableCambioConfigu
     ) {
         // Ignorar la primera vez que se llama a este evento
         if (antiguoValor != null) {
-            // Detener simulación de todos los mundos anteriores
-            detenerSimulacion();
-
-            // Iniciar simulación de los nuevos mundos
-            for (String w : nuevoValor.keySet()) {
-                comenzarSimulacion(getServer().getWorld(w));
-            }
+            // En Folia, la configuración se puede cambiar desde el hilo de la región
+            // de un jugador, pero los mundos solo se pueden modificar desde la global
+            PlanificadorTiempoReal.get().ejecutarEnRegionGlobal(() -> {
+                // Detener simulación de todos los mundos anteriores
+                detenerSimulacion();
+
+                // Iniciar simulación de los nuevos mundos
+                for (String w : nuevoValor.keySet()) {
+                    comenzarSimulacion(getServer().getWorld(w));
+                }
+            });
         }
     }
 
@@ -266,59 +317,131 @@ public final class SimuladorTiempo implements Listener, NotificableCambioConfigu
     }
 
     /**
-     * Restaura la hora del día vista por el cliente para mundos que no estén
+     * Aplica de inmediato el tiempo de reloj de la celda geográfica en la que
+     * aparecen los jugadores que se conectan a un mundo simulado, y su tiempo
+     * atmosférico particular si se simula por jugador, sin esperar a la próxima
+     * pasada de actualización.
+     *
+     * @param event El evento de conexión recibido.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        Player p = event.getPlayer();
+
+        aplicarTiempoJugadorAparecido(p, p.getLocation());
+    }
+
+    /**
+     * Aplica de inmediato el tiempo de reloj y el tiempo atmosférico particular
+     * del lugar del mundo al que van los jugadores que cambian de mundo, y
+     * restaura la hora del día vista por el cliente para mundos que no estén
      * siendo simulados por este objeto.
      *
      * @param event El evento de cambio de mundo recibido.
      */
     @EventHandler(ignoreCancelled = true)
     public void onPlayerChangeWorld(PlayerChangedWorldEvent event) {
-        if (mundosSimulados.containsKey(event.getFrom())) {
-            Player p = event.getPlayer();
+        Player p = event.getPlayer();
+        boolean vieneDeMundoSimulado = mundosSimulados.containsKey(event.getFrom());
+
+        // El tiempo atmosférico particular y la información meteorológica del
+        // mundo anterior no son adecuados. Si el nuevo mundo no los simula por
+        // jugador, o no se pueden obtener todavía, verá los del mundo
+        if (vieneDeMundoSimulado) {
+            TiempoAtmosferico.restaurarJugador(p);
+            descartarMeteorologiaJugador(p);
+        }
 
-            // Restaurar sincronización predeterminada de la hora del cliente
-            // con la del servidor. Esto corrige una desincronización en caso
-            // de que el jugador vaya a un mundo cuyo ciclo no está siendo
-            // simulado, y también hace que se note menos el retraso hasta la
-            // próxima simulación en el caso de que vaya a otro mundo sí
-            // simulado (solamente no se vería bien la fase de la luna por 0,5 s)
-            p.resetPlayerTime();
+        // Restaurar sincronización predeterminada de la hora del cliente con la
+        // del servidor si no se le ha podido aplicar la del nuevo mundo, porque
+        // no está siendo simulado o todavía no se ha actualizado su simulación
+        if (!aplicarTiempoJugadorAparecido(p, p.getLocation()) && vieneDeMundoSimulado) {
+            restaurarTiempoRelojJugador(p);
+        }
+    }
 
-            // La información meteorológica del mundo anterior tampoco es adecuada
-            ultimaInformacionMeteorologicaSimulada.remove(p);
+    /**
+     * Aplica de inmediato el tiempo de reloj de la nueva celda geográfica de los
+     * jugadores que cambian de bloque, si con ello cambian de celda.
+     *
+     * @param event El evento de movimiento recibido.
+     */
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        if (event.hasChangedBlock()) {
+            actualizarCeldaGeograficaJugador(event.getPlayer(), event.getTo());
         }
     }
 
     /**
-     * Obtiene la última hora simulada en un mundo o, de no haberse simulado aún
-     * un ciclo diurno en el mundo, la hora del día de Minecraft.
+     * Aplica de inmediato el tiempo de reloj de la nueva celda geográfica de los
+     * jugadores que se teletransportan dentro de un mismo mundo, si con ello
+     * cambian de celda.
      *
-     * @param w El mundo del que obtener la hora.
-     * @return La hora actual del mundo, no nula.
-     * @throws NullPointerException Si el mundo es nulo.
+     * @param event El evento de teletransporte recibido.
      */
-    public ZonedDateTime getHoraMundo(World w) {
-        ZonedDateTime hora;
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        if (event.getFrom().getWorld().equals(event.getTo().getWorld())) {
+            actualizarCeldaGeograficaJugador(event.getPlayer(), event.getTo());
+        }
+    }
 
-        ParametrosSimulacionMundo parametrosSimulacion = PluginTiempoReal
-            .getPlugin(PluginTiempoReal.class).getParametrosSimulacionMundo().get(w.getName());
+    /**
+     * Aplica de inmediato el tiempo de reloj de la celda geográfica en la que
+     * reaparecen los jugadores, y su tiempo atmosférico particular si se simula
+     * por jugador, si reaparecen en el mismo mundo. Si reaparecen en otro, se
+     * encarga de ello el evento de cambio de mundo.
+     *
+     * @param event El evento de reaparición recibido.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerRespawn(PlayerRespawnEvent event) {
+        Player p = event.getPlayer();
 
-        if (mundosSimulados.containsKey(w) && ultimoMomentoSimulado != null && parametrosSimulacion != null) {
-            hora = ZonedDateTime.ofInstant(
-                ultimoMomentoSimulado,
-                parametrosSimulacion.getFranjaHoraria()
-            );
-        } else {
+        if (event.getRespawnLocation().getWorld().equals(p.getWorld())) {
+            aplicarTiempoJugadorAparecido(p, event.getRespawnLocation());
+        }
+    }
+
+    /**
+     * Obtiene la instantánea del estado actual de un mundo. Para los mundos
+     * simulados se devuelve la publicada en la última actualización de la
+     * simulación; para el resto, se crea una nueva como mucho una vez por tick.
+     *
+     * @param w El mundo del que obtener la instantánea.
+     * @return La devandicha instantánea, no nula.
+     * @throws NullPointerException Si el mundo es nulo.
+     */
+    public InstantaneaMundo getInstantaneaMundo(World w) {
+        InstantaneaMundo toret = instantaneasMundos.get(w);
+
+        if (toret == null || (!toret.simulado() && toret.tickServidor() != getServer().getCurrentTick())) {
             // Si el mundo no está siendo simulado, o no tenemos datos de su simulación,
-            // deducir su hora a partir de las mecánicas usuales de Minecraft
-            hora = ZonedDateTime.ofInstant(
-                // + 21600000 porque los ticks empiezan a contar a las 6 AM
-                Instant.ofEpochMilli(w.getFullTime() * 3600 + 21600000),
-                ZoneId.systemDefault()
-            );
+            // deducir su estado a partir de las mecánicas usuales de Minecraft
+            toret = crearInstantaneaMundo(w, mundosSimulados.get(w), null, Instant.now());
+            instantaneasMundos.put(w, toret);
         }
 
-        return hora;
+        return toret;
+    }
+
+    /**
+     * Obtiene la hora real actual en la franja horaria de un mundo simulado o, de
+     * no haberse simulado aún un ciclo diurno en el mundo, la hora del día de
+     * Minecraft.
+     *
+     * @param w El mundo del que obtener la hora.
+     * @return La hora actual del mundo, no nula.
+     * @throws NullPointerException Si el mundo es nulo.
+     */
+    public ZonedDateTime getHoraMundo(World w) {
+        InstantaneaMundo instantaneaMundo = getInstantaneaMundo(w);
+
+        return ZonedDateTime.ofInstant(
+            Instant.ofEpochMilli(instantaneaMundo.getMilisegundoUtc(System.currentTimeMillis() / 1000)),
+            instantaneaMundo.tiempoCivil().getFranjaHoraria()
+        );
     }
 
     /**
@@ -329,31 +452,119 @@ public final class SimuladorTiempo implements Listener, NotificableCambioConfigu
      * @throws NullPointerException Si el jugador es nulo.
      */
     public float getTemperatura(Player p) {
-        InformacionMeteorologica informacionMeteorologica;
-        DatosSimulacion datosSim;
-        World w = p.getWorld();
-        float temperaturaBase;
-        Location posicionJugador = p.getLocation();
-
-        if ((informacionMeteorologica = ultimaInformacionMeteorologicaSimulada.get(p)) != null) {
-            // Usar la información meteorológica específica del jugador si está disponible
-            temperaturaBase = informacionMeteorologica.getTemperatura();
-        } else if ((datosSim = mundosSimulados.get(w)) != null && datosSim.getUltimaTemperaturaSimulada() != null) {
-            // Usar la información meteorológica global al mundo
-            temperaturaBase = datosSim.getUltimaTemperaturaSimulada();
-        } else {
-            // Si no tenemos información meteorológica, usar un valor neutral que da
-            // valores apropiados para los valores de temperatura de biomas de Minecraft,
-            // escalado según la hora del día actual
-            temperaturaBase = 25 * (float) (1 / (3 * Math.cosh((w.getTime() - 6000) / 1200.0)) + DOS_TERCIOS);
+        EstadoJugador estadoJugador = RegistroJugadores.get().getEstadoJugador(p);
+        InstantaneaMundo instantaneaMundo = getInstantaneaMundo(p.getWorld());
+
+        return estadoJugador != null ?
+            getTemperatura(estadoJugador, instantaneaMundo) :
+            getTemperatura(instantaneaMundo.temperaturaBase(), p.getLocation(), instantaneaMundo);
+    }
+
+    /**
+     * Obtiene la temperatura ambiente en la ubicación del jugador especificado,
+     * a partir de su estado y de una instantánea ya obtenida del mundo en el que
+     * está. Los biomas cercanos solo se muestrean si sus cotas de temperatura no
+     * muestran que todos tienen el mismo modificador.
+     *
+     * @param estadoJugador    El estado del jugador de cuya ubicación se obtendrá
+     *                         la temperatura.
+     * @param instantaneaMundo La instantánea del mundo en el que está el jugador.
+     * @return La temperatura buscada, en grados Celsius.
+     * @throws NullPointerException Si algún parámetro es nulo.
+     */
+    public float getTemperatura(EstadoJugador estadoJugador, InstantaneaMundo instantaneaMundo) {
+        float temperaturaBase = getTemperaturaBase(estadoJugador, instantaneaMundo);
+        Location posicion = estadoJugador.getPosicion();
+        int px = posicion.getBlockX();
+        int pz = posicion.getBlockZ();
+
+        // Si las cotas de los biomas cercanos muestran que todos tienen el mismo
+        // modificador, la media de las muestras es ese modificador, y no hace falta
+        // tomarlas
+        float modificador = CotasTemperaturaBiomas.get().getModificadorUniforme(
+            instantaneaMundo.mundo(),
+            px - RADIO_MUESTREO_TEMPERATURA, px + RADIO_MUESTREO_TEMPERATURA,
+            posicion.getBlockY(),
+            pz - RADIO_MUESTREO_TEMPERATURA, pz + RADIO_MUESTREO_TEMPERATURA
+        );
+
+        return Float.isNaN(modificador) ?
+            getTemperatura(temperaturaBase, posicion, instantaneaMundo) :
+            temperaturaBase * modificador;
+    }
+
+    /**
+     * Obtiene la temperatura ambiente en la ubicación del jugador especificado,
+     * como {@link #getTemperatura(EstadoJugador, InstantaneaMundo)}, salvo que,
+     * si las cotas de temperatura de los biomas cercanos demuestran que no es
+     * menor que un umbral, se devuelve la cota sin muestrear los biomas. Así,
+     * comprobar si un jugador pasa frío solo requiere muestrear los biomas en
+     * las zonas donde es posible.
+     *
+     * @param estadoJugador    El estado del jugador de cuya ubicación se obtendrá
+     *                         la temperatura.
+     * @param instantaneaMundo La instantánea del mundo en el que está el jugador.
+     * @param umbral           La temperatura umbral, en grados Celsius.
+     * @return La temperatura buscada o, si se sabe que no es menor que el
+     *         umbral, una cota inferior suya que tampoco lo es, en grados
+     *         Celsius.
+     * @throws NullPointerException Si algún parámetro es nulo.
+     */
+    public float getTemperaturaAcotada(EstadoJugador estadoJugador, InstantaneaMundo instantaneaMundo, float umbral) {
+        float temperaturaBase = getTemperaturaBase(estadoJugador, instantaneaMundo);
+        Location posicion = estadoJugador.getPosicion();
+        int px = posicion.getBlockX();
+        int pz = posicion.getBlockZ();
+
+        float toret = CotasTemperaturaBiomas.get().getTemperaturaMinima(
+            instantaneaMundo.mundo(), temperaturaBase,
+            px - RADIO_MUESTREO_TEMPERATURA, px + RADIO_MUESTREO_TEMPERATURA,
+            posicion.getBlockY(),
+            pz - RADIO_MUESTREO_TEMPERATURA, pz + RADIO_MUESTREO_TEMPERATURA
+        );
+
+        // Muestrear los biomas solo si la cota no basta para descartar el umbral
+        if (Float.isNaN(toret) || toret < umbral) {
+            toret = getTemperatura(temperaturaBase, posicion, instantaneaMundo);
         }
 
+        return toret;
+    }
+
+    /**
+     * Obtiene la temperatura base a la que aplicar el modificador de los biomas
+     * para un jugador.
+     *
+     * @param estadoJugador    El estado del jugador.
+     * @param instantaneaMundo La instantánea del mundo en el que está el jugador.
+     * @return La devandicha temperatura, en grados Celsius.
+     */
+    private static float getTemperaturaBase(EstadoJugador estadoJugador, InstantaneaMundo instantaneaMundo) {
+        // Usar la información meteorológica específica del jugador si está disponible,
+        // o la global al mundo si no
+        return estadoJugador.tieneTemperaturaMeteorologica() ?
+            estadoJugador.getTemperaturaMeteorologica() :
+            instantaneaMundo.temperaturaBase();
+    }
+
+    /**
+     * Obtiene la temperatura ambiente en una ubicación, aplicando a una
+     * temperatura base el modificador de temperatura de los biomas cercanos.
+     *
+     * @param temperaturaBase  La temperatura base, en grados Celsius.
+     * @param posicion         La ubicación de la que obtener la temperatura.
+     * @param instantaneaMundo La instantánea del mundo de la ubicación.
+     * @return La temperatura buscada, en grados Celsius.
+     */
+    private float getTemperatura(float temperaturaBase, Location posicion, InstantaneaMundo instantaneaMundo) {
+        World w = instantaneaMundo.mundo();
+
         // La temperatura puede variar abruptamente de un bloque a otro debido al cambio
         // de bioma. Para evitar eso tomamos (RADIO_MUESTREO_TEMPERATURA * 2 + 1) ^ 2 muestras
         // alrededor de la posición deseada y calculamos su media
-        int px = posicionJugador.getBlockX();
-        int py = posicionJugador.getBlockY();
-        int pz = posicionJugador.getBlockZ();
+        int px = posicion.getBlockX();
+        int py = posicion.getBlockY();
+        int pz = posicion.getBlockZ();
         double muestrasTemperaturaAcumuladas = 0;
         for (int x = px - RADIO_MUESTREO_TEMPERATURA; x <= px + RADIO_MUESTREO_TEMPERATURA; ++x) {
             for (int z = pz - RADIO_MUESTREO_TEMPERATURA; z <= pz + RADIO_MUESTREO_TEMPERATURA; ++z) {
@@ -382,9 +593,8 @@ public final class SimuladorTiempo implements Listener, NotificableCambioConfigu
         // (No es igual para que sea algo más eficiente)
 
         if (tareaActualizacionSimulacion != null) {
-            tareaActualizacionSimulacion.cancel();
+            PlanificadorTiempoReal.get().anularRegistroTarea(tareaActualizacionSimulacion);
             tareaActualizacionSimulacion = null;
-            ultimoMomentoSimulado = null;
         }
 
         Iterator<Entry<World, DatosSimulacion>> iter = mundosSimulados.entrySet().iterator();
@@ -397,14 +607,14 @@ public final class SimuladorTiempo implements Listener, NotificableCambioConfigu
             w.setGameRule(GameRule.DO_DAYLIGHT_CYCLE, entrada.getValue().haciaCicloDiaNoche());
 
             for (Player p : w.getPlayers()) {
-                TiempoAtmosferico.restaurarJugador(p);
-                p.resetPlayerTime();
+                PlanificadorTiempoReal.get().ejecutarEnJugador(p, () -> restaurarTiempoJugador(p));
             }
 
             iter.remove();
         }
 
-        ultimaInformacionMeteorologicaSimulada.clear();
+        instantaneasMundos.clear();
+        pasadasMundos.clear();
     }
 
     /**
@@ -438,9 +648,8 @@ public final class SimuladorTiempo implements Listener, NotificableCambioConfigu
             w.setGameRule(GameRule.DO_DAYLIGHT_CYCLE, false);
 
             if (tareaActualizacionSimulacion == null) {
-                tareaActualizacionSimulacion = new ActualizarSimulacion().runTaskTimer(
-                    PluginTiempoReal.getPlugin(PluginTiempoReal.class), 0, TICKS_ACTUALIZACION_SIMULACION
-                );
+                tareaActualizacionSimulacion = new ActualizarSimulacion();
+                PlanificadorTiempoReal.get().registrarTarea(tareaActualizacionSimulacion);
             }
         }
     }
@@ -454,6 +663,8 @@ public final class SimuladorTiempo implements Listener, NotificableCambioConfigu
         DatosSimulacion datosSimulacion = mundosSimulados.remove(w);
 
         if (datosSimulacion != null) {
+            instantaneasMundos.remove(w);
+            pasadasMundos.remove(w);
             TiempoAtmosferico.restaurarMundo(w);
 
             w.setGameRule(GameRule.DO_DAYLIGHT_CYCLE, datosSimulacion.haciaCicloDiaNoche());
@@ -461,223 +672,787 @@ public final class SimuladorTiempo implements Listener, NotificableCambioConfigu
             // Restaurar sincronización predeterminada de la hora del cliente
             // con la del servidor
             for (Player p : w.getPlayers()) {
-                TiempoAtmosferico.restaurarJugador(p);
-                p.resetPlayerTime();
-                ultimaInformacionMeteorologicaSimulada.remove(p);
+                PlanificadorTiempoReal.get().ejecutarEnJugador(p, () -> restaurarTiempoJugador(p));
             }
 
             if (tareaActualizacionSimulacion != null && mundosSimulados.isEmpty()) {
-                tareaActualizacionSimulacion.cancel();
+                PlanificadorTiempoReal.get().anularRegistroTarea(tareaActualizacionSimulacion);
                 tareaActualizacionSimulacion = null;
-                ultimoMomentoSimulado = null;
             }
         }
     }
 
+    /**
+     * Restaura la sincronización predeterminada de la hora y el tiempo
+     * atmosférico de un jugador con los del servidor.
+     *
+     * @param p El jugador cuya hora y tiempo atmosférico restaurar.
+     */
+    private static void restaurarTiempoJugador(Player p) {
+        TiempoAtmosferico.restaurarJugador(p);
+        restaurarTiempoRelojJugador(p);
+        descartarMeteorologiaJugador(p);
+    }
+
+    /**
+     * Restaura la sincronización predeterminada de la hora de un jugador con la
+     * del servidor, y olvida la celda geográfica en la que estaba.
+     *
+     * @param p El jugador cuya hora restaurar.
+     */
+    private static void restaurarTiempoRelojJugador(Player p) {
+        EstadoJugador estadoJugador = RegistroJugadores.get().getEstadoJugador(p);
+
+        p.resetPlayerTime();
+
+        if (estadoJugador != null) {
+            estadoJugador.setCeldaGeografica(EstadoJugador.SIN_CELDA_GEOGRAFICA);
+            estadoJugador.setDesfaseTiempo(EstadoJugador.SIN_DESFASE_TIEMPO);
+        }
+    }
+
+    /**
+     * Aplica a un jugador que acaba de aparecer en un mundo el tiempo de reloj de
+     * la celda geográfica en la que aparece, calculado a partir de la última
+     * pasada de actualización del mundo, aunque no cambie de celda, y el tiempo
+     * atmosférico particular del lugar, si se simula. El cliente puede haber
+     * olvidado el tiempo que se le aplicó antes, así que se le vuelve a enviar.
+     *
+     * @param p         El jugador.
+     * @param ubicacion La ubicación en la que aparece el jugador.
+     * @return Verdadero si se le ha aplicado un tiempo de reloj al jugador, falso
+     *         si el mundo no simula el tiempo de reloj o todavía no se ha
+     *         actualizado su simulación.
+     */
+    private boolean aplicarTiempoJugadorAparecido(Player p, Location ubicacion) {
+        EstadoJugador estadoJugador = RegistroJugadores.get().getEstadoJugador(p);
+        boolean toret = false;
+
+        if (estadoJugador != null) {
+            estadoJugador.setCeldaGeografica(EstadoJugador.SIN_CELDA_GEOGRAFICA);
+            estadoJugador.setDesfaseTiempo(EstadoJugador.SIN_DESFASE_TIEMPO);
+
+            actualizarCeldaGeograficaJugador(p, ubicacion);
+            aplicarMeteorologiaJugadorAparecido(p, ubicacion);
+
+            toret = estadoJugador.getDesfaseTiempo() != EstadoJugador.SIN_DESFASE_TIEMPO;
+        }
+
+        return toret;
+    }
+
+    /**
+     * Comprueba si un jugador va a cambiar de celda geográfica al desplazarse a
+     * un destino de su mundo y, en tal caso, le aplica el tiempo de reloj de la
+     * nueva celda sin esperar a la próxima pasada de actualización.
+     *
+     * @param p       El jugador.
+     * @param destino El destino del jugador.
+     */
+    private void actualizarCeldaGeograficaJugador(Player p, Location destino) {
+        PasadaMundo pasadaMundo = pasadasMundos.get(destino.getWorld());
+        EstadoJugador estadoJugador = RegistroJugadores.get().getEstadoJugador(p);
+
+        if (pasadaMundo != null && pasadaMundo.arcoDiurnoSolar() != null && estadoJugador != null) {
+            long celda = pasadaMundo.getCeldaGeografica(destino.getX(), destino.getZ());
+
+            if (celda != estadoJugador.getCeldaGeografica()) {
+                aplicarTiempoRelojJugador(p, estadoJugador, pasadaMundo, celda);
+            }
+        }
+    }
+
+    /**
+     * Aplica a un jugador el tiempo de reloj de la celda geográfica en la que
+     * está, calculándolo si no se ha calculado ya en la pasada de actualización
+     * de su mundo. Se debe de llamar desde el hilo dueño del jugador.
+     *
+     * @param p             El jugador.
+     * @param estadoJugador El estado del jugador.
+     * @param pasadaMundo   La pasada de actualización del mundo del jugador, que
+     *                      debe de simular el tiempo de reloj.
+     * @param celda         La celda geográfica en la que está el jugador.
+     */
+    private static void aplicarTiempoRelojJugador(
+        Player p, EstadoJugador estadoJugador, PasadaMundo pasadaMundo, long celda
+    ) {
+        long tiempoJugador = pasadaMundo.tiemposCalculados().computeIfAbsent(
+            celda, (Long celdaJugador) -> {
+                return pasadaMundo.arcoDiurnoSolar().getTiempoJugador(
+                    pasadaMundo.ahora(), pasadaMundo.mundo(),
+                    pasadaMundo.getLatitudCelda(celda), pasadaMundo.getLongitudCelda(celda)
+                );
+            }
+        );
+
+        // El tiempo visible para un cliente es siempre relativo a otro tiempo,
+        // porque el API de Bukkit está algo mal documentada en este aspecto. Véase:
+        // https://github.com/Attano/Spigot-1.8/blob/9db48bc15e203179554b8d992ca6b0a528c8d300/net/minecraft/server/v1_8_R3/EntityPlayer.java#L1077
+        // https://github.com/Attano/Spigot-1.8/blob/9db48bc15e203179554b8d992ca6b0a528c8d300/org/bukkit/craftbukkit/entity/CraftPlayer.java#L680
+        // https://github.com/Attano/Spigot-1.8/blob/9db48bc15e203179554b8d992ca6b0a528c8d300/net/minecraft/server/v1_8_R3/PacketPlayOutUpdateTime.java#L5
+        // https://github.com/Attano/Spigot-1.8/blob/9db48bc15e203179554b8d992ca6b0a528c8d300/net/minecraft/server/v1_8_R3/MinecraftServer.java#L745
+        // Por tanto, lo más sencillo es enviarle a cada cliente la desviación del tiempo que deberían de ver
+        // respecto al tiempo del servidor. Como es relativa, avanza sola con el tiempo del mundo, así que
+        // solo hace falta volver a enviarla cuando cambia
+        long desfase = tiempoJugador - pasadaMundo.tiempoMundo();
+        if (desfase != estadoJugador.getDesfaseTiempo()) {
+            p.setPlayerTime(desfase, true);
+            estadoJugador.setDesfaseTiempo(desfase);
+        }
+
+        // Recordar la celda para detectar cuándo el jugador la abandona, y precalcular
+        // su tiempo en la próxima pasada
+        estadoJugador.setCeldaGeografica(celda);
+    }
+
+    /**
+     * Descarta la información meteorológica simulada específicamente para un
+     * jugador, si la hay.
+     *
+     * @param p El jugador del que descartar la información meteorológica.
+     */
+    private static void descartarMeteorologiaJugador(Player p) {
+        EstadoJugador estadoJugador = RegistroJugadores.get().getEstadoJugador(p);
+
+        if (estadoJugador != null) {
+            estadoJugador.setTemperaturaMeteorologica(Float.NaN);
+        }
+    }
+
+    /**
+     * Aplica a un jugador que acaba de aparecer en un mundo el tiempo atmosférico
+     * particular del lugar en el que aparece, si su mundo lo simula por jugador.
+     * Se usa el último calculado para la celda meteorológica del lugar y, si no
+     * hay ninguno vigente, se calcula en el momento solo para este jugador, en
+     * vez de esperar a que la pasada de actualización llegue a él.
+     *
+     * @param p         El jugador.
+     * @param ubicacion La ubicación en la que aparece el jugador.
+     */
+    private void aplicarMeteorologiaJugadorAparecido(Player p, Location ubicacion) {
+        PasadaMundo pasadaMundo = pasadasMundos.get(ubicacion.getWorld());
+        EstadoJugador estadoJugador = RegistroJugadores.get().getEstadoJugador(p);
+
+        if (pasadaMundo != null && pasadaMundo.climaJugadores() != null && estadoJugador != null) {
+            MeteorologiaCelda meteorologiaCelda = pasadaMundo.datosSimulacion().getMeteorologiaCelda(
+                getCeldaMeteorologica(ubicacion.getX(), ubicacion.getZ())
+            );
+
+            if (meteorologiaCelda != null) {
+                meteorologiaCelda.tiempoAtmosferico().aplicarAJugador(p);
+                estadoJugador.setTemperaturaMeteorologica(meteorologiaCelda.temperatura());
+            } else {
+                calcularMeteorologiaJugador(p, estadoJugador, pasadaMundo, ubicacion);
+            }
+        }
+    }
+
+    /**
+     * Calcula el tiempo atmosférico particular del lugar en el que está un
+     * jugador, si el clima de su mundo dispone de cálculos para ello, y se lo
+     * aplica en su hilo dueño. El resultado se recuerda para la celda
+     * meteorológica del lugar, de forma que los jugadores que aparezcan en ella
+     * lo vean sin esperar.
+     *
+     * @param p             El jugador.
+     * @param estadoJugador El estado del jugador.
+     * @param pasadaMundo   La pasada de actualización del mundo del jugador, que
+     *                      debe de simular el tiempo atmosférico por jugador.
+     * @param posicion      La posición del jugador.
+     */
+    private static void calcularMeteorologiaJugador(
+        Player p, EstadoJugador estadoJugador, PasadaMundo pasadaMundo, Location posicion
+    ) {
+        DatosSimulacion datosSimulacion = pasadaMundo.datosSimulacion();
+        long celdaMeteorologica = getCeldaMeteorologica(posicion.getX(), posicion.getZ());
+
+        actualizarMeteorologia(
+            pasadaMundo.climaJugadores(), datosSimulacion,
+            pasadaMundo.getLatitud(posicion.getZ()), pasadaMundo.getLongitud(posicion.getX()),
+            pasadaMundo.maximosCalculosClimaDia(),
+            // Los climas bloqueantes devuelven el resultado en el hilo de la
+            // región global
+            (TiempoAtmosferico t, InformacionMeteorologica i) -> {
+                datosSimulacion.setMeteorologiaCelda(celdaMeteorologica, t, i.getTemperatura());
+
+                PlanificadorTiempoReal.get().ejecutarEnJugador(p, () -> {
+                    t.aplicarAJugador(p);
+                    estadoJugador.setTemperaturaMeteorologica(i.getTemperatura());
+                });
+            }
+        );
+    }
+
+    /**
+     * Obtiene la celda meteorológica a la que pertenece una posición de un
+     * mundo, de lado 2^{@link #EXPONENTE_CELDA_METEOROLOGICA} bloques en ambos
+     * ejes.
+     *
+     * @param x La coordenada X de la posición.
+     * @param z La coordenada Z de la posición.
+     * @return La celda, que empaqueta las coordenadas X y Z de su esquina.
+     */
+    private static long getCeldaMeteorologica(double x, double z) {
+        long esquinaX = (int) Math.floor(x) >> EXPONENTE_CELDA_METEOROLOGICA;
+        long esquinaZ = (int) Math.floor(z) >> EXPONENTE_CELDA_METEOROLOGICA;
+
+        return (esquinaX << 32) | (esquinaZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Actualiza el tiempo atmosférico visible para un objeto, ejecutando la acción
+     * especificada con él como parámetro.
+     *
+     * @param clima                   El clima del mundo relacionado, que se asume
+     *                                no nulo.
+     * @param datosSimulacion         Los datos de simulación del mundo relacionado,
+     *                                que se asumen no nulos.
+     * @param latitud                 La latitud del lugar del que obtener el tiempo
+     *                                atmosférico.
+     * @param longitud                La longitud del lugar del que obtener el
+     *                                tiempo atmosférico.
+     * @param maximosCalculosClimaDia El número máximo de cálculos de tiempo
+     *                                atmosférico permitidos para el clima
+     *                                especificado.
+     * @param accion                  La acción a ejecutar para aplicar el clima
+     *                                especificado al objeto que se desee.
+     */
+    private static void actualizarMeteorologia(
+        Clima clima, DatosSimulacion datosSimulacion, double latitud, double longitud, float maximosCalculosClimaDia,
+        BiConsumer<TiempoAtmosferico, InformacionMeteorologica> accion
+    ) {
+        long msIntervaloCalculoClima = (long) Math.ceil(86400000 / maximosCalculosClimaDia);
+
+        if (datosSimulacion.reservarCalculoClima(msIntervaloCalculoClima)) {
+            try {
+                if (clima.esBloqueante()) {
+                    clima.calcularTiempoAtmosfericoActual(latitud, longitud, (TiempoAtmosferico t, InformacionMeteorologica i) -> {
+                        accion.accept(t, i);
+                    });
+                } else {
+                    Entry<TiempoAtmosferico, InformacionMeteorologica> informacionTiempo =
+                        clima.calcularTiempoAtmosfericoActual(latitud, longitud);
+
+                    accion.accept(informacionTiempo.getKey(), informacionTiempo.getValue());
+                }
+            } catch (MeteorologiaDesconocidaException exc) {
+                PluginTiempoReal.getPlugin(PluginTiempoReal.class).getSLF4JLogger().warn(
+                    "Ha ocurrido un error al calcular el tiempo atmosférico de un mundo",
+                    exc
+                );
+            }
+        }
+    }
+
+    /**
+     * Crea una instantánea del estado actual de un mundo.
+     *
+     * @param w                    El mundo del que crear la instantánea.
+     * @param datosSimulacion      Los datos de simulación del mundo. Pueden ser
+     *                             nulos si no se está simulando.
+     * @param parametrosSimulacion Los parámetros de simulación del mundo. Si son
+     *                             nulos, la hora del mundo se deducirá del tiempo
+     *                             de Minecraft.
+     * @param ahora                El momento actual.
+     * @return La instantánea creada.
+     */
+    private InstantaneaMundo crearInstantaneaMundo(
+        World w, DatosSimulacion datosSimulacion, ParametrosSimulacionMundo parametrosSimulacion, Instant ahora
+    ) {
+        TiempoCivil tiempoCivil;
+        long milisegundoUtc;
+        float temperaturaBase;
+
+        if (parametrosSimulacion != null) {
+            tiempoCivil = TiempoCivil.de(parametrosSimulacion.getFranjaHoraria());
+            milisegundoUtc = ahora.toEpochMilli();
+        } else {
+            tiempoCivil = TiempoCivil.de(ZoneId.systemDefault());
+            // + 21600000 porque los ticks empiezan a contar a las 6 AM
+            milisegundoUtc = w.getFullTime() * 3600 + 21600000;
+        }
+
+        if (datosSimulacion != null && datosSimulacion.getUltimaTemperaturaSimulada() != null) {
+            temperaturaBase = datosSimulacion.getUltimaTemperaturaSimulada();
+        } else {
+            // Si no tenemos información meteorológica, usar un valor neutral que da
+            // valores apropiados para los valores de temperatura de biomas de Minecraft,
+            // escalado según la hora del día actual
+            temperaturaBase = 25 * (float) (1 / (3 * Math.cosh((w.getTime() - 6000) / 1200.0)) + DOS_TERCIOS);
+        }
+
+        return new InstantaneaMundo(
+            w, w.getEnvironment(), w.hasStorm(), w.isThundering(), parametrosSimulacion, tiempoCivil, milisegundoUtc,
+            temperaturaBase, getServer().getCurrentTick()
+        );
+    }
+
     /**
      * Tarea para actualizar la simulación del tiempo de los mundos a intervalos
      * de tiempo discretos.
+     * <p>
+     * Cada pasada de actualización recorre los mundos simulados y sus jugadores
+     * con un cursor que se conserva entre ticks, y cada ejecución de la tarea
+     * solo avanza el cursor mientras no agote el presupuesto de tiempo por tick.
+     * Así, una pasada con muchos jugadores y la caché de tiempos fría se reparte
+     * entre varios ticks, continuando siempre por donde se quedó, en vez de
+     * calcularse de golpe.
+     * </p>
      *
      * @author AlexTMjugador
      */
-    private class ActualizarSimulacion extends BukkitRunnable {
+    private class ActualizarSimulacion implements TareaPlanificada {
+        /**
+         * Los mundos que quedan por recorrer en la pasada en curso.
+         */
+        private final Queue<World> mundosPendientes = new ArrayDeque<>();
+
+        /**
+         * El mundo que se está recorriendo en la pasada en curso, o nulo si no se
+         * está recorriendo ninguno.
+         */
+        private PasadaMundo pasadaMundo = null;
+
+        /**
+         * El momento en el que comenzó la pasada en curso, que se usa como momento
+         * actual en toda ella.
+         */
+        private Instant ahora = null;
+
+        /**
+         * El número de veces que se ha ejecutado esta tarea, que se ejecuta una vez
+         * por tick.
+         */
+        private long tickActual = 0;
+
+        /**
+         * El tick a partir del cual se puede comenzar la siguiente pasada.
+         */
+        private long tickSiguientePasada = 0;
+
+        /**
+         * El número de pasadas comenzadas.
+         */
+        private long numeroPasada = 0;
+
         @Override
-        public void run() {
-            Instant ahora = Instant.now();
-            Logger loggerPlugin = PluginTiempoReal.getPlugin(PluginTiempoReal.class).getSLF4JLogger();
-            Location posicion = new Location(null, 0, 0, 0);
+        public int getPeriodo() {
+            return 1;
+        }
 
+        /**
+         * Comienza una pasada de actualización si ha terminado la anterior y han
+         * pasado al menos {@link SimuladorTiempo#TICKS_ACTUALIZACION_SIMULACION}
+         * ticks desde que comenzó, y avanza la pasada en curso hasta terminarla o
+         * agotar el presupuesto de tiempo del tick. Siempre se da al menos un paso,
+         * para que la pasada progrese aunque otras tareas hayan agotado el
+         * presupuesto.
+         */
+        @Override
+        public void ejecutar() {
+            long inicio = System.nanoTime();
+            long presupuesto = PlanificadorTiempoReal.get().getPresupuestoTick();
+
+            if (pasadaMundo == null && mundosPendientes.isEmpty() && tickActual >= tickSiguientePasada) {
+                ahora = Instant.now();
+                mundosPendientes.addAll(mundosSimulados.keySet());
+                tickSiguientePasada = tickActual + TICKS_ACTUALIZACION_SIMULACION;
+                ++numeroPasada;
+            }
+
+            boolean primerPaso = true;
+            while (
+                (pasadaMundo != null || !mundosPendientes.isEmpty()) &&
+                (primerPaso || System.nanoTime() - inicio < presupuesto)
+            ) {
+                if (pasadaMundo == null) {
+                    pasadaMundo = comenzarPasadaMundo(mundosPendientes.remove());
+                } else if (mundosSimulados.get(pasadaMundo.mundo()) != pasadaMundo.datosSimulacion()) {
+                    // La simulación del mundo se ha detenido durante la pasada
+                    pasadaMundo = null;
+                } else if (pasadaMundo.jugadores().hasNext()) {
+                    PasadaMundo pasadaJugador = pasadaMundo;
+                    Player p = pasadaMundo.jugadores().next();
+
+                    if (debeSimularJugador(pasadaJugador, p)) {
+                        PlanificadorTiempoReal.get().ejecutarEnJugador(p, () -> simularJugador(pasadaJugador, p));
+                    }
+                } else {
+                    // Publicar el estado resultante del mundo para el resto del plugin
+                    instantaneasMundos.put(pasadaMundo.mundo(), crearInstantaneaMundo(
+                        pasadaMundo.mundo(), pasadaMundo.datosSimulacion(), pasadaMundo.parametrosSimulacion(),
+                        pasadaMundo.ahora()
+                    ));
+
+                    pasadaMundo = null;
+                }
+
+                primerPaso = false;
+            }
+
+            ++tickActual;
+        }
+
+        /**
+         * Actualiza el tiempo y el clima de un mundo, y prepara el recorrido de sus
+         * jugadores en la pasada en curso.
+         *
+         * @param w El mundo a actualizar.
+         * @return La información necesaria para recorrer los jugadores del mundo, o
+         *         nulo si el mundo ya no se simula o no tenemos sus parámetros de
+         *         simulación.
+         */
+        private PasadaMundo comenzarPasadaMundo(World w) {
+            PasadaMundo toret = null;
+            DatosSimulacion datosSimulacion = mundosSimulados.get(w);
             Map<String, ParametrosSimulacionMundo> parametrosSimulacionMundos = PluginTiempoReal
                 .getPlugin(PluginTiempoReal.class).getParametrosSimulacionMundo();
+            ParametrosSimulacionMundo parametrosSimulacionMundo = parametrosSimulacionMundos.get(w.getName());
+
+            // Si no tenemos los parámetros de simulación del mundo para este mundo es porque acabamos de cambiar
+            // la configuración o algo parecido, así que simplemente ignorar el mundo
+            if (datosSimulacion != null && parametrosSimulacionMundo != null) {
+                // Obtener los parámetros de simulación del mundo
+                double latitudSpawn = parametrosSimulacionMundo.getLatitudSpawn();
+                double longitudSpawn = parametrosSimulacionMundo.getLongitudSpawn();
+                double radio = parametrosSimulacionMundo.getRadio() * 1000.0; // Pasar a metros
+                ArcoDiurnoSolar arcoDiurnoSolar = parametrosSimulacionMundo.getArcoDiurnoSolar();
+                Clima clima = parametrosSimulacionMundo.getClima();
+                float maximosCalculosClimaDia = clima.maximasInvocacionesPorDiaPermitidas() /
+                    mundosSimulados.keySet().stream()
+                    .filter((World otroMundo) -> parametrosSimulacionMundos.get(otroMundo.getName()).getClima().equals(clima))
+                    .count();
+                boolean climaSimulado = clima.simulaMeteorologia();
+                boolean tiempoSimulado = arcoDiurnoSolar.simulaPlaneta();
+
+                // Agrupar a los jugadores en celdas tan grandes como se pueda sin que el tiempo
+                // de reloj de sus puntos difiera demasiado, según lo que cambia al desplazarse
+                // en cada eje ahora mismo. Nunca se agrupan puntos que disten más de 0,5 grados
+                // = 0,00872665 radianes, y en los mundos que no simulan el tiempo de reloj no hace
+                // falta agrupar a nadie
+                double umbralAgrupamiento = radio * 0.00872665;
+                int exponenteCeldaX = 0;
+                int exponenteCeldaZ = 0;
+
+                if (tiempoSimulado) {
+                    long tiempoSpawn = arcoDiurnoSolar.getTiempoMundo(ahora, latitudSpawn, longitudSpawn);
+                    // Desplazarse hacia el ecuador, para no sobrepasar los polos
+                    double desplazamientoLatitud = latitudSpawn > 0 ? -DESPLAZAMIENTO_SENSIBILIDAD : DESPLAZAMIENTO_SENSIBILIDAD;
+
+                    exponenteCeldaX = getExponenteCelda(
+                        tiempoSpawn, arcoDiurnoSolar.getTiempoMundo(ahora, latitudSpawn, longitudSpawn + DESPLAZAMIENTO_SENSIBILIDAD),
+                        radio, umbralAgrupamiento
+                    );
+                    exponenteCeldaZ = getExponenteCelda(
+                        tiempoSpawn, arcoDiurnoSolar.getTiempoMundo(ahora, latitudSpawn + desplazamientoLatitud, longitudSpawn),
+                        radio, umbralAgrupamiento
+                    );
+                }
+
+                Location puntoAparicionMundo = w.getSpawnLocation();
 
-            for (Entry<World, DatosSimulacion> entrada : mundosSimulados.entrySet()) {
-                World w = entrada.getKey();
-                DatosSimulacion datosSimulacion = entrada.getValue();
-                ParametrosSimulacionMundo parametrosSimulacionMundo = parametrosSimulacionMundos.get(w.getName());
-
-                // Si no tenemos los parámetros de simulación del mundo para este mundo es porque acabamos de cambiar
-                // la configuración o algo parecido, así que simplemente ignorar el mundo
-                if (parametrosSimulacionMundo != null) {
-                    // Obtener los parámetros de simulación del mundo
-                    double latitudSpawn = parametrosSimulacionMundo.getLatitudSpawn();
-                    double longitudSpawn = parametrosSimulacionMundo.getLongitudSpawn();
-                    double radio = parametrosSimulacionMundo.getRadio() * 1000.0; // Pasar a metros
-                    ArcoDiurnoSolar arcoDiurnoSolar = parametrosSimulacionMundo.getArcoDiurnoSolar();
-                    Clima clima = parametrosSimulacionMundo.getClima();
-                    float maximosCalculosClimaDia = clima.maximasInvocacionesPorDiaPermitidas() /
-                        mundosSimulados.keySet().stream()
-                        .filter((World otroMundo) -> parametrosSimulacionMundos.get(otroMundo.getName()).getClima().equals(clima))
-                        .count();
-                    boolean climaSimulado = clima.simulaMeteorologia();
-                    boolean tiempoSimulado = arcoDiurnoSolar.simulaPlaneta();
-
-                    // La distancia mínima a recorrer en un eje de latitud o longitud por un jugador
-                    // para incrementarla 0,5 grados = 0,00872665 radianes
-                    double umbralAgrupamiento = radio * 0.00872665;
-
-                    Location puntoAparicionMundo = w.getSpawnLocation();
-
-                    // Establecer el tiempo del mundo en el servidor, usado para las mecánicas del juego,
-                    // según lo calculado por el arco diurno configurado, si corresponde
-                    if (tiempoSimulado) {
-                        w.setTime(arcoDiurnoSolar.getTiempoMundo(ahora, latitudSpawn, longitudSpawn));
-
-                        // Discretizar la posición del punto de aparición y guardarla en la caché,
-                        // para que jugadores cerca del punto de aparición puedan obtener el tiempo
-                        // calculado de ella más rápidamente
-                        Vector puntoAparicionMundoDiscretizado = new Vector(
-                            Math.floor(puntoAparicionMundo.getX() / umbralAgrupamiento),
-                            0,
-                            Math.floor(puntoAparicionMundo.getZ() / umbralAgrupamiento)
-                        );
-
-                        // Calcular el tiempo de los jugadores cerca del spawn, y guardarlo si se va a usar
-                        if (w.getPlayerCount() > 0) {
-                            cacheTiemposCalculados.put(
-                                puntoAparicionMundoDiscretizado,
-                                arcoDiurnoSolar.getTiempoJugador(ahora, w, latitudSpawn, longitudSpawn)
-                            );
+                // Los tiempos de reloj ya calculados en esta pasada para cada celda geográfica
+                // del mundo, para no repetir cálculos para jugadores cercanos entre sí. Solo son
+                // relevantes para este mundo y esta pasada
+                Map<Long, Long> tiemposCalculados = new ConcurrentHashMap<>();
+
+                // Establecer el tiempo del mundo en el servidor, usado para las mecánicas del juego,
+                // según lo calculado por el arco diurno configurado, si corresponde
+                if (tiempoSimulado) {
+                    w.setTime(arcoDiurnoSolar.getTiempoMundo(ahora, latitudSpawn, longitudSpawn));
+                }
+
+                // Olvidar el tiempo atmosférico de las celdas que ya no está vigente
+                datosSimulacion.descartarMeteorologiaCeldasCaducadas();
+
+                // Calcular el clima del mundo si corresponde
+                if (climaSimulado) {
+                    actualizarMeteorologia(
+                        clima, datosSimulacion, latitudSpawn, longitudSpawn, maximosCalculosClimaDia,
+                        (TiempoAtmosferico t, InformacionMeteorologica i) -> {
+                            t.aplicarAMundo(w);
+                            datosSimulacion.setUltimaTemperaturaSimulada(i.getTemperatura());
                         }
-                    }
+                    );
+                }
 
+                // Establecer un umbral en 1 cálculo por jugador + 1 cálculo por mundo en cada tick de simulación
+                // para la simulación de tiempo atmosférico por jugador
+                float umbralCalculos = (1728000f / TICKS_ACTUALIZACION_SIMULACION) *
+                    (getServer().getMaxPlayers() + mundosSimulados.size());
+
+                // Si las celdas geográficas no han cambiado de tamaño desde la pasada anterior, las
+                // celdas en las que estaban los jugadores siguen siendo válidas, y se sabe cuándo
+                // las abandonan. Cada cierto número de pasadas se revisan de todos modos
+                PasadaMundo pasadaAnterior = pasadasMundos.get(w);
+                boolean celdasConservadas = pasadaAnterior != null &&
+                    pasadaAnterior.exponenteCeldaX() == exponenteCeldaX &&
+                    pasadaAnterior.exponenteCeldaZ() == exponenteCeldaZ &&
+                    numeroPasada % PASADAS_REVISION_CELDAS != 0;
+
+                toret = new PasadaMundo(
+                    w, datosSimulacion, parametrosSimulacionMundo, ahora, latitudSpawn, longitudSpawn, radio,
+                    exponenteCeldaX, exponenteCeldaZ, celdasConservadas, puntoAparicionMundo,
                     // Guardar el tiempo del mundo desde el comienzo del primer día, que usaremos luego
-                    long tiempoMundo = w.getFullTime();
-
-                    // Calcular el clima del mundo si corresponde
-                    if (climaSimulado) {
-                        actualizarMeteorologia(
-                            clima, datosSimulacion, latitudSpawn, longitudSpawn, maximosCalculosClimaDia,
-                            (TiempoAtmosferico t, InformacionMeteorologica i) -> {
-                                t.aplicarAMundo(w);
-                                datosSimulacion.setUltimaTemperaturaSimulada(i.getTemperatura());
-                            }
-                        );
-                    }
+                    w.getFullTime(),
+                    tiempoSimulado ? arcoDiurnoSolar : null,
+                    climaSimulado && maximosCalculosClimaDia >= umbralCalculos ? clima : null,
+                    maximosCalculosClimaDia, tiemposCalculados, w.getPlayers().iterator()
+                );
 
-                    // Establecer un umbral en 1 cálculo por jugador + 1 cálculo por mundo en cada tick de simulación
-                    // para la simulación de tiempo atmosférico por jugador
-                    float umbralCalculos = (1728000f / TICKS_ACTUALIZACION_SIMULACION) *
-                        (getServer().getMaxPlayers() + mundosSimulados.size());
-
-                    // Ahora simular el tiempo de reloj y atmosférico particular para cada jugador
-                    for (Player p : w.getPlayers()) {
-                        p.getLocation(posicion);
-
-                        // Obtener el ángulo de desplazamiento respecto al punto de aparición, a partir
-                        // de la distancia en latitud y longitud
-                        double deltax = (puntoAparicionMundo.getX() - posicion.getX()) / radio;
-                        double deltaz = (puntoAparicionMundo.getZ() - posicion.getZ()) / radio;
-
-                        // Sumar el desplazamiento a la latitud y longitud del punto de aparición
-                        double latitudJugador = latitudSpawn + deltaz;
-                        double longitudJugador = longitudSpawn + deltax;
-
-                        // Obtener el tiempo a mostrarle al jugador de la caché, si es posible,
-                        // o calcularlo si no está
-                        if (tiempoSimulado) {
-                            try {
-                                long tiempoJugador = cacheTiemposCalculados.get(
-                                    new Vector(
-                                        Math.floor(posicion.getX() / umbralAgrupamiento),
-                                        0,
-                                        Math.floor(posicion.getZ() / umbralAgrupamiento)
-                                    ), () -> {
-                                        return arcoDiurnoSolar.getTiempoJugador(
-                                            ahora, w, latitudJugador, longitudJugador
-                                        );
-                                    }
-                                );
-
-                                // El tiempo visible para un cliente es siempre relativo a otro tiempo,
-                                // porque el API de Bukkit está algo mal documentada en este aspecto. Véase:
-                                // https://github.com/Attano/Spigot-1.8/blob/9db48bc15e203179554b8d992ca6b0a528c8d300/net/minecraft/server/v1_8_R3/EntityPlayer.java#L1077
-                                // https://github.com/Attano/Spigot-1.8/blob/9db48bc15e203179554b8d992ca6b0a528c8d300/org/bukkit/craftbukkit/entity/CraftPlayer.java#L680
-                                // https://github.com/Attano/Spigot-1.8/blob/9db48bc15e203179554b8d992ca6b0a528c8d300/net/minecraft/server/v1_8_R3/PacketPlayOutUpdateTime.java#L5
-                                // https://github.com/Attano/Spigot-1.8/blob/9db48bc15e203179554b8d992ca6b0a528c8d300/net/minecraft/server/v1_8_R3/MinecraftServer.java#L745
-                                // Por tanto, lo más sencillo es enviarle a cada cliente la desviación del tiempo que deberían de ver
-                                // respecto al tiempo del servidor
-                                p.setPlayerTime(tiempoJugador - tiempoMundo, true);
-                            } catch (ExecutionException exc) {
-                                loggerPlugin.warn(
-                                    "Ha ocurrido una excepción no controlada durante la simulación del ciclo diurno para un jugador",
-                                    exc
-                                );
-                            }
-                        }
+                // Calcular de una vez el tiempo de las celdas en las que es probable que estén
+                // los jugadores, si los hay
+                if (tiempoSimulado && w.getPlayerCount() > 0) {
+                    precalcularTiemposCeldas(toret);
+                }
 
-                        // Aplicar el tiempo atmosférico particular si es necesario, y si
-                        // el proveedor de tiempo atmosférico usado va sobrado de cálculos disponibles
-                        if (climaSimulado && maximosCalculosClimaDia >= umbralCalculos) {
-                            actualizarMeteorologia(
-                                clima, datosSimulacion, latitudJugador, longitudJugador, maximosCalculosClimaDia,
-                                (TiempoAtmosferico t, InformacionMeteorologica i) -> {
-                                    t.aplicarAJugador(p);
-                                    ultimaInformacionMeteorologicaSimulada.put(p, i);
-                                }
-                            );
-                        }
-                    }
+                pasadasMundos.put(w, toret);
+            }
+
+            return toret;
+        }
 
-                    // No reutilizar los resultados de la caché para otros mundos
-                    // (los datos solo son relevantes para este mundo)
-                    cacheTiemposCalculados.invalidateAll();
+        /**
+         * Calcula el exponente del lado, en potencias de dos de bloques, de las
+         * celdas geográficas en un eje, de forma que el tiempo de reloj de sus
+         * puntos no difiera en más de {@link SimuladorTiempo#TICKS_TOLERADOS_CELDA}
+         * ticks.
+         *
+         * @param tiempo             El tiempo de reloj en un punto.
+         * @param tiempoDesplazado   El tiempo de reloj tras desplazarse
+         *                           {@link SimuladorTiempo#DESPLAZAMIENTO_SENSIBILIDAD}
+         *                           radianes en el eje desde el punto anterior.
+         * @param radio              El radio del planeta, en metros.
+         * @param umbralAgrupamiento El lado máximo de una celda, en bloques.
+         * @return El devandicho exponente, no negativo.
+         */
+        private int getExponenteCelda(long tiempo, long tiempoDesplazado, double radio, double umbralAgrupamiento) {
+            // Tomar la diferencia más corta entre ambos tiempos, pues el tiempo del día es cíclico
+            double ticksPorRadian = Math.abs(Math.floorMod(tiempoDesplazado - tiempo + 12000, 24000) - 12000) /
+                DESPLAZAMIENTO_SENSIBILIDAD;
+            // Si el tiempo no cambia en este eje, la celda tendrá el lado máximo
+            double lado = Math.min(TICKS_TOLERADOS_CELDA / ticksPorRadian * radio, umbralAgrupamiento);
+
+            return Math.max(0, Math.min(EXPONENTE_MAXIMO_CELDA, Math.getExponent(lado)));
+        }
+
+        /**
+         * Calcula con una única invocación al arco diurno solar el tiempo de reloj
+         * de la celda geográfica del punto de aparición y de las celdas en las que
+         * estaban los jugadores del mundo la última vez que se simularon, y los
+         * guarda en los tiempos calculados de la pasada. Como los jugadores no
+         * suelen cambiar de celda entre pasadas, casi todos encontrarán su tiempo
+         * ya calculado, y los que no lo calcularán por su cuenta.
+         *
+         * @param pasadaMundo La pasada por el mundo, que debe de simular el tiempo
+         *                    de reloj.
+         */
+        private void precalcularTiemposCeldas(PasadaMundo pasadaMundo) {
+            Set<Long> celdas = new HashSet<>();
+            Location puntoAparicion = pasadaMundo.puntoAparicion();
+
+            celdas.add(pasadaMundo.getCeldaGeografica(puntoAparicion.getX(), puntoAparicion.getZ()));
+
+            for (Player p : pasadaMundo.mundo().getPlayers()) {
+                EstadoJugador estadoJugador = RegistroJugadores.get().getEstadoJugador(p);
+                long celda = estadoJugador == null ? EstadoJugador.SIN_CELDA_GEOGRAFICA : estadoJugador.getCeldaGeografica();
+
+                // El tamaño de las celdas puede haber cambiado desde que se guardó la celda del
+                // jugador, así que se vuelve a calcular a partir de su esquina
+                if (celda != EstadoJugador.SIN_CELDA_GEOGRAFICA) {
+                    celdas.add(pasadaMundo.getCeldaGeografica((int) (celda >> 32), (int) celda));
                 }
             }
 
-            ultimoMomentoSimulado = ahora;
+            // Disponer las coordenadas de las celdas en arrays paralelos
+            long[] celdasCalculadas = new long[celdas.size()];
+            double[] latitudes = new double[celdasCalculadas.length];
+            double[] longitudes = new double[celdasCalculadas.length];
+            long[] tiempos = new long[celdasCalculadas.length];
+
+            int i = 0;
+            for (long celda : celdas) {
+                celdasCalculadas[i] = celda;
+                latitudes[i] = pasadaMundo.getLatitudCelda(celda);
+                longitudes[i] = pasadaMundo.getLongitudCelda(celda);
+                ++i;
+            }
+
+            pasadaMundo.arcoDiurnoSolar().getTiemposJugadores(
+                pasadaMundo.ahora(), pasadaMundo.mundo(), latitudes, longitudes, tiempos
+            );
+
+            for (i = 0; i < celdasCalculadas.length; ++i) {
+                pasadaMundo.tiemposCalculados().put(celdasCalculadas[i], tiempos[i]);
+            }
         }
 
         /**
-         * Actualiza el tiempo atmosférico visible para un objeto, ejecutando la acción
-         * especificada con él como parámetro.
+         * Comprueba si es necesario simular un jugador de un mundo que se está
+         * recorriendo. No lo es si no se simula nada por jugador en el mundo, o si
+         * solo se simula el tiempo de reloj y el jugador sigue en la celda
+         * geográfica en la que estaba, cuyo tiempo no ha cambiado respecto al del
+         * mundo: el tiempo de reloj que se le aplicó es relativo al del mundo, y
+         * avanza solo con él. Se ejecuta en el hilo de la región global.
          *
-         * @param clima                   El clima del mundo relacionado, que se asume
-         *                                no nulo.
-         * @param datosSimulacion         Los datos de simulación del mundo relacionado,
-         *                                que se asumen no nulos.
-         * @param latitud                 La latitud del lugar del que obtener el tiempo
-         *                                atmosférico.
-         * @param longitud                La longitud del lugar del que obtener el
-         *                                tiempo atmosférico.
-         * @param maximosCalculosClimaDia El número máximo de cálculos de tiempo
-         *                                atmosférico permitidos para el clima
-         *                                especificado.
-         * @param accion                  La acción a ejecutar para aplicar el clima
-         *                                especificado al objeto que se desee.
+         * @param pasadaMundo La información de la pasada por el mundo.
+         * @param p           El jugador.
+         * @return Verdadero si hay que simular el jugador, falso en otro caso.
          */
-        private void actualizarMeteorologia(
-            Clima clima, DatosSimulacion datosSimulacion, double latitud, double longitud, float maximosCalculosClimaDia, BiConsumer<TiempoAtmosferico, InformacionMeteorologica> accion
-        ) {
-            long msDesdeUltimoCalculoClima = datosSimulacion.getUltimoCalculoClima() != null ?
-                System.currentTimeMillis() - datosSimulacion.getUltimoCalculoClima() :
-                Long.MAX_VALUE;
-
-            long msIntervaloCalculoClima = (long) Math.ceil(86400000 / maximosCalculosClimaDia);
-
-            if (msDesdeUltimoCalculoClima >= msIntervaloCalculoClima) {
-                try {
-                    if (clima.esBloqueante()) {
-                        clima.calcularTiempoAtmosfericoActual(latitud, longitud, (TiempoAtmosferico t, InformacionMeteorologica i) -> {
-                            accion.accept(t, i);
-                        });
-                    } else {
-                        Entry<TiempoAtmosferico, InformacionMeteorologica> informacionTiempo =
-                            clima.calcularTiempoAtmosfericoActual(latitud, longitud);
-
-                        accion.accept(informacionTiempo.getKey(), informacionTiempo.getValue());
-                    }
-                } catch (MeteorologiaDesconocidaException exc) {
-                    PluginTiempoReal.getPlugin(PluginTiempoReal.class).getSLF4JLogger().warn(
-                        "Ha ocurrido un error al calcular el tiempo atmosférico de un mundo",
-                        exc
+        private boolean debeSimularJugador(PasadaMundo pasadaMundo, Player p) {
+            boolean toret = pasadaMundo.climaJugadores() != null;
+
+            if (!toret && pasadaMundo.arcoDiurnoSolar() != null) {
+                EstadoJugador estadoJugador = RegistroJugadores.get().getEstadoJugador(p);
+                Long tiempoCelda = estadoJugador == null || !pasadaMundo.celdasConservadas() ?
+                    null : pasadaMundo.tiemposCalculados().get(estadoJugador.getCeldaGeografica());
+
+                toret = tiempoCelda == null || tiempoCelda - pasadaMundo.tiempoMundo() != estadoJugador.getDesfaseTiempo();
+            }
+
+            return toret;
+        }
+
+        /**
+         * Simula el tiempo de reloj y atmosférico particular de un jugador de un
+         * mundo que se está recorriendo. Se ejecuta en el hilo dueño del jugador.
+         *
+         * @param pasadaMundo La información de la pasada por el mundo.
+         * @param p           El jugador a simular. Si ya se ha desconectado o ha
+         *                    cambiado de mundo, no se hace nada.
+         */
+        private void simularJugador(PasadaMundo pasadaMundo, Player p) {
+            EstadoJugador estadoJugador = RegistroJugadores.get().getEstadoJugador(p);
+            World w = pasadaMundo.mundo();
+
+            if (estadoJugador != null && estadoJugador.isConectado() && p.getWorld().equals(w)) {
+                Location posicion = estadoJugador.getPosicion();
+                ArcoDiurnoSolar arcoDiurnoSolar = pasadaMundo.arcoDiurnoSolar();
+                Clima clima = pasadaMundo.climaJugadores();
+
+                // Obtener el tiempo a mostrarle al jugador de los ya calculados, si es posible,
+                // o calcularlo si no está
+                if (arcoDiurnoSolar != null) {
+                    aplicarTiempoRelojJugador(
+                        p, estadoJugador, pasadaMundo, pasadaMundo.getCeldaGeografica(posicion.getX(), posicion.getZ())
                     );
-                } finally {
-                    datosSimulacion.refrescarUltimoCalculoClima();
+                }
+
+                // Aplicar el tiempo atmosférico particular si es necesario, y si
+                // el proveedor de tiempo atmosférico usado va sobrado de cálculos disponibles
+                if (clima != null) {
+                    calcularMeteorologiaJugador(p, estadoJugador, pasadaMundo, posicion);
                 }
             }
         }
     }
 
+    /**
+     * Contiene la información de un mundo que necesita la simulación de sus
+     * jugadores durante una pasada de actualización, y el cursor sobre ellos.
+     *
+     * @param mundo                   El mundo.
+     * @param datosSimulacion         Los datos de simulación del mundo.
+     * @param parametrosSimulacion    Los parámetros de simulación del mundo.
+     * @param ahora                   El momento que se usa como actual en la
+     *                                pasada.
+     * @param latitudSpawn            La latitud del punto de aparición.
+     * @param longitudSpawn           La longitud del punto de aparición.
+     * @param radio                   El radio del planeta, en metros.
+     * @param exponenteCeldaX         El exponente del lado en el eje X de las
+     *                                celdas geográficas, en potencias de dos de
+     *                                bloques.
+     * @param exponenteCeldaZ         El exponente del lado en el eje Z de las
+     *                                celdas geográficas, en potencias de dos de
+     *                                bloques.
+     * @param celdasConservadas       Si las celdas geográficas tienen el mismo
+     *                                tamaño que en la pasada anterior, de forma
+     *                                que las celdas en las que estaban los
+     *                                jugadores siguen siendo válidas.
+     * @param puntoAparicion          El punto de aparición del mundo.
+     * @param tiempoMundo             El tiempo del mundo desde el comienzo del
+     *                                primer día.
+     * @param arcoDiurnoSolar         El arco diurno solar con el que calcular el
+     *                                tiempo de los jugadores, o nulo si no se
+     *                                simula.
+     * @param climaJugadores          El clima con el que calcular el tiempo
+     *                                atmosférico de los jugadores, o nulo si no se
+     *                                simula por jugador.
+     * @param maximosCalculosClimaDia El número máximo de cálculos de tiempo
+     *                                atmosférico permitidos para el clima.
+     * @param tiemposCalculados       Los tiempos de reloj ya calculados en la
+     *                                pasada para cada celda geográfica del
+     *                                mundo.
+     * @param jugadores               El cursor sobre los jugadores que quedan por
+     *                                simular.
+     * @author AlexTMjugador
+     */
+    private record PasadaMundo(
+        World mundo, DatosSimulacion datosSimulacion, ParametrosSimulacionMundo parametrosSimulacion,
+        Instant ahora, double latitudSpawn, double longitudSpawn, double radio, int exponenteCeldaX, int exponenteCeldaZ,
+        boolean celdasConservadas, Location puntoAparicion, long tiempoMundo, ArcoDiurnoSolar arcoDiurnoSolar,
+        Clima climaJugadores, float maximosCalculosClimaDia, Map<Long, Long> tiemposCalculados, Iterator<Player> jugadores
+    ) {
+        /**
+         * Obtiene la celda geográfica a la que pertenece una posición del mundo,
+         * de lado 2^{@link #exponenteCeldaX()} bloques en el eje X y
+         * 2^{@link #exponenteCeldaZ()} bloques en el eje Z. Todos los jugadores de
+         * una celda ven el mismo tiempo de reloj.
+         *
+         * @param x La coordenada X de la posición.
+         * @param z La coordenada Z de la posición.
+         * @return La celda, que empaqueta las coordenadas X y Z de su esquina.
+         */
+        public long getCeldaGeografica(double x, double z) {
+            long esquinaX = ((int) Math.floor(x) >> exponenteCeldaX) << exponenteCeldaX;
+            long esquinaZ = ((int) Math.floor(z) >> exponenteCeldaZ) << exponenteCeldaZ;
+
+            return (esquinaX << 32) | (esquinaZ & 0xFFFFFFFFL);
+        }
+
+        /**
+         * Obtiene la latitud del centro de una celda geográfica.
+         *
+         * @param celda La celda.
+         * @return La devandicha latitud.
+         */
+        public double getLatitudCelda(long celda) {
+            return getLatitud((int) celda + (1 << exponenteCeldaZ) / 2.0);
+        }
+
+        /**
+         * Obtiene la longitud del centro de una celda geográfica.
+         *
+         * @param celda La celda.
+         * @return La devandicha longitud.
+         */
+        public double getLongitudCelda(long celda) {
+            return getLongitud((int) (celda >> 32) + (1 << exponenteCeldaX) / 2.0);
+        }
+
+        /**
+         * Obtiene la latitud de una coordenada Z del mundo, sumando a la del punto
+         * de aparición el ángulo que se desplaza respecto a él.
+         *
+         * @param z La coordenada Z.
+         * @return La devandicha latitud.
+         */
+        public double getLatitud(double z) {
+            return latitudSpawn + (puntoAparicion.getZ() - z) / radio;
+        }
+
+        /**
+         * Obtiene la longitud de una coordenada X del mundo, sumando a la del punto
+         * de aparición el ángulo que se desplaza respecto a él.
+         *
+         * @param x La coordenada X.
+         * @return La devandicha longitud.
+         */
+        public double getLongitud(double x) {
+            return longitudSpawn + (puntoAparicion.getX() - x) / radio;
+        }
+    }
+
     /**
      * Ayuda a implementar el patrón singleton de inicialización retardada al uso de
      * la instancia, de forma segura entre hilos y eficiente.
@@ -689,19 +1464,45 @@ public final class SimuladorTiempo implements Listener, NotificableCambioConfigu
     }
 
     /**
-     * Contiene datos acerca de la simulación de un mundo.
+     * El último tiempo atmosférico calculado para una celda meteorológica de un
+     * mundo.
+     *
+     * @param tiempoAtmosferico  El tiempo atmosférico.
+     * @param temperatura        La temperatura, en grados Celsius.
+     * @param milisegundoCalculo El momento en el que se calculó, en milisegundos
+     *                           desde la época Unix.
+     * @author AlexTMjugador
+     */
+    private record MeteorologiaCelda(TiempoAtmosferico tiempoAtmosferico, float temperatura, long milisegundoCalculo) {
+        /**
+         * Comprueba si este tiempo atmosférico sigue vigente en un momento dado.
+         *
+         * @param ahora El momento, en milisegundos desde la época Unix.
+         * @return Verdadero si sigue vigente, falso en otro caso.
+         */
+        public boolean estaVigente(long ahora) {
+            return ahora - milisegundoCalculo < MILISEGUNDOS_VALIDEZ_METEOROLOGIA_CELDA;
+        }
+    }
+
+    /**
+     * Contiene datos acerca de la simulación de un mundo. En Folia, el clima se
+     * puede calcular a la vez desde los hilos de varias regiones, así que los
+     * cálculos se reservan de forma atómica.
      *
      * @author AlexTMjugador
      */
     private static final class DatosSimulacion {
         private final boolean haciaCicloDiaNoche;
-        private Float ultimaTemperaturaSimulada;
+        private volatile Float ultimaTemperaturaSimulada;
         private Long ultimoCalculoClima;
+        private final Map<Long, MeteorologiaCelda> meteorologiaCeldas;
 
         public DatosSimulacion(boolean haciaCicloDiaNoche) {
             this.haciaCicloDiaNoche = haciaCicloDiaNoche;
             this.ultimaTemperaturaSimulada = null;
             this.ultimoCalculoClima = null;
+            this.meteorologiaCeldas = new ConcurrentHashMap<>();
         }
 
         /**
@@ -725,20 +1526,68 @@ public final class SimuladorTiempo implements Listener, NotificableCambioConfigu
         }
 
         /**
-         * Obtiene la última vez en la que se calculó el clima de un mundo.
+         * Comprueba si ha pasado suficiente tiempo desde el último cálculo del clima
+         * de un mundo como para hacer otro y, en caso afirmativo, establece la última
+         * vez que se calculó el clima al momento actual.
+         *
+         * @param msIntervaloCalculoClima El tiempo mínimo entre dos cálculos del
+         *                                clima, en milisegundos.
+         * @return Verdadero si se puede calcular el clima, falso en otro caso.
+         */
+        public synchronized boolean reservarCalculoClima(long msIntervaloCalculoClima) {
+            long ahora = System.currentTimeMillis();
+            boolean toret = ultimoCalculoClima == null || ahora - ultimoCalculoClima >= msIntervaloCalculoClima;
+
+            if (toret) {
+                ultimoCalculoClima = ahora;
+            }
+
+            return toret;
+        }
+
+        /**
+         * Obtiene el último tiempo atmosférico calculado para una celda
+         * meteorológica del mundo, si todavía está vigente.
          *
-         * @return La última vez en la que se calculó el clima de un mundo. Puede ser
-         *         nulo si no se ha calculado el clima aún.
+         * @param celda La celda meteorológica.
+         * @return El devandicho tiempo atmosférico, o nulo si no se ha calculado
+         *         o ya no está vigente.
          */
-        public Long getUltimoCalculoClima() {
-            return ultimoCalculoClima;
+        public MeteorologiaCelda getMeteorologiaCelda(long celda) {
+            MeteorologiaCelda toret = meteorologiaCeldas.get(celda);
+
+            if (toret != null && !toret.estaVigente(System.currentTimeMillis())) {
+                toret = null;
+            }
+
+            return toret;
         }
 
         /**
-         * Establece la última vez que se calculó el clima de un mundo al momento actual.
+         * Recuerda el tiempo atmosférico recién calculado para una celda
+         * meteorológica del mundo.
+         *
+         * @param celda             La celda meteorológica.
+         * @param tiempoAtmosferico El tiempo atmosférico calculado.
+         * @param temperatura       La temperatura calculada, en grados Celsius.
          */
-        public void refrescarUltimoCalculoClima() {
-            this.ultimoCalculoClima = System.currentTimeMillis();
+        public void setMeteorologiaCelda(long celda, TiempoAtmosferico tiempoAtmosferico, float temperatura) {
+            meteorologiaCeldas.put(
+                celda, new MeteorologiaCelda(tiempoAtmosferico, temperatura, System.currentTimeMillis())
+            );
+        }
+
+        /**
+         * Olvida los tiempos atmosféricos de las celdas meteorológicas que ya no
+         * están vigentes, para que no se acumulen las de lugares por los que ya no
+         * pasa nadie.
+         */
+        public void descartarMeteorologiaCeldasCaducadas() {
+            long ahora = System.currentTimeMillis();
+
+            meteorologiaCeldas.values().removeIf(
+                (MeteorologiaCelda meteorologiaCelda) -> !meteorologiaCelda.estaVigente(ahora)
+            );
         }
 
         /**
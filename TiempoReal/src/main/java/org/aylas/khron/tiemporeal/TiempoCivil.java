@@ -0,0 +1,311 @@
+/*
+ * Plugins de Paper del Proyecto Khron
+ * Copyright (C) 2026 Comunidad Aylas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.aylas.khron.tiemporeal;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Convierte instantes de tiempo real a la hora civil de una franja horaria, y
+ * extrae los campos de ésta con aritmética entera. A diferencia de
+ * {@link java.time.ZonedDateTime}, no crea objetos en cada conversión: cada
+ * franja horaria recuerda su desfase respecto al UTC y el intervalo de tiempo
+ * en el que es válido, que solo se vuelve a calcular a partir de sus
+ * {@link ZoneRules} cuando se cruza un cambio de horario.
+ *
+ * <p>
+ * Las horas civiles se representan como el número de milisegundos locales
+ * transcurridos desde la medianoche del 1 de enero de 1970, es decir, el
+ * instante UTC desplazado por el desfase de la franja horaria.
+ * </p>
+ *
+ * @author AlexTMjugador
+ */
+public final class TiempoCivil {
+    /**
+     * El número de milisegundos en un segundo.
+     */
+    private static final long MS_SEGUNDO = 1000;
+
+    /**
+     * El número de milisegundos en un minuto.
+     */
+    private static final long MS_MINUTO = 60 * MS_SEGUNDO;
+
+    /**
+     * El número de milisegundos en una hora.
+     */
+    private static final long MS_HORA = 60 * MS_MINUTO;
+
+    /**
+     * El número de milisegundos en un día.
+     */
+    private static final long MS_DIA = 24 * MS_HORA;
+
+    /**
+     * Las instancias creadas para cada franja horaria.
+     */
+    private static final Map<ZoneId, TiempoCivil> INSTANCIAS = new ConcurrentHashMap<>();
+
+    /**
+     * La franja horaria de la que se obtiene la hora civil.
+     */
+    private final ZoneId franjaHoraria;
+
+    /**
+     * Las reglas de cambio de horario de la franja horaria.
+     */
+    private final ZoneRules reglas;
+
+    /**
+     * El último intervalo de tiempo en el que se ha consultado el desfase de la
+     * franja horaria, o nulo si no se ha consultado todavía.
+     */
+    private volatile TramoDesfase tramoDesfase = null;
+
+    /**
+     * Crea el conversor de hora civil de una franja horaria.
+     *
+     * @param franjaHoraria La franja horaria.
+     */
+    private TiempoCivil(ZoneId franjaHoraria) {
+        this.franjaHoraria = franjaHoraria;
+        this.reglas = franjaHoraria.getRules();
+    }
+
+    /**
+     * Obtiene el conversor de hora civil de una franja horaria, creándolo si es
+     * la primera vez que se necesita.
+     *
+     * @param franjaHoraria La franja horaria.
+     * @return El devandicho conversor.
+     * @throws NullPointerException Si la franja horaria es nula.
+     */
+    public static TiempoCivil de(ZoneId franjaHoraria) {
+        return INSTANCIAS.computeIfAbsent(franjaHoraria, TiempoCivil::new);
+    }
+
+    /**
+     * Obtiene la franja horaria de la que se obtiene la hora civil.
+     *
+     * @return La devandicha franja horaria.
+     */
+    public ZoneId getFranjaHoraria() {
+        return franjaHoraria;
+    }
+
+    /**
+     * Convierte un instante de tiempo real a la hora civil de la franja horaria.
+     *
+     * @param milisegundoUtc El instante, en milisegundos desde la época Unix.
+     * @return La hora civil correspondiente, en milisegundos locales desde la
+     *         época Unix.
+     */
+    public long getMilisegundoLocal(long milisegundoUtc) {
+        TramoDesfase tramo = tramoDesfase;
+
+        if (tramo == null || milisegundoUtc < tramo.inicio() || milisegundoUtc >= tramo.fin()) {
+            tramo = calcularTramoDesfase(milisegundoUtc);
+            tramoDesfase = tramo;
+        }
+
+        return milisegundoUtc + tramo.desfase();
+    }
+
+    /**
+     * Obtiene la hora del día de una hora civil.
+     *
+     * @param milisegundoLocal La hora civil, en milisegundos locales desde la
+     *                         época Unix.
+     * @return La hora, en el intervalo [0, 23].
+     */
+    public static int getHora(long milisegundoLocal) {
+        return (int) (Math.floorMod(milisegundoLocal, MS_DIA) / MS_HORA);
+    }
+
+    /**
+     * Obtiene el minuto de la hora de una hora civil.
+     *
+     * @param milisegundoLocal La hora civil, en milisegundos locales desde la
+     *                         época Unix.
+     * @return El minuto, en el intervalo [0, 59].
+     */
+    public static int getMinuto(long milisegundoLocal) {
+        return (int) (Math.floorMod(milisegundoLocal, MS_HORA) / MS_MINUTO);
+    }
+
+    /**
+     * Obtiene el segundo del minuto de una hora civil.
+     *
+     * @param milisegundoLocal La hora civil, en milisegundos locales desde la
+     *                         época Unix.
+     * @return El segundo, en el intervalo [0, 59].
+     */
+    public static int getSegundo(long milisegundoLocal) {
+        return (int) (Math.floorMod(milisegundoLocal, MS_MINUTO) / MS_SEGUNDO);
+    }
+
+    /**
+     * Obtiene el milisegundo del segundo de una hora civil.
+     *
+     * @param milisegundoLocal La hora civil, en milisegundos locales desde la
+     *                         época Unix.
+     * @return El milisegundo, en el intervalo [0, 999].
+     */
+    public static int getMilisegundo(long milisegundoLocal) {
+        return (int) Math.floorMod(milisegundoLocal, MS_SEGUNDO);
+    }
+
+    /**
+     * Obtiene el número de días transcurridos desde la época Unix hasta una
+     * hora civil.
+     *
+     * @param milisegundoLocal La hora civil, en milisegundos locales desde la
+     *                         época Unix.
+     * @return El devandicho número de días.
+     */
+    public static long getDiaEpoca(long milisegundoLocal) {
+        return Math.floorDiv(milisegundoLocal, MS_DIA);
+    }
+
+    /**
+     * Obtiene el día de la semana de una hora civil.
+     *
+     * @param milisegundoLocal La hora civil, en milisegundos locales desde la
+     *                         época Unix.
+     * @return El devandicho día de la semana.
+     */
+    public static DayOfWeek getDiaSemana(long milisegundoLocal) {
+        // El 1 de enero de 1970 fue jueves
+        return DayOfWeek.of(Math.floorMod(getDiaEpoca(milisegundoLocal) + 3, 7) + 1);
+    }
+
+    /**
+     * Obtiene el día del mes de una hora civil.
+     *
+     * @param milisegundoLocal La hora civil, en milisegundos locales desde la
+     *                         época Unix.
+     * @return El día del mes, en el intervalo [1, 31].
+     */
+    public static int getDiaMes(long milisegundoLocal) {
+        int diaAnioMarzo = getDiaAnioDesdeMarzo(getDiaEpoca(milisegundoLocal));
+
+        return diaAnioMarzo - (153 * getMesDesdeMarzo(diaAnioMarzo) + 2) / 5 + 1;
+    }
+
+    /**
+     * Obtiene el mes de una hora civil.
+     *
+     * @param milisegundoLocal La hora civil, en milisegundos locales desde la
+     *                         época Unix.
+     * @return El mes, en el intervalo [1, 12].
+     */
+    public static int getMes(long milisegundoLocal) {
+        int mesMarzo = getMesDesdeMarzo(getDiaAnioDesdeMarzo(getDiaEpoca(milisegundoLocal)));
+
+        return mesMarzo < 10 ? mesMarzo + 3 : mesMarzo - 9;
+    }
+
+    /**
+     * Obtiene el año de una hora civil.
+     *
+     * @param milisegundoLocal La hora civil, en milisegundos locales desde la
+     *                         época Unix.
+     * @return El año.
+     */
+    public static int getAnio(long milisegundoLocal) {
+        // Algoritmo de Howard Hinnant, con años que empiezan en marzo para que el
+        // día bisiesto sea el último del año
+        long dias = getDiaEpoca(milisegundoLocal) + 719468;
+        long era = Math.floorDiv(dias, 146097);
+        int diaEra = (int) (dias - era * 146097);
+        int anioEra = (diaEra - diaEra / 1460 + diaEra / 36524 - diaEra / 146096) / 365;
+        int diaAnioMarzo = diaEra - (365 * anioEra + anioEra / 4 - anioEra / 100);
+
+        // Enero y febrero pertenecen al año siguiente al que empezó en marzo
+        return (int) (anioEra + era * 400) + (getMesDesdeMarzo(diaAnioMarzo) >= 10 ? 1 : 0);
+    }
+
+    /**
+     * Obtiene el día de un año que empieza en marzo, según el algoritmo de
+     * Howard Hinnant.
+     *
+     * @param diaEpoca El número de días transcurridos desde la época Unix.
+     * @return El día del año, en el intervalo [0, 365], donde el 0 es el 1 de
+     *         marzo.
+     */
+    private static int getDiaAnioDesdeMarzo(long diaEpoca) {
+        long dias = diaEpoca + 719468;
+        int diaEra = (int) (dias - Math.floorDiv(dias, 146097) * 146097);
+        int anioEra = (diaEra - diaEra / 1460 + diaEra / 36524 - diaEra / 146096) / 365;
+
+        return diaEra - (365 * anioEra + anioEra / 4 - anioEra / 100);
+    }
+
+    /**
+     * Obtiene el mes de un año que empieza en marzo a partir de un día de ese
+     * año, según el algoritmo de Howard Hinnant.
+     *
+     * @param diaAnioMarzo El día del año, en el intervalo [0, 365], donde el 0
+     *                     es el 1 de marzo.
+     * @return El mes, en el intervalo [0, 11], donde el 0 es marzo.
+     */
+    private static int getMesDesdeMarzo(int diaAnioMarzo) {
+        return (5 * diaAnioMarzo + 2) / 153;
+    }
+
+    /**
+     * Calcula el desfase de la franja horaria en un instante, junto con el
+     * intervalo de tiempo alrededor del instante en el que no cambia.
+     *
+     * @param milisegundoUtc El instante, en milisegundos desde la época Unix.
+     * @return El devandicho desfase.
+     */
+    private TramoDesfase calcularTramoDesfase(long milisegundoUtc) {
+        Instant instante = Instant.ofEpochMilli(milisegundoUtc);
+        // Las transiciones anteriores al instante siguiente incluyen la del propio
+        // instante, si la hay
+        ZoneOffsetTransition anterior = reglas.previousTransition(instante.plusMillis(1));
+        ZoneOffsetTransition siguiente = reglas.nextTransition(instante);
+
+        return new TramoDesfase(
+            anterior != null ? anterior.toEpochSecond() * MS_SEGUNDO : Long.MIN_VALUE,
+            siguiente != null ? siguiente.toEpochSecond() * MS_SEGUNDO : Long.MAX_VALUE,
+            reglas.getOffset(instante).getTotalSeconds() * MS_SEGUNDO
+        );
+    }
+
+    /**
+     * Un intervalo de tiempo en el que el desfase de una franja horaria respecto
+     * al UTC no cambia.
+     *
+     * @param inicio  El inicio del intervalo, inclusivo, en milisegundos desde
+     *                la época Unix.
+     * @param fin     El fin del intervalo, exclusivo, en milisegundos desde la
+     *                época Unix.
+     * @param desfase El desfase de la franja horaria en el intervalo, en
+     *                milisegundos.
+     * @author AlexTMjugador
+     */
+    private record TramoDesfase(long inicio, long fin, long desfase) {}
+}
\ No newline at end of file
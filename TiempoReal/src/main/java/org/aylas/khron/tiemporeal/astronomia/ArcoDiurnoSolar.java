@@ -60,6 +60,42 @@ public interface ArcoDiurnoSolar {
      */
     public long getTiempoJugador(Instant instante, World mundo, double latitud, double longitud);
 
+    /**
+     * Obtiene el número de ticks desde el comienzo del primer día a enviar a
+     * los jugadores de un determinado mundo para varios puntos a la vez, con
+     * el mismo significado que {@link #getTiempoJugador(Instant, World, double, double)}.
+     * Las coordenadas de cada punto se pasan en la misma posición de dos arrays
+     * paralelos, y su tiempo se guarda en esa posición del array de tiempos.
+     * <p>
+     * La implementación predeterminada invoca el método anterior para cada
+     * punto, pero las implementaciones pueden aprovechar que todos los puntos
+     * comparten instante y mundo para ahorrarse cálculos.
+     * </p>
+     *
+     * @param instante   El instante de tiempo terrestre para el que se desea
+     *                   calcular los tiempos.
+     * @param mundo      El mundo en el que se considerará que están los
+     *                   jugadores.
+     * @param latitudes  Las latitudes de los puntos para los que se desea
+     *                   calcular los tiempos.
+     * @param longitudes Las longitudes de los puntos para los que se desea
+     *                   calcular los tiempos.
+     * @param tiempos    El array en el que guardar los tiempos calculados.
+     * @throws IllegalArgumentException Si algún parámetro es inválido, o los
+     *                                  arrays no tienen la misma longitud.
+     */
+    public default void getTiemposJugadores(
+        Instant instante, World mundo, double[] latitudes, double[] longitudes, long[] tiempos
+    ) {
+        if (latitudes.length != longitudes.length || latitudes.length != tiempos.length) {
+            throw new IllegalArgumentException("Los arrays de coordenadas y tiempos deben de tener la misma longitud");
+        }
+
+        for (int i = 0; i < tiempos.length; ++i) {
+            tiempos[i] = getTiempoJugador(instante, mundo, latitudes[i], longitudes[i]);
+        }
+    }
+
     /**
      * Obtiene el número de ticks desde el comienzo del día actual a establecer
      * en un mundo, vía {@link World#setTime(long)}, a partir del instante de
@@ -19,9 +19,8 @@ package org.aylas.khron.tiemporeal.astronomia;
 
 import java.time.Instant;
 import java.time.ZoneId;
-import java.time.ZonedDateTime;
-import java.time.temporal.ChronoField;
 
+import org.aylas.khron.tiemporeal.TiempoCivil;
 import org.bukkit.World;
 
 /**
@@ -45,13 +44,13 @@ final class ArcoDiurnoSolarSimple implements ArcoDiurnoSolar {
 
 	@Override
 	public long getTiempoMundo(Instant instante, double latitud, double longitud) {
-		ZonedDateTime fecha = instante.atZone(ZoneId.systemDefault());
+		long fecha = TiempoCivil.de(ZoneId.systemDefault()).getMilisegundoLocal(instante.toEpochMilli());
 
 		// El día de Minecraft empieza a las 6 AM
-		int h = (fecha.get(ChronoField.HOUR_OF_DAY) + 18) % 24;
-		int m = fecha.get(ChronoField.MINUTE_OF_HOUR);
-		int s = fecha.get(ChronoField.SECOND_OF_MINUTE);
-		int ms = fecha.get(ChronoField.MILLI_OF_SECOND);
+		int h = (TiempoCivil.getHora(fecha) + 18) % 24;
+		int m = TiempoCivil.getMinuto(fecha);
+		int s = TiempoCivil.getSegundo(fecha);
+		int ms = TiempoCivil.getMilisegundo(fecha);
 
 		// La siguiente expresión se obtiene tras simplificar
 		// h * 1000 + (m / 60) * 1000 + (s / 3600) * 1000 + (ms / 1000 / 3600) * 1000
@@ -52,56 +52,76 @@ final class ArcoDiurnoSolarTerrestre implements ArcoDiurnoSolar {
      */
     private static final double PI_2 = 2 * Math.PI;
 
+    /**
+     * La fase lunar calculada para el último instante para el que se pidió, que
+     * comparten todos los jugadores a los que se les calcula el tiempo en una
+     * misma pasada de actualización.
+     */
+    private volatile FaseLunar faseLunar = null;
+
     @Override
     public long getTiempoJugador(Instant instante, World mundo, double latitud, double longitud) {
         if (mundo == null) {
             throw new IllegalArgumentException("No se admite un mundo nulo para esta operación");
         }
 
-        // Sobreescribir el número de ticks transcurridos desde el comienzo del día actual
-        // del servidor con los correspondientes a la visión del mundo del jugador
-        long diasMundo = mundo.getFullTime() / 24000;
-        long tiempoJugador = getTiempoMundo(instante, latitud, longitud) + diasMundo * 24000;
+        FaseLunar fase = getFaseLunar(instante);
 
-        long milisegundosUtc;
-        try {
-            milisegundosUtc = instante.toEpochMilli();
-        } catch (ArithmeticException exc) {
-            // Fallback a fase lunar constante
-            milisegundosUtc = Long.MAX_VALUE;
-        }
+        // Sobreescribir el número de ticks transcurridos desde el comienzo del día actual
+        // del servidor con los correspondientes a la visión del mundo del jugador, desplazados
+        // al día del mundo cuya fase lunar es la que correspondería. Los días transcurridos en
+        // el mundo se cancelan al sumar el desfase de la fase lunar, así que no intervienen
+        long tiempoJugador = getTiempoMundo(instante.getEpochSecond(), latitud, longitud);
 
-        // Fórmula adaptada de
-        // http://community.facer.io/t/moon-phase-formula-updated/35691/7
-        // Afirma tener un error de +- 20 min la mayor parte del tiempo,
-        // y siempre menor que 60 min, para las fases lunares más significativas:
-        // luna nueva (0 = 8), cuarto creciente (2), luna llena (4) y cuarto
-        // menguante (6)
-        int faseLunar = (int) ((((milisegundosUtc / 2551442844.0 - 0.228535)
-            + 0.00591997 * Math.sin(milisegundosUtc / 5023359217.0 + 3.1705094)
-            + 0.017672776 * Math.sin(milisegundosUtc / 378923968.0 - 1.5388144)
-            - 0.0038844429 * Math.sin(milisegundosUtc / 437435791.0 + 2.0017235)
-            - 0.00041488 * Math.sin(milisegundosUtc / 138539900 - 1.236334)) % 1) / 0.125);
-
-        // Sumarle al tiempo relativo al amanecer actual el desfase apropiado para mostrar
-        // la fase lunar que correspondería (para Minecraft, la primera fase lunar es luna llena)
-        // Cada día del mundo es una fase lunar diferente, empezando en luna llena para el día 0
         if (Math.sin(latitud) < 0) {
             // Hemisferio sur (el ángulo ocupa el tercer o cuarto cuadrante en la circunferencia
-            // goniométrica). El aspecto de las fases lunares se corresponde con el que
-            // dibuja Minecraft
-            tiempoJugador += 24000 * (((faseLunar + 4) & 7) - diasMundo); // & 7 = % 8 para enteros positivos
+            // goniométrica)
+            tiempoJugador += fase.desfaseSur();
         } else {
-            // Hemisferio norte. El aspecto de las fases lunares está invertido respecto
-            // al que dibuja Minecraft
-            tiempoJugador += 24000 * (((12 - faseLunar) & 7) - diasMundo);
+            tiempoJugador += fase.desfaseNorte();
         }
 
         return tiempoJugador;
     }
 
+    @Override
+    public void getTiemposJugadores(
+        Instant instante, World mundo, double[] latitudes, double[] longitudes, long[] tiempos
+    ) {
+        if (mundo == null) {
+            throw new IllegalArgumentException("No se admite un mundo nulo para esta operación");
+        }
+
+        if (latitudes.length != longitudes.length || latitudes.length != tiempos.length) {
+            throw new IllegalArgumentException("Los arrays de coordenadas y tiempos deben de tener la misma longitud");
+        }
+
+        // Lo que solo depende del instante se calcula una vez para todos los puntos,
+        // y el resto se recorre en un bucle sin indirecciones sobre los arrays
+        FaseLunar fase = getFaseLunar(instante);
+        long segundosUTC = instante.getEpochSecond();
+
+        for (int i = 0; i < tiempos.length; ++i) {
+            tiempos[i] = getTiempoMundo(segundosUTC, latitudes[i], longitudes[i]) +
+                (Math.sin(latitudes[i]) < 0 ? fase.desfaseSur() : fase.desfaseNorte());
+        }
+    }
+
     @Override
     public long getTiempoMundo(Instant instante, double latitud, double longitud) {
+        return getTiempoMundo(instante.getEpochSecond(), latitud, longitud);
+    }
+
+    /**
+     * Implementa {@link #getTiempoMundo(Instant, double, double)} a partir de
+     * los segundos desde la época Unix del instante.
+     *
+     * @param segundosUTC Los segundos desde la época Unix del instante.
+     * @param latitud     La latitud del punto.
+     * @param longitud    La longitud del punto.
+     * @return El número de ticks desde el comienzo del día actual.
+     */
+    private static long getTiempoMundo(long segundosUTC, double latitud, double longitud) {
         // El algoritmo que viene a continuación es una adaptación de
         // https://en.wikipedia.org/wiki/Sunrise_equation#Complete_calculation_on_Earth
         // Los ángulos se han convertido a radianes para un mejor aprovechamiento de la
@@ -111,7 +131,6 @@ final class ArcoDiurnoSolarTerrestre implements ArcoDiurnoSolar {
         // tiempo Unix proporcionado por Java, mediante la expresión JD = UT / 86400 + 2440587.5.
         // En realidad, las fórmulas a continuación podrían usar UT1, que no es exactamente igual a UTC,
         // pero como máximo tiene un desfase de 0,9 s, suficientemente cercano para nuestros propósitos
-        long segundosUTC = instante.getEpochSecond();
         double JDahora = segundosUTC / 86400.0 + 2440587.5;
         double[] datosAhora = calcularMediodiaYAnguloHora(JDahora, latitud, longitud);
 
@@ -237,6 +256,55 @@ final class ArcoDiurnoSolarTerrestre implements ArcoDiurnoSolar {
         return (int) tn;
     }
 
+    /**
+     * Obtiene la fase lunar de un instante, y los desfases en ticks a sumar al
+     * tiempo de un jugador en cada hemisferio para mostrarla. La fase lunar es
+     * la misma para todos los jugadores en un mismo instante, así que se
+     * reutiliza la última calculada si se pide para el mismo instante.
+     *
+     * @param instante El instante del que obtener la fase lunar.
+     * @return La devandicha fase lunar.
+     */
+    private FaseLunar getFaseLunar(Instant instante) {
+        long milisegundosUtc;
+        try {
+            milisegundosUtc = instante.toEpochMilli();
+        } catch (ArithmeticException exc) {
+            // Fallback a fase lunar constante
+            milisegundosUtc = Long.MAX_VALUE;
+        }
+
+        FaseLunar toret = faseLunar;
+
+        if (toret == null || toret.milisegundosUtc() != milisegundosUtc) {
+            // Fórmula adaptada de
+            // http://community.facer.io/t/moon-phase-formula-updated/35691/7
+            // Afirma tener un error de +- 20 min la mayor parte del tiempo,
+            // y siempre menor que 60 min, para las fases lunares más significativas:
+            // luna nueva (0 = 8), cuarto creciente (2), luna llena (4) y cuarto
+            // menguante (6)
+            int fase = (int) ((((milisegundosUtc / 2551442844.0 - 0.228535)
+                + 0.00591997 * Math.sin(milisegundosUtc / 5023359217.0 + 3.1705094)
+                + 0.017672776 * Math.sin(milisegundosUtc / 378923968.0 - 1.5388144)
+                - 0.0038844429 * Math.sin(milisegundosUtc / 437435791.0 + 2.0017235)
+                - 0.00041488 * Math.sin(milisegundosUtc / 138539900 - 1.236334)) % 1) / 0.125);
+
+            // El desfase apropiado para mostrar la fase lunar que correspondería (para Minecraft,
+            // la primera fase lunar es luna llena). Cada día del mundo es una fase lunar diferente,
+            // empezando en luna llena para el día 0. En el hemisferio sur, el aspecto de las fases
+            // lunares se corresponde con el que dibuja Minecraft, y en el norte está invertido
+            toret = new FaseLunar(
+                milisegundosUtc,
+                24000L * ((fase + 4) & 7), // & 7 = % 8 para enteros positivos
+                24000L * ((12 - fase) & 7)
+            );
+
+            faseLunar = toret;
+        }
+
+        return toret;
+    }
+
     /**
      * Calcula el día juliano decimal de mediodía para un día juliano que se
      * pasa como parámetro, teniendo en cuenta la latitud y longitud del
@@ -285,4 +353,15 @@ final class ArcoDiurnoSolarTerrestre implements ArcoDiurnoSolar {
 
         return new double[] { JT, omega / PI_2 };
     }
+
+    /**
+     * Contiene la fase lunar de un instante, expresada como los desfases a sumar
+     * al tiempo de un jugador de cada hemisferio para mostrarla.
+     *
+     * @param milisegundosUtc Los milisegundos desde la época Unix del instante.
+     * @param desfaseSur      El desfase en ticks para el hemisferio sur.
+     * @param desfaseNorte    El desfase en ticks para el hemisferio norte.
+     * @author AlexTMjugador
+     */
+    private record FaseLunar(long milisegundosUtc, long desfaseSur, long desfaseNorte) {}
 }
\ No newline at end of file
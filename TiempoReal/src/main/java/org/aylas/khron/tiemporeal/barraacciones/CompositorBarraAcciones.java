@@ -0,0 +1,400 @@
+/*
+ * Plugins de Paper del Proyecto Khron
+ * Copyright (C) 2026 Comunidad Aylas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.aylas.khron.tiemporeal.barraacciones;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aylas.khron.tiemporeal.planificador.PlanificadorTiempoReal;
+import org.aylas.khron.tiemporeal.planificador.TareaPlanificada;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.JoinConfiguration;
+
+/**
+ * Combina los fragmentos publicados por todas las {@link FuenteBarraAcciones}
+ * registradas para un jugador en un único texto de barra de acciones, que se le
+ * envía solo cuando cambia o cuando el cliente va a dejar de mostrarlo. Así, un
+ * jugador que empuñe dos relojes los ve a la vez, en vez de recibir dos textos
+ * que se sobrescriben entre sí.
+ *
+ * <p>
+ * Las fuentes pueden publicar fragmentos desde el hilo dueño de cada jugador,
+ * que en Folia no es el de la tarea de envío, así que el estado de la barra de
+ * acciones de cada jugador se sincroniza sobre sí mismo. Las fuentes
+ * registradas se publican como un array que no se modifica, y cada estado
+ * recuerda para qué array están ordenados sus fragmentos, de forma que se
+ * reubican bajo su propio bloqueo cuando cambian las fuentes.
+ * </p>
+ *
+ * @author AlexTMjugador
+ */
+public final class CompositorBarraAcciones implements Listener {
+    /**
+     * El número de ticks tras los que se le vuelve a enviar a un jugador un texto
+     * que no ha cambiado. El cliente muestra el texto de la barra de acciones
+     * durante 60 ticks, y empieza a desvanecerlo a los 40, así que este valor no
+     * debe de superar esa cifra para que el texto no llegue a parpadear.
+     */
+    private static final short TICKS_REENVIO = 38;
+
+    /**
+     * El separador entre los fragmentos de diferentes fuentes.
+     */
+    private static final JoinConfiguration SEPARADOR_FRAGMENTOS = JoinConfiguration.separator(
+        Component.text("  ")
+    );
+
+    /**
+     * Las fuentes registradas, en el orden en el que aparecen sus fragmentos.
+     * El array no se modifica una vez publicado, sino que se sustituye por otro.
+     */
+    private volatile FuenteBarraAcciones[] fuentes = new FuenteBarraAcciones[0];
+
+    /**
+     * El estado de la barra de acciones de cada jugador con algún fragmento
+     * publicado.
+     */
+    private final Map<Player, EstadoBarraAcciones> estadosJugadores = new ConcurrentHashMap<>();
+
+    /**
+     * La tarea que envía los textos combinados, o nulo si no hay ninguna fuente
+     * registrada.
+     */
+    private TareaEnvio tareaEnvio = null;
+
+    /**
+     * El número de ticks que se ha ejecutado la tarea de envío.
+     */
+    private volatile long tickActual = 0;
+
+    /**
+     * Restringe la instanciación de esta clase a otras clases.
+     */
+    private CompositorBarraAcciones() {}
+
+    /**
+     * Obtiene la única instancia del compositor de la barra de acciones en la
+     * JVM, creándola si no lo ha sido ya.
+     *
+     * @return La devandicha instancia.
+     */
+    public static CompositorBarraAcciones get() {
+        return PoseedorInstanciaClase.INSTANCIA;
+    }
+
+    /**
+     * Registra una fuente de fragmentos de la barra de acciones, de forma que
+     * pueda publicarlos. La tarea de envío de textos se registra en el
+     * planificador con el primer registro, así que, en cada tick, se ejecuta
+     * después de las tareas de las fuentes que se hayan registrado en él antes.
+     *
+     * @param fuente La fuente a registrar. Si ya estaba registrada, no se hace
+     *               nada.
+     */
+    public synchronized void registrarFuente(FuenteBarraAcciones fuente) {
+        if (getIndiceFuente(fuentes, fuente) < 0) {
+            FuenteBarraAcciones[] fuentesNuevas = Arrays.copyOf(fuentes, fuentes.length + 1);
+
+            fuentesNuevas[fuentes.length] = fuente;
+            // La ordenación es estable, así que respeta el orden de registro
+            Arrays.sort(fuentesNuevas, Comparator.comparingInt(FuenteBarraAcciones::getPrioridad));
+            fuentes = fuentesNuevas;
+
+            // Reubicar los fragmentos ya publicados según el nuevo orden
+            for (EstadoBarraAcciones estado : estadosJugadores.values()) {
+                synchronized (estado) {
+                    estado.reubicar(fuentesNuevas);
+                }
+            }
+
+            if (tareaEnvio == null) {
+                tareaEnvio = new TareaEnvio();
+                PlanificadorTiempoReal.get().registrarTarea(tareaEnvio);
+            }
+        }
+    }
+
+    /**
+     * Anula el registro de una fuente de fragmentos de la barra de acciones,
+     * descartando sus fragmentos publicados.
+     *
+     * @param fuente La fuente cuyo registro anular.
+     */
+    public synchronized void anularRegistroFuente(FuenteBarraAcciones fuente) {
+        int indice = getIndiceFuente(fuentes, fuente);
+
+        if (indice >= 0) {
+            FuenteBarraAcciones[] fuentesNuevas = new FuenteBarraAcciones[fuentes.length - 1];
+
+            System.arraycopy(fuentes, 0, fuentesNuevas, 0, indice);
+            System.arraycopy(fuentes, indice + 1, fuentesNuevas, indice, fuentesNuevas.length - indice);
+            fuentes = fuentesNuevas;
+
+            Iterator<EstadoBarraAcciones> iter = estadosJugadores.values().iterator();
+            while (iter.hasNext()) {
+                EstadoBarraAcciones estado = iter.next();
+
+                synchronized (estado) {
+                    estado.reubicar(fuentesNuevas);
+
+                    if (estado.vacio()) {
+                        iter.remove();
+                    }
+                }
+            }
+
+            if (fuentesNuevas.length == 0 && tareaEnvio != null) {
+                PlanificadorTiempoReal.get().anularRegistroTarea(tareaEnvio);
+                tareaEnvio = null;
+            }
+        }
+    }
+
+    /**
+     * Detiene el compositor, anulando el registro de todas las fuentes y dejando
+     * de enviar textos a los jugadores.
+     */
+    public synchronized void detener() {
+        for (FuenteBarraAcciones fuente : fuentes) {
+            anularRegistroFuente(fuente);
+        }
+
+        estadosJugadores.clear();
+    }
+
+    /**
+     * Publica el fragmento que una fuente desea mostrar en la barra de acciones de
+     * un jugador, que sustituye al que hubiera publicado antes. El texto combinado
+     * solo se le vuelve a enviar al jugador si el fragmento ha cambiado.
+     *
+     * @param jugador   El jugador al que va destinado el fragmento.
+     * @param fuente    La fuente que publica el fragmento. Debe de estar
+     *                  registrada.
+     * @param fragmento El fragmento a mostrar, o nulo para dejar de mostrar el
+     *                  fragmento de la fuente.
+     * @throws IllegalArgumentException Si la fuente no está registrada.
+     */
+    public void setFragmento(Player jugador, FuenteBarraAcciones fuente, Component fragmento) {
+        FuenteBarraAcciones[] fuentesActuales = fuentes;
+
+        if (getIndiceFuente(fuentesActuales, fuente) < 0) {
+            throw new IllegalArgumentException("La fuente de fragmentos de la barra de acciones no está registrada");
+        }
+
+        EstadoBarraAcciones estado = estadosJugadores.get(jugador);
+        if (estado == null && fragmento != null) {
+            estado = estadosJugadores.computeIfAbsent(
+                jugador, (Player p) -> new EstadoBarraAcciones(fuentesActuales)
+            );
+        }
+
+        if (estado != null) {
+            synchronized (estado) {
+                // Las fuentes pueden haber cambiado sin que se hayan reubicado aún
+                // los fragmentos de este estado, o haberse reubicado ya para unas
+                // fuentes más recientes que las leídas
+                estado.reubicar(fuentes);
+                int indice = getIndiceFuente(estado.fuentes, fuente);
+
+                if (indice >= 0 && !Objects.equals(estado.fragmentos[indice], fragmento)) {
+                    estado.fragmentos[indice] = fragmento;
+                    estado.cambiado = true;
+
+                    // Si ya no quedan fragmentos, dejar que el texto de la barra de acciones
+                    // se desvanezca por sí solo
+                    if (estado.vacio()) {
+                        estadosJugadores.remove(jugador);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Busca la posición de una fuente entre unas fuentes registradas.
+     *
+     * @param fuentes Las fuentes registradas.
+     * @param fuente  La fuente a buscar.
+     * @return La posición de la fuente, o -1 si no está entre ellas.
+     */
+    private static int getIndiceFuente(FuenteBarraAcciones[] fuentes, FuenteBarraAcciones fuente) {
+        int toret = -1;
+
+        for (int i = 0; i < fuentes.length && toret < 0; ++i) {
+            if (fuentes[i].equals(fuente)) {
+                toret = i;
+            }
+        }
+
+        return toret;
+    }
+
+    /**
+     * Descarta los fragmentos publicados para los jugadores que se desconectan.
+     *
+     * @param event El evento realizado por el jugador.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerEvent(PlayerQuitEvent event) {
+        estadosJugadores.remove(event.getPlayer());
+    }
+
+    /**
+     * Tarea que envía los textos combinados a los jugadores que lo necesiten,
+     * una vez por tick.
+     *
+     * @author AlexTMjugador
+     */
+    private final class TareaEnvio implements TareaPlanificada {
+        @Override
+        public int getPeriodo() {
+            return 1;
+        }
+
+        @Override
+        public void ejecutar() {
+            for (Map.Entry<Player, EstadoBarraAcciones> entrada : estadosJugadores.entrySet()) {
+                EstadoBarraAcciones estado = entrada.getValue();
+
+                // Enviar paquetes a un jugador desde otro hilo es seguro, así que no es
+                // necesario hacerlo desde el hilo dueño del jugador
+                synchronized (estado) {
+                    if (estado.cambiado || tickActual - estado.tickUltimoEnvio >= TICKS_REENVIO) {
+                        entrada.getKey().sendActionBar(estado.componer());
+                        estado.cambiado = false;
+                        estado.tickUltimoEnvio = tickActual;
+                    }
+                }
+            }
+
+            ++tickActual;
+        }
+    }
+
+    /**
+     * Contiene los fragmentos publicados para un jugador, y cuándo se le envió el
+     * texto combinado por última vez.
+     *
+     * @author AlexTMjugador
+     */
+    private static final class EstadoBarraAcciones {
+        private FuenteBarraAcciones[] fuentes;
+        private Component[] fragmentos;
+        private boolean cambiado = true;
+        private long tickUltimoEnvio = 0;
+
+        /**
+         * Crea un nuevo estado de barra de acciones, sin fragmentos.
+         *
+         * @param fuentes Las fuentes registradas.
+         */
+        public EstadoBarraAcciones(FuenteBarraAcciones[] fuentes) {
+            this.fuentes = fuentes;
+            this.fragmentos = new Component[fuentes.length];
+        }
+
+        /**
+         * Reubica los fragmentos publicados según el orden de unas fuentes
+         * registradas, descartando los de las fuentes que ya no lo estén. Si los
+         * fragmentos ya estaban ordenados para ellas, no se hace nada.
+         *
+         * @param fuentesNuevas Las fuentes registradas.
+         */
+        public void reubicar(FuenteBarraAcciones[] fuentesNuevas) {
+            if (fuentes != fuentesNuevas) {
+                Component[] fragmentosNuevos = new Component[fuentesNuevas.length];
+
+                for (int i = 0; i < fuentes.length; ++i) {
+                    int indice = getIndiceFuente(fuentesNuevas, fuentes[i]);
+
+                    if (indice >= 0) {
+                        fragmentosNuevos[indice] = fragmentos[i];
+                    } else if (fragmentos[i] != null) {
+                        cambiado = true;
+                    }
+                }
+
+                fuentes = fuentesNuevas;
+                fragmentos = fragmentosNuevos;
+            }
+        }
+
+        /**
+         * Comprueba si no hay ningún fragmento publicado.
+         *
+         * @return Verdadero si no hay ningún fragmento, falso en otro caso.
+         */
+        public boolean vacio() {
+            boolean toret = true;
+
+            for (int i = 0; i < fragmentos.length && toret; ++i) {
+                toret = fragmentos[i] == null;
+            }
+
+            return toret;
+        }
+
+        /**
+         * Combina los fragmentos publicados en un único texto, en el orden de las
+         * fuentes.
+         *
+         * @return El texto combinado.
+         */
+        public Component componer() {
+            Component toret = null;
+            int fragmentosPublicados = 0;
+
+            for (Component fragmento : fragmentos) {
+                if (fragmento != null) {
+                    toret = fragmento;
+                    ++fragmentosPublicados;
+                }
+            }
+
+            // Lo más habitual es que haya un solo fragmento, que se puede enviar
+            // directamente
+            if (fragmentosPublicados > 1) {
+                toret = Component.join(
+                    SEPARADOR_FRAGMENTOS, Arrays.stream(fragmentos).filter(Objects::nonNull).toList()
+                );
+            }
+
+            return toret;
+        }
+    }
+
+    /**
+     * Ayuda a implementar el patrón singleton de inicialización retardada al uso de
+     * la instancia, de forma segura entre hilos y eficiente.
+     *
+     * @author AlexTMjugador
+     */
+    private static final class PoseedorInstanciaClase {
+        private static final CompositorBarraAcciones INSTANCIA = new CompositorBarraAcciones();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,41 @@
+/*
+ * Plugins de Paper del Proyecto Khron
+ * Copyright (C) 2026 Comunidad Aylas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.aylas.khron.tiemporeal.barraacciones;
+
+/**
+ * Representa algo que muestra información a los jugadores en su barra de
+ * acciones, como un reloj. Como cada jugador solo puede ver un texto en la barra
+ * de acciones a la vez, las fuentes no envían su texto directamente, sino que
+ * publican un fragmento en el {@link CompositorBarraAcciones}, que los combina
+ * con los de las demás fuentes en un solo texto.
+ *
+ * @author AlexTMjugador
+ */
+public interface FuenteBarraAcciones {
+    /**
+     * Obtiene la prioridad de esta fuente, que determina la posición de sus
+     * fragmentos en el texto combinado: los fragmentos de las fuentes con menor
+     * prioridad aparecen antes. Las fuentes con la misma prioridad se ordenan por
+     * orden de registro. Por defecto, este método devuelve cero.
+     *
+     * @return La devandicha prioridad.
+     */
+    default int getPrioridad() {
+        return 0;
+    }
+}
\ No newline at end of file
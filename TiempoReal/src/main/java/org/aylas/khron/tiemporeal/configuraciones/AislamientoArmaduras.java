@@ -0,0 +1,169 @@
+/*
+ * Plugins de Paper del Proyecto Khron
+ * Copyright (C) 2026 Comunidad Aylas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.aylas.khron.tiemporeal.configuraciones;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.aylas.khron.libconfig.ParametroConfiguracionNotificado;
+import org.aylas.khron.tiemporeal.PluginTiempoReal;
+import org.aylas.khron.tiemporeal.efectostermicos.SimuladorHipotermia;
+import org.bukkit.Material;
+
+/**
+ * Un parámetro de configuración que contiene cuántos grados Celsius baja cada
+ * pieza de armadura la temperatura a partir de la cual un jugador empieza a
+ * padecer hipotermia. Las piezas que no aparecen en él no abrigan.
+ *
+ * @author AlexTMjugador
+ */
+public final class AislamientoArmaduras
+    extends ParametroConfiguracionNotificado<Map<Material, Float>, List<String>>
+{
+    /**
+     * La ruta en el fichero de configuración hacia este parámetro de configuración.
+     */
+    private static final String RUTA_CONFIG = "Aislamiento térmico de armaduras";
+
+    /**
+     * El identificador de este parámetro de configuración en el código y en el
+     * comando asociado para cambiarlo.
+     */
+    private static final String ID_CONFIG = "aislamientoArmaduras";
+
+    /**
+     * El permiso necesario para ejecutar un comando que cambie el valor de este
+     * parámetro de configuración.
+     */
+    private static final String PERMISO_CONFIG = "tiemporeal.trconfig.aislamientoArmaduras";
+
+    /**
+     * El valor que toma este parámetro si no aparece en el fichero de
+     * configuración, como ocurre con ficheros creados por versiones anteriores
+     * del plugin.
+     */
+    private static final List<String> VALOR_PREDETERMINADO = List.of(
+        "LEATHER_HELMET, 2", "LEATHER_CHESTPLATE, 8", "LEATHER_LEGGINGS, 6", "LEATHER_BOOTS, 4",
+        "NETHERITE_HELMET, 1.5", "NETHERITE_CHESTPLATE, 6", "NETHERITE_LEGGINGS, 4.5", "NETHERITE_BOOTS, 3",
+        "TURTLE_HELMET, 1.5",
+        "IRON_HELMET, 1", "IRON_CHESTPLATE, 4", "IRON_LEGGINGS, 3", "IRON_BOOTS, 2",
+        "GOLDEN_HELMET, 1", "GOLDEN_CHESTPLATE, 4", "GOLDEN_LEGGINGS, 3", "GOLDEN_BOOTS, 2",
+        "DIAMOND_HELMET, 1", "DIAMOND_CHESTPLATE, 4", "DIAMOND_LEGGINGS, 3", "DIAMOND_BOOTS, 2",
+        "CHAINMAIL_HELMET, 0.5", "CHAINMAIL_CHESTPLATE, 2", "CHAINMAIL_LEGGINGS, 1.5", "CHAINMAIL_BOOTS, 1",
+        "ELYTRA, 2"
+    );
+
+    public AislamientoArmaduras() {
+        super(
+            PluginTiempoReal.getProvidingPlugin(PluginTiempoReal.class),
+            RUTA_CONFIG,
+            ID_CONFIG,
+            PERMISO_CONFIG,
+            SimuladorHipotermia.get()
+        );
+    }
+
+    @Override
+    public void leer() {
+        List<String> materialesYAislamientos = getPlugin().getConfig().contains(RUTA_CONFIG) ?
+            getPlugin().getConfig().getStringList(RUTA_CONFIG) :
+            VALOR_PREDETERMINADO;
+        Map<Material, Float> valorLeido = new EnumMap<>(Material.class);
+
+        for (String materialYAislamiento : materialesYAislamientos) {
+            if (!parsearCadenaAEntrada(materialYAislamiento, valorLeido)) {
+                throw new IllegalArgumentException(
+                    "Una entrada de aislamiento térmico de armadura no es válida: " + materialYAislamiento
+                );
+            }
+        }
+
+        setValor(valorLeido, false);
+    }
+
+    @Override
+    protected List<String> getValorYaml() {
+        List<String> toret;
+        Map<Material, Float> valor = getValor();
+
+        if (valor != null) {
+            toret = new ArrayList<>(valor.size());
+
+            for (Entry<Material, Float> entrada : valor.entrySet()) {
+                toret.add(entrada.getKey().name() + ", " + entrada.getValue());
+            }
+        } else {
+            toret = new ArrayList<>(0);
+        }
+
+        return toret;
+    }
+
+    @Override
+    public boolean parsearValor(String nuevoValor) {
+        boolean toret = false;
+
+        if (nuevoValor != null) {
+            String[] materialesYAislamientos = nuevoValor.split(" \\| ");
+            Map<Material, Float> valorLeido = new EnumMap<>(Material.class);
+
+            toret = true;
+            for (int i = 0; i < materialesYAislamientos.length && toret; ++i) {
+                toret = parsearCadenaAEntrada(materialesYAislamientos[i], valorLeido);
+            }
+
+            if (toret) {
+                setValor(valorLeido, false);
+            }
+        }
+
+        return toret;
+    }
+
+    /**
+     * Interpreta una cadena de texto que contiene un material de armadura y su
+     * aislamiento térmico, añadiéndolos al mapa en el que se guardarán.
+     *
+     * @param valor El valor de la cadena de texto.
+     * @param mapa  El mapa al que añadir la entrada.
+     * @return Verdadero si la cadena de texto es válida, falso en otro caso.
+     */
+    private boolean parsearCadenaAEntrada(String valor, Map<Material, Float> mapa) {
+        boolean toret = false;
+
+        try {
+            String[] campos = valor.split(", ", 2);
+
+            if (campos.length == 2) {
+                Material material = Material.valueOf(campos[0].trim().toUpperCase(Locale.ROOT));
+                float aislamiento = Float.parseFloat(campos[1].trim());
+
+                if (Float.isFinite(aislamiento)) {
+                    mapa.put(material, aislamiento);
+                    toret = true;
+                }
+            }
+        } catch (IllegalArgumentException | NullPointerException ignorar) {}
+
+        return toret;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,121 @@
+/*
+ * Plugins de Paper del Proyecto Khron
+ * Copyright (C) 2026 Comunidad Aylas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.aylas.khron.tiemporeal.configuraciones;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import net.kyori.adventure.text.serializer.legacy.LegacyFormat;
+
+/**
+ * Representa un texto de reloj ya interpretado, listo para incorporarle el
+ * display de un reloj. Como los componentes de Adventure son inmutables, una
+ * misma plantilla se puede compartir entre todos los jugadores e hilos sin
+ * necesidad de copiarla.
+ *
+ * @param prefijo       El texto que precede al display.
+ * @param estiloDisplay El estilo que hereda el display, que es el vigente al
+ *                      final del prefijo.
+ * @param sufijo        El texto que sigue al display.
+ * @author AlexTMjugador
+ */
+public record PlantillaTextoReloj(Component prefijo, Style estiloDisplay, Component sufijo) {
+    /**
+     * Interpreta un texto de reloj, con códigos de formato precedidos por el
+     * carácter {@code &}, para crear la plantilla correspondiente.
+     *
+     * @param textoReloj El texto de reloj a interpretar. Se asume que contiene la
+     *                   palabra clave {@link TextoReloj#DISPLAY} una sola vez.
+     * @return La plantilla creada.
+     */
+    public static PlantillaTextoReloj compilar(String textoReloj) {
+        int i = textoReloj.indexOf(TextoReloj.DISPLAY);
+        String textoPrefijo = textoReloj.substring(0, i);
+        String textoSufijo = textoReloj.substring(i + TextoReloj.DISPLAY.length());
+        LegacyComponentSerializer serializador = LegacyComponentSerializer.legacyAmpersand();
+        Style estiloDisplay = estiloFinal(textoPrefijo);
+
+        // Como con los códigos de formato tradicionales, el texto posterior al
+        // display recupera los colores previos a él
+        return new PlantillaTextoReloj(
+            serializador.deserialize(textoPrefijo),
+            estiloDisplay,
+            textoSufijo.isEmpty() ?
+                Component.empty() :
+                Component.text().style(estiloDisplay).append(serializador.deserialize(textoSufijo)).build()
+        );
+    }
+
+    /**
+     * Forma el texto de reloj completo a mostrar, incorporando el display
+     * especificado a esta plantilla.
+     *
+     * @param display El display a incorporar. No es nulo.
+     * @return El texto de reloj completo.
+     */
+    public Component formar(Component display) {
+        return Component.textOfChildren(prefijo, Component.text().style(estiloDisplay).append(display), sufijo);
+    }
+
+    /**
+     * Calcula el estilo que tendría el texto escrito al final de un texto con
+     * códigos de formato tradicionales, siguiendo las reglas de éstos: un código
+     * de color desactiva todas las decoraciones, y el código de reinicio
+     * desactiva todo formato.
+     *
+     * @param texto El texto con códigos de formato precedidos por {@code &}.
+     * @return El devandicho estilo.
+     */
+    private static Style estiloFinal(String texto) {
+        TextColor color = null;
+        Set<TextDecoration> decoraciones = EnumSet.noneOf(TextDecoration.class);
+
+        for (int i = 0; i < texto.length() - 1; ++i) {
+            LegacyFormat formato;
+
+            if (
+                texto.charAt(i) == LegacyComponentSerializer.AMPERSAND_CHAR &&
+                (formato = LegacyComponentSerializer.parseChar(texto.charAt(i + 1))) != null
+            ) {
+                if (formato.reset()) {
+                    color = null;
+                    decoraciones.clear();
+                } else if (formato.color() != null) {
+                    color = formato.color();
+                    decoraciones.clear();
+                } else if (formato.decoration() != null) {
+                    decoraciones.add(formato.decoration());
+                }
+
+                ++i;
+            }
+        }
+
+        Style.Builder estilo = Style.style().color(color);
+        for (TextDecoration decoracion : decoraciones) {
+            estilo.decorate(decoracion);
+        }
+
+        return estilo.build();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,99 @@
+/*
+ * Plugins de Paper del Proyecto Khron
+ * Copyright (C) 2026 Comunidad Aylas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.aylas.khron.tiemporeal.configuraciones;
+
+import java.util.Objects;
+
+import org.aylas.khron.libconfig.ParametroConfiguracion;
+import org.aylas.khron.tiemporeal.PluginTiempoReal;
+
+/**
+ * Alberga el tiempo máximo, en milisegundos, que el plugin puede dedicar en
+ * cada tick al trabajo periódico que se hace para cada jugador. El trabajo que
+ * no quepa en ese tiempo se pospone a los siguientes ticks.
+ *
+ * @author AlexTMjugador
+ */
+public final class PresupuestoTick extends ParametroConfiguracion<Double, Double> {
+    /**
+     * La ruta en el fichero de configuración hacia este parámetro de configuración.
+     */
+    private static final String RUTA_CONFIG = "Presupuesto de tiempo por tick (ms)";
+
+    /**
+     * El identificador de este parámetro de configuración en el código y en el
+     * comando asociado para cambiarlo.
+     */
+    private static final String ID_CONFIG = "presupuestoTick";
+
+    /**
+     * El permiso necesario para ejecutar un comando que cambie el valor de este
+     * parámetro de configuración.
+     */
+    private static final String PERMISO_CONFIG = "tiemporeal.trconfig.presupuestoTick";
+
+    /**
+     * El valor que toma este parámetro si no aparece en el fichero de
+     * configuración, como ocurre con ficheros creados por versiones anteriores
+     * del plugin.
+     */
+    private static final double VALOR_PREDETERMINADO = 2;
+
+    /**
+     * El valor máximo que puede tomar este parámetro, que es la duración de un
+     * tick a 20 ticks por segundo.
+     */
+    private static final double VALOR_MAXIMO = 50;
+
+    public PresupuestoTick() {
+        super(PluginTiempoReal.getPlugin(PluginTiempoReal.class), RUTA_CONFIG, ID_CONFIG, PERMISO_CONFIG);
+    }
+
+    @Override
+    public void leer() {
+        Object valorLeido = getPlugin().getConfig().get(RUTA_CONFIG, VALOR_PREDETERMINADO);
+
+        // YAML interpreta los números sin parte decimal como enteros
+        Double toset = valorLeido instanceof Number ? ((Number) valorLeido).doubleValue() : null;
+
+        if (!setValor(toset, false)) {
+            throw new IllegalArgumentException(
+                "El valor de configuración para la clave \"" + getRutaConfiguracion() +
+                "\" no es válido (valor leído: " + Objects.toString(valorLeido) + ")"
+            );
+        }
+    }
+
+    @Override
+    public boolean parsearValor(String nuevoValor) {
+        boolean toret;
+
+        try {
+            toret = setValor(Double.valueOf(nuevoValor), false);
+        } catch (NumberFormatException | NullPointerException exc) {
+            toret = false;
+        }
+
+        return toret;
+    }
+
+    @Override
+    public boolean valorValido(Double otroValor) {
+        return otroValor != null && otroValor > 0 && otroValor <= VALOR_MAXIMO;
+    }
+}
\ No newline at end of file
@@ -18,7 +18,6 @@
 package org.aylas.khron.tiemporeal.configuraciones;
 
 import org.aylas.khron.tiemporeal.PluginTiempoReal;
-import org.bukkit.ChatColor;
 
 import org.aylas.khron.libconfig.NotificableCambioConfiguracion;
 import org.aylas.khron.libconfig.ParametroConfiguracionNotificado;
@@ -59,10 +58,10 @@ public class TextoReloj extends ParametroConfiguracionNotificado<String, String>
     private static final int CARACTERES_MAX = 75;
 
     /**
-     * La cadena de texto representativa del valor de configuración, sin los cambios
-     * aplicados por {@link procesarValor}.
+     * La plantilla de texto de reloj interpretada a partir del valor de
+     * configuración actual.
      */
-    private String valorSinProcesar;
+    private PlantillaTextoReloj plantilla;
 
     public TextoReloj() {
         this(RUTA_CONFIG, ID_CONFIG, PERMISO_CONFIG, new PluginTiempoReal.NotificableConfigTextoReloj());
@@ -79,27 +78,22 @@ public class TextoReloj extends ParametroConfiguracionNotificado<String, String>
 
     @Override
     protected final String procesarValor(String nuevoValor) {
-        String toret = ChatColor.translateAlternateColorCodes('&', nuevoValor);
-        int i = toret.indexOf(DISPLAY);
+        // Interpretar la plantilla antes de notificar el cambio, para que quien
+        // reciba la notificación ya pueda obtenerla
+        plantilla = PlantillaTextoReloj.compilar(nuevoValor);
 
-        valorSinProcesar = nuevoValor;
-
-        // Si hay texto después del display, restaurar colores previos al display
-        if (i + DISPLAY.length() < nuevoValor.length()) {
-            String parteAnt = toret.substring(0, i);
-
-            toret = toret.replace(
-                DISPLAY,
-                DISPLAY + ChatColor.RESET + ChatColor.getLastColors(parteAnt)
-            );
-        }
-
-        return toret;
+        return super.procesarValor(nuevoValor);
     }
 
-    @Override
-    public final String getValorYaml() {
-        return valorSinProcesar;
+    /**
+     * Obtiene la plantilla de texto de reloj correspondiente al valor actual de
+     * este parámetro de configuración.
+     *
+     * @return La devandicha plantilla. Puede ser nula si todavía no se ha leído
+     *         el valor del parámetro de configuración.
+     */
+    public final PlantillaTextoReloj getPlantilla() {
+        return plantilla;
     }
 
     /**
@@ -0,0 +1,592 @@
+/*
+ * Plugins de Paper del Proyecto Khron
+ * Copyright (C) 2026 Comunidad Aylas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.aylas.khron.tiemporeal.efectostermicos;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.aylas.khron.tiemporeal.PluginTiempoReal;
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.block.data.Levelled;
+import org.bukkit.block.data.Lightable;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockFadeEvent;
+import org.bukkit.event.block.BlockIgniteEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.player.PlayerBucketEmptyEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+import static org.bukkit.Bukkit.getServer;
+
+/**
+ * Mantiene, para cada chunk cargado, los bloques que dan calor a los jugadores
+ * cercanos, como hogueras, fuego o fuentes de lava, de forma que comprobar si
+ * un jugador está cerca de alguno no requiera recorrer el mundo.
+ *
+ * <p>
+ * Los bloques de cada sección de un chunk se agrupan en celdas de 4 × 4 × 4
+ * bloques, y de cada celda se guarda una máscara de bits con los bloques que
+ * son fuentes de calor. Así, una consulta solo mira las pocas celdas que
+ * alcanza el radio de calor, y añadir o quitar una fuente es una operación
+ * atómica sobre un único entero largo. De la lava, solo se indexan los bloques
+ * fuente, porque la lava que fluye cambia constantemente y siempre está cerca
+ * de alguno.
+ * </p>
+ *
+ * <p>
+ * Cada chunk se indexa la primera vez que se consulta, recorriendo una
+ * instantánea suya fuera del hilo principal, y el índice se mantiene después
+ * mediante eventos de colocación, ignición y rotura de bloques. Mientras se
+ * indexa, se recurre al nivel de luz de los bloques para detectar el calor.
+ * Como no todos los cambios de bloques generan eventos, el índice puede
+ * contener bloques que ya no son fuentes de calor, que se descartan al
+ * consultarlos.
+ * </p>
+ *
+ * @author AlexTMjugador
+ */
+public final class IndiceFuentesCalor implements Listener {
+	/**
+	 * La distancia máxima, en bloques, a la que una fuente de calor calienta a
+	 * un jugador.
+	 */
+	private static final int RADIO_CALOR = 4;
+	/**
+	 * El nivel de luz de bloques a partir del cual, exclusive, se considera que
+	 * un jugador está cerca de una fuente de calor en un chunk que todavía se
+	 * está indexando.
+	 */
+	private static final int NIVEL_LUZ_FUENTE_CALOR = 11;
+	/**
+	 * Los materiales de los bloques que pueden ser fuentes de calor. Los que
+	 * pueden estar encendidos o apagados solo dan calor cuando están encendidos,
+	 * y la lava solo cuenta si es un bloque fuente.
+	 */
+	private static final Set<Material> MATERIALES_FUENTES_CALOR = Collections.unmodifiableSet(EnumSet.of(
+		Material.CAMPFIRE, Material.SOUL_CAMPFIRE, Material.FIRE, Material.SOUL_FIRE,
+		Material.LAVA, Material.LAVA_CAULDRON, Material.MAGMA_BLOCK,
+		Material.FURNACE, Material.BLAST_FURNACE, Material.SMOKER
+	));
+
+	/**
+	 * Las fuentes de calor de cada chunk indexado o en proceso de indexarse, por
+	 * identificador de mundo y clave de chunk.
+	 */
+	private final Map<UUID, Map<Long, FuentesChunk>> fuentesMundos = new ConcurrentHashMap<>();
+
+	/**
+	 * Restringe la instanciación de esta clase a otras clases.
+	 */
+	private IndiceFuentesCalor() {}
+
+	/**
+	 * Obtiene la única instancia del índice de fuentes de calor en la JVM,
+	 * creándola si no lo ha sido ya.
+	 *
+	 * @return La devandicha instancia.
+	 */
+	public static IndiceFuentesCalor get() {
+		return PoseedorInstanciaClase.INSTANCIA;
+	}
+
+	/**
+	 * Descarta todas las fuentes de calor indexadas.
+	 */
+	public void detener() {
+		fuentesMundos.clear();
+	}
+
+	/**
+	 * Comprueba si hay alguna fuente de calor activa lo bastante cerca de una
+	 * posición como para calentar a un jugador que esté en ella. Debe de
+	 * llamarse desde el hilo dueño de esa posición.
+	 *
+	 * @param pos La posición a comprobar.
+	 * @return Verdadero si hay alguna fuente de calor cerca, falso en otro caso.
+	 *         Si alguno de los chunks cercanos no se ha indexado todavía, se
+	 *         recurre al nivel de luz de los bloques en la posición.
+	 */
+	public boolean hayFuenteCalorCerca(Location pos) {
+		boolean toret = false;
+		boolean chunksPendientes = false;
+		World mundo = pos.getWorld();
+		Map<Long, FuentesChunk> fuentesChunks = fuentesMundos.computeIfAbsent(
+			mundo.getUID(), uid -> new ConcurrentHashMap<>()
+		);
+		int x = pos.getBlockX();
+		int y = pos.getBlockY();
+		int z = pos.getBlockZ();
+
+		for (int cx = (x - RADIO_CALOR) >> 4; cx <= (x + RADIO_CALOR) >> 4 && !toret; ++cx) {
+			for (int cz = (z - RADIO_CALOR) >> 4; cz <= (z + RADIO_CALOR) >> 4 && !toret; ++cz) {
+				FuentesChunk fuentes = fuentesChunks.get(Chunk.getChunkKey(cx, cz));
+
+				if (fuentes == null) {
+					if (mundo.isChunkLoaded(cx, cz)) {
+						indexarChunk(mundo.getChunkAt(cx, cz), fuentesChunks);
+						chunksPendientes = true;
+					}
+				} else if (fuentes.isIndexado()) {
+					toret = fuentes.hayFuenteCalorActivaCerca(mundo, cx << 4, cz << 4, x, y, z);
+				} else {
+					chunksPendientes = true;
+				}
+			}
+		}
+
+		// Mientras no se conozcan todas las fuentes cercanas, evitar que el jugador
+		// se congele junto a una de ellas, como se hacía antes de tener el índice
+		if (!toret && chunksPendientes) {
+			toret = pos.getBlock().getLightFromBlocks() > NIVEL_LUZ_FUENTE_CALOR;
+		}
+
+		return toret;
+	}
+
+	/**
+	 * Añade al índice una fuente de calor colocada por un jugador.
+	 *
+	 * @param event El evento de colocación del bloque.
+	 */
+	@EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+	public void onBlockEvent(BlockPlaceEvent event) {
+		Block bloque = event.getBlockPlaced();
+
+		if (MATERIALES_FUENTES_CALOR.contains(bloque.getType())) {
+			anadirFuente(bloque);
+		}
+	}
+
+	/**
+	 * Añade al índice el fuego que aparece en un bloque.
+	 *
+	 * @param event El evento de ignición del bloque.
+	 */
+	@EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+	public void onBlockEvent(BlockIgniteEvent event) {
+		anadirFuente(event.getBlock());
+	}
+
+	/**
+	 * Añade al índice la fuente de lava que vacía un jugador con un cubo.
+	 *
+	 * @param event El evento de vaciado del cubo.
+	 */
+	@EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+	public void onPlayerEvent(PlayerBucketEmptyEvent event) {
+		if (event.getBucket() == Material.LAVA_BUCKET) {
+			anadirFuente(event.getBlock());
+		}
+	}
+
+	/**
+	 * Elimina del índice una fuente de calor rota por un jugador.
+	 *
+	 * @param event El evento de rotura del bloque.
+	 */
+	@EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+	public void onBlockEvent(BlockBreakEvent event) {
+		eliminarFuente(event.getBlock());
+	}
+
+	/**
+	 * Elimina del índice el fuego que se extingue por sí solo.
+	 *
+	 * @param event El evento de desvanecimiento del bloque.
+	 */
+	@EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+	public void onBlockEvent(BlockFadeEvent event) {
+		eliminarFuente(event.getBlock());
+	}
+
+	/**
+	 * Descarta las fuentes de calor de un chunk que se descarga, que se volverán
+	 * a indexar si se carga y se consulta de nuevo.
+	 *
+	 * @param event El evento de descarga del chunk.
+	 */
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onWorldEvent(ChunkUnloadEvent event) {
+		Map<Long, FuentesChunk> fuentesChunks = fuentesMundos.get(event.getWorld().getUID());
+
+		if (fuentesChunks != null) {
+			fuentesChunks.remove(event.getChunk().getChunkKey());
+		}
+	}
+
+	/**
+	 * Descarta las fuentes de calor de un mundo que se descarga.
+	 *
+	 * @param event El evento de descarga del mundo.
+	 */
+	@EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+	public void onWorldEvent(WorldUnloadEvent event) {
+		fuentesMundos.remove(event.getWorld().getUID());
+	}
+
+	/**
+	 * Comprueba si los datos de un bloque corresponden a una fuente de calor,
+	 * aunque no esté encendida.
+	 *
+	 * @param datosBloque Los datos del bloque.
+	 * @return Verdadero si es una fuente de calor, falso en otro caso.
+	 */
+	private static boolean esFuenteCalor(BlockData datosBloque) {
+		Material material = datosBloque.getMaterial();
+
+		return MATERIALES_FUENTES_CALOR.contains(material) &&
+			(material != Material.LAVA || ((Levelled) datosBloque).getLevel() == 0);
+	}
+
+	/**
+	 * Comienza a indexar las fuentes de calor de un chunk cargado, si no se ha
+	 * hecho ya. El recorrido de los bloques del chunk se hace sobre una
+	 * instantánea suya en otro hilo, y el chunk se marca como indexado cuando
+	 * termina. Las fuentes que se añadan o eliminen mediante eventos mientras
+	 * tanto se aplican directamente sobre sus fuentes.
+	 *
+	 * @param chunk         El chunk a indexar.
+	 * @param fuentesChunks Las fuentes de calor de los chunks de su mundo.
+	 */
+	private static void indexarChunk(Chunk chunk, Map<Long, FuentesChunk> fuentesChunks) {
+		World mundo = chunk.getWorld();
+		FuentesChunk fuentes = new FuentesChunk(mundo.getMinHeight(), mundo.getMaxHeight());
+
+		if (fuentesChunks.putIfAbsent(chunk.getChunkKey(), fuentes) == null) {
+			ChunkSnapshot instantanea = chunk.getChunkSnapshot(false, false, false);
+
+			getServer().getAsyncScheduler().runNow(PluginTiempoReal.getPlugin(PluginTiempoReal.class), tarea -> {
+				recorrerInstantanea(instantanea, fuentes);
+				fuentes.marcarIndexado();
+			});
+		}
+	}
+
+	/**
+	 * Recorre los bloques de una instantánea de un chunk, añadiendo las fuentes
+	 * de calor que encuentre. Las secciones vacías del chunk se omiten.
+	 *
+	 * @param instantanea La instantánea del chunk.
+	 * @param fuentes     Las fuentes de calor del chunk.
+	 */
+	private static void recorrerInstantanea(ChunkSnapshot instantanea, FuentesChunk fuentes) {
+		for (int seccion = 0; seccion < fuentes.getNumeroSecciones(); ++seccion) {
+			if (!instantanea.isSectionEmpty(seccion)) {
+				int yBase = fuentes.getAlturaMinima() + (seccion << 4);
+
+				for (int y = yBase; y < yBase + 16; ++y) {
+					for (int x = 0; x < 16; ++x) {
+						for (int z = 0; z < 16; ++z) {
+							Material material = instantanea.getBlockType(x, y, z);
+
+							// Solo hace falta obtener los datos completos de la lava, para
+							// distinguir sus bloques fuente
+							if (
+								MATERIALES_FUENTES_CALOR.contains(material) &&
+								(material != Material.LAVA || esFuenteCalor(instantanea.getBlockData(x, y, z)))
+							) {
+								fuentes.anadir(x, y, z);
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Añade un bloque a las fuentes de calor de su chunk, si se ha indexado o se
+	 * está indexando. Si no, la fuente se encontrará al indexarlo.
+	 *
+	 * @param bloque El bloque a añadir.
+	 */
+	private void anadirFuente(Block bloque) {
+		FuentesChunk fuentes = getFuentesChunk(bloque);
+
+		if (fuentes != null) {
+			fuentes.anadir(bloque.getX(), bloque.getY(), bloque.getZ());
+		}
+	}
+
+	/**
+	 * Elimina un bloque de las fuentes de calor de su chunk, si se ha indexado o
+	 * se está indexando.
+	 *
+	 * @param bloque El bloque a eliminar.
+	 */
+	private void eliminarFuente(Block bloque) {
+		FuentesChunk fuentes = getFuentesChunk(bloque);
+
+		if (fuentes != null) {
+			fuentes.eliminar(bloque.getX(), bloque.getY(), bloque.getZ());
+		}
+	}
+
+	/**
+	 * Obtiene las fuentes de calor del chunk de un bloque.
+	 *
+	 * @param bloque El bloque.
+	 * @return Las devandichas fuentes, o nulo si el chunk no se ha indexado ni
+	 *         se está indexando.
+	 */
+	private FuentesChunk getFuentesChunk(Block bloque) {
+		Map<Long, FuentesChunk> fuentesChunks = fuentesMundos.get(bloque.getWorld().getUID());
+
+		return fuentesChunks != null ?
+			fuentesChunks.get(Chunk.getChunkKey(bloque.getX() >> 4, bloque.getZ() >> 4)) :
+			null;
+	}
+
+	/**
+	 * Las fuentes de calor de un chunk, agrupadas en celdas de 4 × 4 × 4 bloques
+	 * de cada sección. Cada celda es una máscara de bits con un bit por bloque,
+	 * y las celdas de una sección solo se crean cuando se añade una fuente a
+	 * ella. Admite accesos concurrentes.
+	 *
+	 * @author AlexTMjugador
+	 */
+	private static final class FuentesChunk {
+		/**
+		 * El número de celdas de una sección de un chunk.
+		 */
+		private static final int CELDAS_SECCION = 64;
+
+		/**
+		 * Las máscaras de las celdas de cada sección, o nulo para las secciones
+		 * sin fuentes de calor.
+		 */
+		private final AtomicReferenceArray<AtomicLongArray> secciones;
+
+		/**
+		 * La altura mínima de los bloques del mundo del chunk.
+		 */
+		private final int alturaMinima;
+
+		/**
+		 * Verdadero si ya se ha terminado de recorrer el chunk, y sus fuentes de
+		 * calor están completas.
+		 */
+		private volatile boolean indexado = false;
+
+		/**
+		 * Crea las fuentes de calor vacías de un chunk que se va a indexar.
+		 *
+		 * @param alturaMinima La altura mínima de los bloques del mundo del chunk.
+		 * @param alturaMaxima La altura máxima, exclusiva, de los bloques del
+		 *                     mundo del chunk.
+		 */
+		FuentesChunk(int alturaMinima, int alturaMaxima) {
+			this.secciones = new AtomicReferenceArray<>((alturaMaxima - alturaMinima) >> 4);
+			this.alturaMinima = alturaMinima;
+		}
+
+		/**
+		 * Obtiene el número de secciones del chunk.
+		 *
+		 * @return El devandicho número.
+		 */
+		int getNumeroSecciones() {
+			return secciones.length();
+		}
+
+		/**
+		 * Obtiene la altura mínima de los bloques del mundo del chunk.
+		 *
+		 * @return La devandicha altura.
+		 */
+		int getAlturaMinima() {
+			return alturaMinima;
+		}
+
+		/**
+		 * Comprueba si ya se ha terminado de recorrer el chunk.
+		 *
+		 * @return Verdadero en caso afirmativo, falso en otro caso.
+		 */
+		boolean isIndexado() {
+			return indexado;
+		}
+
+		/**
+		 * Marca el chunk como recorrido, con sus fuentes de calor completas.
+		 */
+		void marcarIndexado() {
+			indexado = true;
+		}
+
+		/**
+		 * Añade una fuente de calor.
+		 *
+		 * @param x La coordenada X del bloque. Solo se usan sus 4 bits menos
+		 *          significativos.
+		 * @param y La coordenada Y del bloque.
+		 * @param z La coordenada Z del bloque. Solo se usan sus 4 bits menos
+		 *          significativos.
+		 */
+		void anadir(int x, int y, int z) {
+			int seccion = (y - alturaMinima) >> 4;
+
+			if (seccion >= 0 && seccion < secciones.length()) {
+				AtomicLongArray celdas = secciones.get(seccion);
+
+				if (celdas == null) {
+					secciones.compareAndSet(seccion, null, new AtomicLongArray(CELDAS_SECCION));
+					celdas = secciones.get(seccion);
+				}
+
+				long bit = getBitBloque(x, y, z);
+				celdas.getAndUpdate(getIndiceCelda(x, y, z), mascara -> mascara | bit);
+			}
+		}
+
+		/**
+		 * Elimina una fuente de calor, si lo era.
+		 *
+		 * @param x La coordenada X del bloque. Solo se usan sus 4 bits menos
+		 *          significativos.
+		 * @param y La coordenada Y del bloque.
+		 * @param z La coordenada Z del bloque. Solo se usan sus 4 bits menos
+		 *          significativos.
+		 */
+		void eliminar(int x, int y, int z) {
+			int seccion = (y - alturaMinima) >> 4;
+			AtomicLongArray celdas = seccion >= 0 && seccion < secciones.length() ? secciones.get(seccion) : null;
+
+			if (celdas != null) {
+				long bit = getBitBloque(x, y, z);
+				celdas.getAndUpdate(getIndiceCelda(x, y, z), mascara -> mascara & ~bit);
+			}
+		}
+
+		/**
+		 * Comprueba si alguna de las fuentes de calor de este chunk está activa y
+		 * lo bastante cerca de una posición, descartando las que ya no sean
+		 * fuentes de calor. Solo se consultan las celdas que alcanza el radio de
+		 * calor.
+		 *
+		 * @param mundo   El mundo del chunk.
+		 * @param xOrigen La coordenada X del primer bloque del chunk.
+		 * @param zOrigen La coordenada Z del primer bloque del chunk.
+		 * @param x       La coordenada X de la posición.
+		 * @param y       La coordenada Y de la posición.
+		 * @param z       La coordenada Z de la posición.
+		 * @return Verdadero si hay alguna fuente de calor activa cerca, falso en
+		 *         otro caso.
+		 */
+		boolean hayFuenteCalorActivaCerca(World mundo, int xOrigen, int zOrigen, int x, int y, int z) {
+			boolean toret = false;
+			// La posición puede estar en otro chunk, así que solo se consulta la
+			// parte del radio de calor que cae dentro de este
+			int xMinimo = Math.max(x - RADIO_CALOR, xOrigen);
+			int xMaximo = Math.min(x + RADIO_CALOR, xOrigen + 15);
+			int zMinimo = Math.max(z - RADIO_CALOR, zOrigen);
+			int zMaximo = Math.min(z + RADIO_CALOR, zOrigen + 15);
+			int yMinimo = Math.max(y - RADIO_CALOR, alturaMinima);
+			int yMaximo = Math.min(y + RADIO_CALOR, alturaMinima + (secciones.length() << 4) - 1);
+
+			for (int yCelda = yMinimo & ~3; yCelda <= yMaximo && !toret; yCelda += 4) {
+				AtomicLongArray celdas = secciones.get((yCelda - alturaMinima) >> 4);
+
+				for (int xCelda = xMinimo & ~3; celdas != null && xCelda <= xMaximo && !toret; xCelda += 4) {
+					for (int zCelda = zMinimo & ~3; zCelda <= zMaximo && !toret; zCelda += 4) {
+						int indiceCelda = getIndiceCelda(xCelda, yCelda, zCelda);
+						long mascara = celdas.get(indiceCelda);
+
+						// Recorrer solo los bloques de la celda que son fuentes de calor
+						while (mascara != 0 && !toret) {
+							int bitBloque = Long.numberOfTrailingZeros(mascara);
+							int xFuente = xCelda + (bitBloque & 3);
+							int yFuente = yCelda + (bitBloque >> 4);
+							int zFuente = zCelda + ((bitBloque >> 2) & 3);
+							int dx = xFuente - x;
+							int dy = yFuente - y;
+							int dz = zFuente - z;
+
+							mascara &= mascara - 1;
+
+							if (dx * dx + dy * dy + dz * dz <= RADIO_CALOR * RADIO_CALOR) {
+								BlockData datosBloque = mundo.getBlockAt(xFuente, yFuente, zFuente).getBlockData();
+
+								if (esFuenteCalor(datosBloque)) {
+									toret = !(datosBloque instanceof Lightable) || ((Lightable) datosBloque).isLit();
+								} else {
+									// Descartar las fuentes que hayan desaparecido sin generar eventos,
+									// como la lava que se solidifica o el fuego apagado por una explosión
+									long bit = 1L << bitBloque;
+									celdas.getAndUpdate(indiceCelda, mascaraActual -> mascaraActual & ~bit);
+								}
+							}
+						}
+					}
+				}
+			}
+
+			return toret;
+		}
+
+		/**
+		 * Obtiene el índice de la celda de su sección en la que está un bloque.
+		 *
+		 * @param x La coordenada X del bloque.
+		 * @param y La coordenada Y del bloque.
+		 * @param z La coordenada Z del bloque.
+		 * @return El devandicho índice.
+		 */
+		private static int getIndiceCelda(int x, int y, int z) {
+			return ((y & 15) >> 2) << 4 | ((z & 15) >> 2) << 2 | (x & 15) >> 2;
+		}
+
+		/**
+		 * Obtiene el bit que le corresponde a un bloque en la máscara de su celda.
+		 *
+		 * @param x La coordenada X del bloque.
+		 * @param y La coordenada Y del bloque.
+		 * @param z La coordenada Z del bloque.
+		 * @return Una máscara con solo el devandicho bit.
+		 */
+		private static long getBitBloque(int x, int y, int z) {
+			return 1L << ((y & 3) << 4 | (z & 3) << 2 | (x & 3));
+		}
+	}
+
+	/**
+	 * Ayuda a implementar el patrón singleton de inicialización retardada al uso de
+	 * la instancia, de forma segura entre hilos y eficiente.
+	 *
+	 * @author AlexTMjugador
+	 */
+	private static final class PoseedorInstanciaClase {
+		private static final IndiceFuentesCalor INSTANCIA = new IndiceFuentesCalor();
+	}
+}
\ No newline at end of file
@@ -17,16 +17,28 @@
  */
 package org.aylas.khron.tiemporeal.efectostermicos;
 
+import java.util.Map;
+
+import org.aylas.khron.libconfig.NotificableCambioConfiguracion;
+import org.aylas.khron.tiemporeal.EstadoJugador;
 import org.aylas.khron.tiemporeal.PluginTiempoReal;
+import org.aylas.khron.tiemporeal.RegistroJugadores;
 import org.aylas.khron.tiemporeal.SimuladorTiempo;
+import org.aylas.khron.tiemporeal.planificador.PlanificadorTiempoReal;
+import org.aylas.khron.tiemporeal.planificador.TareaPlanificada;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.PlayerInventory;
-import org.bukkit.scheduler.BukkitRunnable;
+
+import com.destroystokyo.paper.event.player.PlayerArmorChangeEvent;
 
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
@@ -45,9 +57,19 @@ import org.bukkit.block.Block;
  * Simula la ocurrencia de hipotermia para jugadores que estén en un entorno muy
  * frío, teniendo en cuenta la ropa que lleven y la temperatura ambiente.
  *
+ * <p>
+ * El aislamiento térmico de la armadura de cada jugador se guarda en su
+ * {@link EstadoJugador}, y solo se recalcula cuando cambia su armadura, así que
+ * la simulación periódica no necesita acceder a los inventarios. Además, los
+ * jugadores con mucho margen de temperatura hasta pasar frío se simulan con
+ * menos frecuencia que los que están cerca de congelarse.
+ * </p>
+ *
  * @author AlexTMjugador
  */
-public final class SimuladorHipotermia extends BukkitRunnable implements Listener {
+public final class SimuladorHipotermia
+	implements TareaPlanificada, Listener, NotificableCambioConfiguracion<Map<Material, Float>>
+{
 	/**
 	 * La frecuencia con la que se actualizará el estado de hipotermia de los
 	 * jugadores, en ticks.
@@ -68,12 +90,35 @@ public final class SimuladorHipotermia extends BukkitRunnable implements Listene
 	 * a sufrir efectos de la hipotermia.
 	 */
 	private static final String SONIDO_AVISO_CONGELACION = "khron.misc.freezing";
+	/**
+	 * Los grados Celsius de margen hasta empezar a congelarse que tiene que
+	 * tener un jugador para omitir cada pasada de la simulación. Cuanto más
+	 * lejos del frío esté un jugador, más tiempo tardará en llegar a él, así que
+	 * se le puede comprobar con menos frecuencia.
+	 */
+	private static final float MARGEN_POR_PASADA_OMITIDA = 4;
+	/**
+	 * El número máximo de pasadas de la simulación consecutivas que se pueden
+	 * omitir para un jugador, que acota el retraso con el que se aplican cambios
+	 * bruscos de temperatura, como los de entrar en un bioma frío.
+	 */
+	private static final int MAXIMO_PASADAS_OMITIDAS = 5;
 
 	/**
 	 * Restringe la instanciación de esta clase a otras clases.
 	 */
 	private SimuladorHipotermia() {}
 
+	/**
+	 * Obtiene la única instancia del simulador de hipotermia en la JVM, sin
+	 * inicializarlo.
+	 *
+	 * @return La devandicha instancia.
+	 */
+	public static SimuladorHipotermia get() {
+		return PoseedorInstanciaClase.INSTANCIA;
+	}
+
 	/**
 	 * Inicializa el simulador de hipotermia, aplicando efectos de congelación a
 	 * jugadores.
@@ -83,7 +128,13 @@ public final class SimuladorHipotermia extends BukkitRunnable implements Listene
 	public static SimuladorHipotermia inicializar() {
 		SimuladorHipotermia instancia = PoseedorInstanciaClase.INSTANCIA;
 
-		instancia.runTaskTimer(PluginTiempoReal.getPlugin(PluginTiempoReal.class), 0, FRECUENCIA_SIMULACION);
+		// Calcular el aislamiento de la armadura de los jugadores ya conectados
+		for (EstadoJugador estadoJugador : RegistroJugadores.get().getEstadosJugadores()) {
+			Player p = estadoJugador.getJugador();
+			PlanificadorTiempoReal.get().ejecutarEnJugador(p, () -> actualizarAislamientoArmadura(p));
+		}
+
+		PlanificadorTiempoReal.get().registrarTarea(instancia);
 
 		return instancia;
 	}
@@ -93,29 +144,38 @@ public final class SimuladorHipotermia extends BukkitRunnable implements Listene
 	 * congelación a jugadores.
 	 */
 	public static void detener() {
-		SimuladorHipotermia instancia = PoseedorInstanciaClase.INSTANCIA;
-		instancia.cancel();
+		PlanificadorTiempoReal.get().anularRegistroTarea(PoseedorInstanciaClase.INSTANCIA);
 
 		for (Player p : getServer().getOnlinePlayers()) {
-			p.lockFreezeTicks(false);
+			PlanificadorTiempoReal.get().ejecutarEnJugador(p, () -> p.lockFreezeTicks(false));
 		}
 	}
 
 	@Override
-	public void run() {
-		Location pos = new Location(null, 0, 0, 0);
+	public int getPeriodo() {
+		return FRECUENCIA_SIMULACION;
+	}
 
-		for (Player p : getServer().getOnlinePlayers()) {
-			p.getLocation(pos);
+	@Override
+	public boolean tieneParteJugador() {
+		return true;
+	}
 
-			Block bloque = pos.getBlock();
+	@Override
+	public boolean debeEjecutarJugador(EstadoJugador estadoJugador) {
+		return PlanificadorTiempoReal.get().getTickActual() >= estadoJugador.getTickProximaSimulacionHipotermia();
+	}
 
-			// No intervenir con la mecánica de congelación vanilla de bloques de nieve en
-			// polvo
-			if (bloque.getType().equals(Material.POWDER_SNOW)) {
-				continue;
-			}
+	@Override
+	public void ejecutarJugador(EstadoJugador estadoJugador) {
+		Player p = estadoJugador.getJugador();
+		Location pos = estadoJugador.getPosicion();
 
+		Block bloque = pos.getBlock();
+
+		// No intervenir con la mecánica de congelación vanilla de bloques de nieve en
+		// polvo
+		if (!bloque.getType().equals(Material.POWDER_SNOW)) {
 			p.lockFreezeTicks(true);
 
 			// Los jugadores muertos, en modo creativo o espectador no tienen frío
@@ -125,150 +185,224 @@ public final class SimuladorHipotermia extends BukkitRunnable implements Listene
 				p.isDead()
 			) {
 				p.setFreezeTicks(0);
-				continue;
-			}
-
-			boolean estaCercaDeFuenteDeCalor = bloque.getLightFromBlocks() > 11;
-			float deltaCongelacion;
-			if (estaCercaDeFuenteDeCalor) {
-				// Las fuentes de calor descongelan de forma constante
-				deltaCongelacion = -4;
 			} else {
-				// Congelar o descongelar al jugador dependiendo de la diferencia de temperaturas
-				float temperatura = SimuladorTiempo.get().getTemperatura(p);
-				float temperaturaMaxima = ajustarTemperaturaMaximaEnBaseAEquipamiento(p);
-				deltaCongelacion = temperaturaMaxima - temperatura;
+				simularCongelacion(estadoJugador, pos);
 			}
+		}
+	}
 
-			// Avisar al jugador si se está empezando a congelar
-			int ticksCongelacion = p.getFreezeTicks();
-			if (ticksCongelacion <= 0) {
-				if (deltaCongelacion >= 1 && deltaCongelacion < 4) {
-					p.sendMessage(
-						ChatColor.AQUA + "❄ Hace frío por aquí. Abrígate o busca una fuente de calor."
-					);
-					reproducirSonidoAvisoCongelacion(p, pos);
-				} else if (deltaCongelacion >= 4) {
-					p.sendMessage(Component
-						.text("❄ ¡Hace mucho frío por aquí! ¡Abrígate o busca una fuente de calor inmediatamente!")
-						.color(NamedTextColor.AQUA)
-						.decoration(TextDecoration.BOLD, true)
-					);
-					reproducirSonidoAvisoCongelacion(p, pos);
-				}
+	/**
+	 * Congela o descongela a un jugador al que le afecta el frío, según la
+	 * temperatura ambiente, las fuentes de calor cercanas y su equipamiento,
+	 * avisándole si empieza a congelarse.
+	 *
+	 * @param estadoJugador El estado del jugador.
+	 * @param pos           La posición actual del jugador.
+	 */
+	private static void simularCongelacion(EstadoJugador estadoJugador, Location pos) {
+		Player p = estadoJugador.getJugador();
+		boolean estaCercaDeFuenteDeCalor = IndiceFuentesCalor.get().hayFuenteCalorCerca(pos);
+		float deltaCongelacion;
+		if (estaCercaDeFuenteDeCalor) {
+			// Las fuentes de calor descongelan de forma constante
+			deltaCongelacion = -4;
+		} else {
+			// Congelar o descongelar al jugador dependiendo de la diferencia de temperaturas.
+			// Si el jugador está en una zona donde no puede pasar frío, basta con una cota
+			// inferior de la temperatura, que descongela algo más despacio que la exacta
+			SimuladorTiempo simuladorTiempo = SimuladorTiempo.get();
+			float temperaturaMaxima = TEMPERATURA_MAXIMA_BASE - estadoJugador.getAislamientoArmadura();
+			float temperatura = simuladorTiempo.getTemperaturaAcotada(
+				estadoJugador, simuladorTiempo.getInstantaneaMundo(p.getWorld()), temperaturaMaxima
+			);
+			deltaCongelacion = temperaturaMaxima - temperatura;
+		}
+
+		// Avisar al jugador si se está empezando a congelar
+		int ticksCongelacion = p.getFreezeTicks();
+		if (ticksCongelacion <= 0) {
+			if (deltaCongelacion >= 1 && deltaCongelacion < 4) {
+				p.sendMessage(
+					ChatColor.AQUA + "❄ Hace frío por aquí. Abrígate o busca una fuente de calor."
+				);
+				reproducirSonidoAvisoCongelacion(p, pos);
+			} else if (deltaCongelacion >= 4) {
+				p.sendMessage(Component
+					.text("❄ ¡Hace mucho frío por aquí! ¡Abrígate o busca una fuente de calor inmediatamente!")
+					.color(NamedTextColor.AQUA)
+					.decoration(TextDecoration.BOLD, true)
+				);
+				reproducirSonidoAvisoCongelacion(p, pos);
 			}
+		}
 
-			p.setFreezeTicks((int) (Math.min(Math.max(ticksCongelacion + deltaCongelacion, 0), 140)));
+		int nuevosTicksCongelacion = (int) (Math.min(Math.max(ticksCongelacion + deltaCongelacion, 0), 140));
+		p.setFreezeTicks(nuevosTicksCongelacion);
+
+		// Espaciar las simulaciones de los jugadores que están lejos de pasar frío,
+		// en proporción a su margen de temperatura. Los que se están descongelando o
+		// están cerca del umbral se siguen simulando en cada pasada
+		int pasadasOmitidas = 0;
+		if (nuevosTicksCongelacion == 0 && deltaCongelacion < 0) {
+			pasadasOmitidas = (int) Math.min(-deltaCongelacion / MARGEN_POR_PASADA_OMITIDA, MAXIMO_PASADAS_OMITIDAS);
+		}
+		estadoJugador.setTickProximaSimulacionHipotermia(
+			PlanificadorTiempoReal.get().getTickActual() + (long) pasadasOmitidas * FRECUENCIA_SIMULACION
+		);
+	}
+
+	@Override
+	public void onNewConfig(Map<Material, Float> antiguoValor, Map<Material, Float> nuevoValor) {
+		for (EstadoJugador estadoJugador : RegistroJugadores.get().getEstadosJugadores()) {
+			PlanificadorTiempoReal.get().ejecutarEnJugador(estadoJugador.getJugador(), () -> {
+				if (estadoJugador.isConectado()) {
+					actualizarAislamientoArmadura(estadoJugador, nuevoValor);
+				}
+			});
 		}
 	}
 
+	/**
+	 * Recalcula el aislamiento térmico de la armadura de un jugador cuando se
+	 * pone o quita una pieza, que es la única ocasión en la que puede cambiar.
+	 *
+	 * @param event El evento de cambio de armadura.
+	 */
+	@EventHandler(priority = EventPriority.MONITOR)
+	public final void onPlayerEvent(PlayerArmorChangeEvent event) {
+		actualizarAislamientoArmadura(event.getPlayer());
+	}
+
+	/**
+	 * Calcula el aislamiento térmico de la armadura de un jugador que se conecta.
+	 *
+	 * @param event El evento de conexión del jugador.
+	 */
+	@EventHandler(priority = EventPriority.MONITOR)
+	public final void onPlayerEvent(PlayerJoinEvent event) {
+		actualizarAislamientoArmadura(event.getPlayer());
+	}
+
+	/**
+	 * Recalcula el aislamiento térmico de la armadura de un jugador que
+	 * reaparece, y que puede haber perdido su armadura al morir.
+	 *
+	 * @param event El evento de reaparición del jugador.
+	 */
+	@EventHandler(priority = EventPriority.MONITOR)
+	public final void onPlayerEvent(PlayerRespawnEvent event) {
+		actualizarAislamientoArmadura(event.getPlayer());
+	}
+
 	@EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
 	public final void onPlayerEvent(PlayerMoveEvent event) {
 		// Asegurarse de que el bloque de nieve en polvo conserva mecánicas vanilla
 		if (event.hasChangedBlock() && event.getTo().getBlock().getType().equals(Material.POWDER_SNOW)) {
 			event.getPlayer().lockFreezeTicks(false);
+			simularEnProximaPasada(event.getPlayer());
 		}
 	}
 
 	/**
-	 * Calcula la temperatura máxima que un jugador puede soportar en base al
-	 * equipamiento que lleva.
+	 * Vuelve a simular la hipotermia de un jugador que se teletransporta en la
+	 * próxima pasada, pues puede haber llegado a un entorno mucho más frío.
 	 *
-	 * @param p El jugador del que obtener la temperatura máxima que soporta.
-	 * @return La temperatura máxima soportada por el jugador.
+	 * @param event El evento de teletransporte del jugador.
 	 */
-	private static float ajustarTemperaturaMaximaEnBaseAEquipamiento(Player p) {
-		float temperaturaMaximaBase = TEMPERATURA_MAXIMA_BASE;
-		PlayerInventory inventario = p.getInventory();
-		ItemStack item;
-
-		if ((item = inventario.getHelmet()) != null && item.getAmount() > 0) {
-			switch (item.getType()) {
-			case LEATHER_HELMET:
-				temperaturaMaximaBase -= 2;
-				break;
-			case TURTLE_HELMET:
-			case NETHERITE_HELMET:
-				temperaturaMaximaBase -= 1.5;
-				break;
-			case IRON_HELMET:
-			case GOLDEN_HELMET:
-			case DIAMOND_HELMET:
-				temperaturaMaximaBase -= 1;
-				break;
-			case CHAINMAIL_HELMET:
-				temperaturaMaximaBase -= 0.5;
-				break;
-			default:
-				break;
-			}
+	@EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+	public final void onPlayerEvent(PlayerTeleportEvent event) {
+		simularEnProximaPasada(event.getPlayer());
+	}
+
+	/**
+	 * Vuelve a simular la hipotermia de un jugador que cambia de mundo en la
+	 * próxima pasada, pues puede haber llegado a un entorno mucho más frío.
+	 *
+	 * @param event El evento de cambio de mundo del jugador.
+	 */
+	@EventHandler(priority = EventPriority.MONITOR)
+	public final void onPlayerEvent(PlayerChangedWorldEvent event) {
+		simularEnProximaPasada(event.getPlayer());
+	}
+
+	/**
+	 * Hace que la hipotermia de un jugador registrado se vuelva a simular en la
+	 * próxima pasada, aunque tuviera margen para omitir algunas.
+	 *
+	 * @param p El jugador.
+	 */
+	private static void simularEnProximaPasada(Player p) {
+		EstadoJugador estadoJugador = RegistroJugadores.get().getEstadoJugador(p);
+
+		if (estadoJugador != null) {
+			estadoJugador.setTickProximaSimulacionHipotermia(0);
 		}
+	}
 
-		if ((item = inventario.getChestplate()) != null && item.getAmount() > 0) {
-			switch (item.getType()) {
-			case LEATHER_CHESTPLATE:
-				temperaturaMaximaBase -= 8;
-				break;
-			case NETHERITE_CHESTPLATE:
-				temperaturaMaximaBase -= 6;
-				break;
-			case IRON_CHESTPLATE:
-			case GOLDEN_CHESTPLATE:
-			case DIAMOND_CHESTPLATE:
-				temperaturaMaximaBase -= 4;
-				break;
-			case ELYTRA:
-			case CHAINMAIL_CHESTPLATE:
-				temperaturaMaximaBase -= 2;
-				break;
-			default:
-				break;
-			}
+	/**
+	 * Recalcula el aislamiento térmico de la armadura que lleva puesta un jugador
+	 * registrado, usando el valor actual de su parámetro de configuración.
+	 *
+	 * @param p El jugador.
+	 */
+	private static void actualizarAislamientoArmadura(Player p) {
+		EstadoJugador estadoJugador = RegistroJugadores.get().getEstadoJugador(p);
+
+		if (estadoJugador != null) {
+			actualizarAislamientoArmadura(
+				estadoJugador, PluginTiempoReal.getPlugin(PluginTiempoReal.class).getAislamientoArmaduras()
+			);
 		}
+	}
 
-		if ((item = inventario.getLeggings()) != null && item.getAmount() > 0) {
-			switch (item.getType()) {
-			case LEATHER_LEGGINGS:
-				temperaturaMaximaBase -= 6;
-				break;
-			case NETHERITE_LEGGINGS:
-				temperaturaMaximaBase -= 4.5;
-				break;
-			case IRON_LEGGINGS:
-			case GOLDEN_LEGGINGS:
-			case DIAMOND_LEGGINGS:
-				temperaturaMaximaBase -= 3;
-				break;
-			case CHAINMAIL_LEGGINGS:
-				temperaturaMaximaBase -= 1.5;
-				break;
-			default:
-				break;
-			}
+	/**
+	 * Recalcula el aislamiento térmico de la armadura que lleva puesta un jugador,
+	 * guardándolo en su estado. Debe de llamarse desde el hilo dueño del jugador.
+	 *
+	 * @param estadoJugador El estado del jugador.
+	 * @param aislamientos  Los grados Celsius que abriga cada material de
+	 *                      armadura. Si es nulo, se considera que ninguno abriga.
+	 */
+	private static void actualizarAislamientoArmadura(EstadoJugador estadoJugador, Map<Material, Float> aislamientos) {
+		float aislamiento = 0;
+
+		if (aislamientos != null && !aislamientos.isEmpty()) {
+			PlayerInventory inventario = estadoJugador.getJugador().getInventory();
+
+			aislamiento += getAislamientoPieza(inventario.getHelmet(), aislamientos);
+			aislamiento += getAislamientoPieza(inventario.getChestplate(), aislamientos);
+			aislamiento += getAislamientoPieza(inventario.getLeggings(), aislamientos);
+			aislamiento += getAislamientoPieza(inventario.getBoots(), aislamientos);
+		}
+
+		// Quitarse la armadura puede hacer que el jugador empiece a pasar frío
+		if (aislamiento < estadoJugador.getAislamientoArmadura()) {
+			estadoJugador.setTickProximaSimulacionHipotermia(0);
 		}
 
-		if ((item = inventario.getBoots()) != null && item.getAmount() > 0) {
-			switch (item.getType()) {
-			case LEATHER_BOOTS:
-				temperaturaMaximaBase -= 4;
-				break;
-			case NETHERITE_BOOTS:
-				temperaturaMaximaBase -= 3;
-				break;
-			case IRON_BOOTS:
-			case GOLDEN_BOOTS:
-			case DIAMOND_BOOTS:
-				temperaturaMaximaBase -= 2;
-				break;
-			case CHAINMAIL_BOOTS:
-				temperaturaMaximaBase -= 1;
-				break;
-			default:
-				break;
+		estadoJugador.setAislamientoArmadura(aislamiento);
+	}
+
+	/**
+	 * Obtiene los grados Celsius que abriga una pieza de armadura.
+	 *
+	 * @param item         La pieza de armadura. Puede ser nula.
+	 * @param aislamientos Los grados Celsius que abriga cada material de
+	 *                     armadura.
+	 * @return Los devandichos grados Celsius, que son cero si la pieza no abriga.
+	 */
+	private static float getAislamientoPieza(ItemStack item, Map<Material, Float> aislamientos) {
+		float toret = 0;
+
+		if (item != null && item.getAmount() > 0) {
+			Float aislamiento = aislamientos.get(item.getType());
+
+			if (aislamiento != null) {
+				toret = aislamiento;
 			}
 		}
 
-		return temperaturaMaximaBase;
+		return toret;
 	}
 
 	/**
@@ -62,7 +62,8 @@ public interface Clima {
      *                 hacer lo pertinente con él, que recibe de parámetro el
      *                 tiempo atmosférico e información meteorológica
      *                 calculadas. La ejecución de este callback se realiza en
-     *                 el contexto del hilo principal del servidor. La ejecución
+     *                 el contexto del hilo de la región global, que en Paper es
+     *                 el hilo principal del servidor. La ejecución
      *                 se este callback no se garantiza en caso de que ocurran
      *                 errores.
      * @throws MeteorologiaDesconocidaException Si no se ha podido calcular el
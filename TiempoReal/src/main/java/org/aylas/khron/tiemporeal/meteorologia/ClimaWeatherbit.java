@@ -39,7 +39,9 @@ import org.slf4j.Logger;
 
 import org.aylas.khron.tiemporeal.PluginTiempoReal;
 
-import static org.bukkit.Bukkit.getScheduler;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+
+import static org.bukkit.Bukkit.getServer;
 
 /**
  * Obtiene información actual del clima en la Tierra usando la API de Weatherbit.
@@ -81,7 +83,7 @@ final class ClimaWeatherbit implements Clima {
      * Ejecuta el cálculo del tiempo atmosférico actual, enviando una solicitud HTTP
      * a la API de Weatherbit, de forma síncrona (ejecutando la petición en el hilo
      * actual y esperando a su resultado) o asíncrona (ejecutando un callback en el
-     * hilo principal cuando el resultado esté listo).
+     * hilo de la región global cuando el resultado esté listo).
      *
      * @param latitud   La latitud de la que se quiere calcular qué tiempo
      *                  atmosférico hace.
@@ -91,7 +93,8 @@ final class ClimaWeatherbit implements Clima {
      *                  hacer lo pertinente con él, que recibe de parámetro el
      *                  tiempo atmosférico y la información meteorológica
      *                  calculadas. La ejecución de este callback se realiza en el
-     *                  contexto del hilo principal del servidor. La ejecución se
+     *                  contexto del hilo de la región global, que en Paper es el
+     *                  hilo principal del servidor. La ejecución se
      *                  este callback no se garantiza en caso de que ocurran
      *                  errores. Este parámetro solo es relevante si el cálculo se
      *                  hace de manera asíncrona.
@@ -112,13 +115,13 @@ final class ClimaWeatherbit implements Clima {
 
         if (clave != null && clave.length() == 32) {
             if (asincrono) {
-                getScheduler().runTaskAsynchronously(plugin, () -> {
+                getServer().getAsyncScheduler().runNow(plugin, (ScheduledTask tarea) -> {
                     try {
                         Entry<TiempoAtmosferico, InformacionMeteorologica> tiempoAtmosferico = solicitarTiempoAWeatherbit(
                             clave, latitud, longitud
                         );
 
-                        getScheduler().runTask(plugin, () -> {
+                        getServer().getGlobalRegionScheduler().execute(plugin, () -> {
                             callback.accept(tiempoAtmosferico.getKey(), tiempoAtmosferico.getValue());
                         });
                     } catch (MeteorologiaDesconocidaException exc) {
@@ -0,0 +1,308 @@
+/*
+ * Plugins de Paper del Proyecto Khron
+ * Copyright (C) 2026 Comunidad Aylas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.aylas.khron.tiemporeal.planificador;
+
+import static org.bukkit.Bukkit.getServer;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.aylas.khron.tiemporeal.EstadoJugador;
+import org.aylas.khron.tiemporeal.PluginTiempoReal;
+import org.aylas.khron.tiemporeal.RegistroJugadores;
+import org.bukkit.entity.Player;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+
+/**
+ * Ejecuta todo el trabajo periódico del plugin desde una única tarea que se
+ * ejecuta en cada tick. Así, el trabajo de diferentes subsistemas no coincide en
+ * los mismos ticks por casualidad, el trabajo por jugador de cada
+ * {@link TareaPlanificada} se reparte entre todos los ticks de su periodo, y el
+ * tiempo dedicado a este último se limita al presupuesto configurado,
+ * posponiendo lo que no quepa a los ticks siguientes.
+ *
+ * <p>
+ * La tarea se ejecuta en el planificador de la región global, de forma que las
+ * partes globales de las tareas pueden modificar el estado de los mundos, como
+ * su hora o su clima, también en Folia. Allí, el trabajo con un jugador debe de
+ * hacerse en el hilo de la región en la que está, así que la parte por jugador
+ * de las tareas se ejecuta mediante {@link #ejecutarEnJugador(Player, Runnable)}.
+ * En Paper, todas las regiones comparten el hilo principal, y ese trabajo se
+ * sigue ejecutando en el mismo tick.
+ * </p>
+ *
+ * @author AlexTMjugador
+ */
+public final class PlanificadorTiempoReal {
+    /**
+     * El presupuesto de tiempo por tick a usar si aún no se ha leído la
+     * configuración del plugin, en nanosegundos.
+     */
+    private static final long PRESUPUESTO_PREDETERMINADO = 2_000_000;
+
+    /**
+     * Las tareas registradas, en el orden en el que se ejecutan sus partes
+     * globales en cada tick.
+     */
+    private final List<TareaPlanificada> tareas = new CopyOnWriteArrayList<>();
+
+    /**
+     * El trabajo por jugador pendiente de ejecutar, en orden de llegada. Como es
+     * un conjunto, un jugador cuyo trabajo se ha pospuesto tanto que le vuelve a
+     * tocar no acumula trabajo repetido.
+     */
+    private final Set<TrabajoJugador> trabajoPendiente = new LinkedHashSet<>();
+
+    /**
+     * La tarea que ejecuta el planificador, o nulo si no hay ninguna tarea
+     * registrada.
+     */
+    private ScheduledTask tareaPlanificador = null;
+
+    /**
+     * El número de ticks que se ha ejecutado el planificador.
+     */
+    private volatile long tickActual = 0;
+
+    /**
+     * Restringe la instanciación de esta clase a otras clases.
+     */
+    private PlanificadorTiempoReal() {}
+
+    /**
+     * Obtiene la única instancia del planificador en la JVM, creándola si no lo
+     * ha sido ya.
+     *
+     * @return La devandicha instancia.
+     */
+    public static PlanificadorTiempoReal get() {
+        return PoseedorInstanciaClase.INSTANCIA;
+    }
+
+    /**
+     * Registra una tarea para que el planificador la ejecute periódicamente,
+     * comenzando en el siguiente tick. Las partes globales de las tareas se
+     * ejecutan en el orden en el que se registraron. Se puede llamar a este
+     * método desde cualquier hilo, incluso durante la ejecución de otra tarea.
+     *
+     * @param tarea La tarea a registrar. Si ya estaba registrada, no se hace
+     *              nada.
+     * @throws IllegalArgumentException Si el periodo de la tarea no es un divisor
+     *                                  positivo de
+     *                                  {@link RegistroJugadores#CUBETAS}.
+     */
+    public synchronized void registrarTarea(TareaPlanificada tarea) {
+        int periodo = tarea.getPeriodo();
+
+        if (periodo <= 0 || RegistroJugadores.CUBETAS % periodo != 0) {
+            throw new IllegalArgumentException(
+                "El periodo de una tarea planificada debe de ser un divisor de " + RegistroJugadores.CUBETAS
+            );
+        }
+
+        if (!tareas.contains(tarea)) {
+            tareas.add(tarea);
+
+            if (tareaPlanificador == null) {
+                tareaPlanificador = getServer().getGlobalRegionScheduler().runAtFixedRate(
+                    PluginTiempoReal.getPlugin(PluginTiempoReal.class), new TareaPlanificador(), 1, 1
+                );
+            }
+        }
+    }
+
+    /**
+     * Anula el registro de una tarea, descartando su trabajo por jugador
+     * pendiente. Debe de llamarse desde el hilo de la región global, o durante la
+     * deshabilitación del plugin.
+     *
+     * @param tarea La tarea cuyo registro anular.
+     */
+    public synchronized void anularRegistroTarea(TareaPlanificada tarea) {
+        if (tareas.remove(tarea)) {
+            trabajoPendiente.removeIf((trabajo) -> trabajo.tarea() == tarea);
+
+            if (tareas.isEmpty() && tareaPlanificador != null) {
+                tareaPlanificador.cancel();
+                tareaPlanificador = null;
+            }
+        }
+    }
+
+    /**
+     * Detiene el planificador, anulando el registro de todas las tareas.
+     */
+    public void detener() {
+        for (TareaPlanificada tarea : tareas) {
+            anularRegistroTarea(tarea);
+        }
+    }
+
+    /**
+     * Obtiene el número de ticks que se ha ejecutado el planificador, que sirve
+     * como reloj para espaciar trabajo entre varios periodos de una tarea.
+     *
+     * @return El devandicho número de ticks.
+     */
+    public long getTickActual() {
+        return tickActual;
+    }
+
+    /**
+     * Obtiene el tiempo máximo que se puede dedicar a trabajo periódico en cada
+     * tick, según la configuración del plugin. Las tareas cuya parte global
+     * reparta su propio trabajo entre varios ticks también deben de respetarlo.
+     *
+     * @return El devandicho tiempo, en nanosegundos.
+     */
+    public long getPresupuestoTick() {
+        Double presupuestoMs = PluginTiempoReal.getPlugin(PluginTiempoReal.class).getPresupuestoTick();
+
+        return presupuestoMs != null ? (long) (presupuestoMs * 1_000_000) : PRESUPUESTO_PREDETERMINADO;
+    }
+
+    /**
+     * Ejecuta una acción que trabaja con un jugador en el hilo que es dueño de
+     * él. Si es el hilo actual, como ocurre siempre en Paper, o si el plugin se
+     * está deshabilitando, la acción se ejecuta inmediatamente. En otro caso, se
+     * programa en el planificador del jugador, y se descarta si deja de existir
+     * antes de ejecutarse.
+     *
+     * @param jugador El jugador con el que trabaja la acción.
+     * @param accion  La acción a ejecutar.
+     */
+    public void ejecutarEnJugador(Player jugador, Runnable accion) {
+        PluginTiempoReal plugin = PluginTiempoReal.getPlugin(PluginTiempoReal.class);
+
+        if (!plugin.isEnabled() || getServer().isOwnedByCurrentRegion(jugador)) {
+            accion.run();
+        } else {
+            jugador.getScheduler().execute(plugin, accion, null, 1);
+        }
+    }
+
+    /**
+     * Ejecuta una acción que trabaja con el estado de los mundos en el hilo de la
+     * región global. Si es el hilo actual, como ocurre siempre en Paper desde el
+     * hilo principal, o si el plugin se está deshabilitando, la acción se ejecuta
+     * inmediatamente. En otro caso, se programa en el planificador de la región
+     * global.
+     *
+     * @param accion La acción a ejecutar.
+     */
+    public void ejecutarEnRegionGlobal(Runnable accion) {
+        PluginTiempoReal plugin = PluginTiempoReal.getPlugin(PluginTiempoReal.class);
+
+        if (!plugin.isEnabled() || getServer().isGlobalTickThread()) {
+            accion.run();
+        } else {
+            getServer().getGlobalRegionScheduler().execute(plugin, accion);
+        }
+    }
+
+    /**
+     * La tarea que ejecuta, en cada tick, las partes globales de las tareas a
+     * las que les corresponde, y tanto trabajo por jugador pendiente como quepa
+     * en el presupuesto de tiempo por tick.
+     *
+     * @author AlexTMjugador
+     */
+    private final class TareaPlanificador implements Consumer<ScheduledTask> {
+        @Override
+        public void accept(ScheduledTask tareaPlanificada) {
+            long inicio = System.nanoTime();
+            RegistroJugadores registroJugadores = RegistroJugadores.get();
+            long presupuesto = getPresupuestoTick();
+
+            // Ejecutar las partes globales y encolar el trabajo por jugador que toca en
+            // este tick. Cada jugador está en la cubeta dada por su id de entidad, y a
+            // una tarea de periodo P le tocan en cada tick las cubetas congruentes con
+            // el tick módulo P, de forma que recorre todas en P ticks
+            for (TareaPlanificada tarea : tareas) {
+                int periodo = tarea.getPeriodo();
+                int fase = (int) (tickActual % periodo);
+
+                if (fase == 0) {
+                    tarea.ejecutar();
+                }
+
+                if (tarea.tieneParteJugador()) {
+                    for (int cubeta = fase; cubeta < RegistroJugadores.CUBETAS; cubeta += periodo) {
+                        for (EstadoJugador estadoJugador : registroJugadores.getCubeta(cubeta)) {
+                            if (tarea.debeEjecutarJugador(estadoJugador)) {
+                                trabajoPendiente.add(new TrabajoJugador(tarea, estadoJugador));
+                            }
+                        }
+                    }
+                }
+            }
+
+            // Ejecutar el trabajo por jugador hasta agotar el presupuesto. Siempre se
+            // ejecuta al menos un trabajo, para avanzar aunque las partes globales lo
+            // hayan agotado. En Folia, esto se limita a repartir el trabajo entre los
+            // hilos de las regiones de los jugadores
+            Iterator<TrabajoJugador> iter = trabajoPendiente.iterator();
+            boolean primero = true;
+            while (iter.hasNext() && (primero || System.nanoTime() - inicio < presupuesto)) {
+                TrabajoJugador trabajo = iter.next();
+                iter.remove();
+
+                if (trabajo.estadoJugador().isConectado()) {
+                    ejecutarEnJugador(trabajo.estadoJugador().getJugador(), trabajo);
+                    primero = false;
+                }
+            }
+
+            ++tickActual;
+        }
+    }
+
+    /**
+     * Identifica la ejecución de la parte por jugador de una tarea para un
+     * jugador.
+     *
+     * @param tarea         La tarea.
+     * @param estadoJugador El estado del jugador.
+     * @author AlexTMjugador
+     */
+    private record TrabajoJugador(TareaPlanificada tarea, EstadoJugador estadoJugador) implements Runnable {
+        @Override
+        public void run() {
+            // El jugador puede haberse desconectado mientras se esperaba al hilo de
+            // su región
+            if (estadoJugador.isConectado()) {
+                tarea.ejecutarJugador(estadoJugador);
+            }
+        }
+    }
+
+    /**
+     * Ayuda a implementar el patrón singleton de inicialización retardada al uso de
+     * la instancia, de forma segura entre hilos y eficiente.
+     *
+     * @author AlexTMjugador
+     */
+    private static final class PoseedorInstanciaClase {
+        private static final PlanificadorTiempoReal INSTANCIA = new PlanificadorTiempoReal();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,94 @@
+/*
+ * Plugins de Paper del Proyecto Khron
+ * Copyright (C) 2026 Comunidad Aylas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.aylas.khron.tiemporeal.planificador;
+
+import org.aylas.khron.tiemporeal.EstadoJugador;
+
+/**
+ * Representa un trabajo periódico del plugin, ejecutado por el
+ * {@link PlanificadorTiempoReal}. Una tarea puede tener una parte global, que
+ * se ejecuta de una vez cada {@link #getPeriodo()} ticks, y una parte por
+ * jugador, que el planificador reparte entre los ticks de cada periodo según el
+ * id de entidad de los jugadores y limita al presupuesto de tiempo por tick
+ * configurado.
+ *
+ * @author AlexTMjugador
+ */
+public interface TareaPlanificada {
+    /**
+     * Obtiene el número de ticks entre dos ejecuciones consecutivas de la tarea,
+     * o de su parte por jugador para un mismo jugador. Debe de ser un divisor de
+     * {@link org.aylas.khron.tiemporeal.RegistroJugadores#CUBETAS}, y no cambiar
+     * mientras la tarea esté registrada.
+     *
+     * @return El devandicho número de ticks.
+     */
+    int getPeriodo();
+
+    /**
+     * Ejecuta la parte global de la tarea. Se invoca una vez cada
+     * {@link #getPeriodo()} ticks, antes de la parte por jugador de ese tick, y
+     * no está sujeta al presupuesto de tiempo por tick, así que debe de ser
+     * ligera. Se ejecuta en el hilo de la región global, así que, en Folia, no
+     * debe de trabajar directamente con jugadores, sino mediante
+     * {@link PlanificadorTiempoReal#ejecutarEnJugador(org.bukkit.entity.Player, Runnable)}.
+     * Por defecto, este método no hace nada.
+     */
+    default void ejecutar() {}
+
+    /**
+     * Comprueba si la tarea tiene una parte por jugador, de forma que el
+     * planificador no tenga que considerar a los jugadores si no la tiene. Por
+     * defecto, este método devuelve falso.
+     *
+     * @return Verdadero si la tarea tiene una parte por jugador, falso en otro
+     *         caso.
+     */
+    default boolean tieneParteJugador() {
+        return false;
+    }
+
+    /**
+     * Comprueba si toca ejecutar la parte por jugador de la tarea para un
+     * jugador en este periodo, de forma que las tareas puedan espaciar el trabajo
+     * con jugadores que no lo necesitan tan a menudo sin que llegue a encolarse.
+     * Se invoca en el hilo de la región global, así que solo debe de consultar
+     * estado que admita accesos concurrentes. Por defecto, este método devuelve
+     * verdadero.
+     *
+     * @param estadoJugador El estado del jugador. No es nulo.
+     * @return Verdadero si se debe de ejecutar la parte por jugador, falso en
+     *         otro caso.
+     */
+    default boolean debeEjecutarJugador(EstadoJugador estadoJugador) {
+        return true;
+    }
+
+    /**
+     * Ejecuta la parte por jugador de la tarea para un jugador conectado. Se
+     * invoca aproximadamente una vez cada {@link #getPeriodo()} ticks para cada
+     * jugador, aunque puede retrasarse algunos ticks si se agota el presupuesto
+     * de tiempo por tick. Se ejecuta en el hilo dueño del jugador, que en Folia
+     * puede ser diferente para cada jugador, así que el estado compartido entre
+     * jugadores debe de admitir accesos concurrentes. Por defecto, este método
+     * no hace nada.
+     *
+     * @param estadoJugador El estado del jugador. No es nulo.
+     */
+    default void ejecutarJugador(EstadoJugador estadoJugador) {}
+}
\ No newline at end of file
@@ -0,0 +1,84 @@
+/*
+ * Plugins de Paper del Proyecto Khron
+ * Copyright (C) 2026 Comunidad Aylas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.aylas.khron.tiemporeal.relojes;
+
+import java.util.List;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+import io.papermc.paper.datacomponent.DataComponentTypes;
+import io.papermc.paper.datacomponent.item.CustomModelData;
+
+/**
+ * Reconoce los stacks de ítems que representan un determinado tipo de reloj,
+ * sin clonar sus metadatos. Para ello, se consultan directamente los
+ * componentes de datos del stack mediante los accesores de Paper, en vez de
+ * obtener una copia de su {@link org.bukkit.inventory.meta.ItemMeta}.
+ *
+ * @author AlexTMjugador
+ */
+final class ClasificadorItemsReloj {
+    /**
+     * El material que deben de tener los stacks de ítems del reloj.
+     */
+    private final Material material;
+
+    /**
+     * El identificador del modelo personalizado del reloj.
+     */
+    private final int idModelo;
+
+    /**
+     * Crea un nuevo clasificador de stacks de ítems de reloj.
+     *
+     * @param material El material que deben de tener los stacks de ítems del
+     *                 reloj.
+     * @param idModelo El identificador del modelo personalizado del reloj.
+     */
+    ClasificadorItemsReloj(Material material, int idModelo) {
+        this.material = material;
+        this.idModelo = idModelo;
+    }
+
+    /**
+     * Comprueba si un stack de ítems representa el reloj de este clasificador.
+     * Un stack representa el reloj si tiene su material y su primer dato de
+     * modelo personalizado numérico coincide con el identificador de modelo del
+     * reloj.
+     *
+     * @param stack El stack de ítems a comprobar. No es nulo.
+     * @return Verdadero si el stack representa el reloj, falso en otro caso.
+     */
+    boolean esReloj(ItemStack stack) {
+        boolean toret = false;
+
+        // La comprobación del material es la más barata, y descarta la práctica
+        // totalidad de stacks
+        if (stack.getType() == material) {
+            CustomModelData datosModelo = stack.getData(DataComponentTypes.CUSTOM_MODEL_DATA);
+
+            if (datosModelo != null) {
+                List<Float> numerosModelo = datosModelo.floats();
+                toret = !numerosModelo.isEmpty() && numerosModelo.get(0) == idModelo;
+            }
+        }
+
+        return toret;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,312 @@
+/*
+ * Plugins de Paper del Proyecto Khron
+ * Copyright (C) 2026 Comunidad Aylas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.aylas.khron.tiemporeal.relojes;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+import org.aylas.khron.tiemporeal.EstadoJugador;
+import org.aylas.khron.tiemporeal.RegistroJugadores;
+import org.aylas.khron.tiemporeal.planificador.PlanificadorTiempoReal;
+import org.aylas.khron.tiemporeal.planificador.TareaPlanificada;
+import org.bukkit.Location;
+import org.bukkit.SoundCategory;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+/**
+ * Hace que los jugadores cercanos a un reloj que emite un aviso sonoro al
+ * cambiar de hora lo escuchen. Como todos los relojes de un mundo cambian de
+ * hora a la vez, en vez de buscar los jugadores cercanos a cada reloj, se
+ * agrupan los relojes que suenan en una rejilla espacial, y cada jugador del
+ * mundo escucha un único sonido, procedente del reloj más cercano. Como los
+ * relojes de los jugadores se actualizan repartidos en cubetas a lo largo de
+ * un segundo, se espera a que suenen todos antes de crear la rejilla, y luego
+ * el trabajo de difusión se reparte entre varios ticks.
+ *
+ * <p>
+ * Los relojes pueden empezar a sonar en los hilos de diferentes regiones en
+ * Folia, así que su registro se sincroniza sobre el difusor. La rejilla no se
+ * modifica una vez creada, así que se puede consultar desde cualquier hilo.
+ * </p>
+ *
+ * @author AlexTMjugador
+ */
+final class DifusorAvisosHora {
+    /**
+     * El número máximo de jugadores para los que se comprobará si escuchan algún
+     * aviso en cada tick.
+     */
+    private static final int OYENTES_POR_TICK = 32;
+
+    /**
+     * Los ticks durante los que se recogen los relojes que empiezan a sonar
+     * antes de difundir sus avisos. Abarca todas las cubetas de jugadores, más
+     * un tick para las actualizaciones que se programan en el hilo dueño de cada
+     * jugador, de forma que todos los relojes que cambian a la misma hora suenen
+     * en una única difusión.
+     */
+    private static final int TICKS_RECOLECCION = RegistroJugadores.CUBETAS + 1;
+
+    /**
+     * El sonido del aviso.
+     */
+    private final String sonido;
+
+    /**
+     * La distancia máxima en cada eje, en bloques, a la que se escucha un aviso.
+     * También es el lado de las celdas de la rejilla espacial.
+     */
+    private final int radio;
+
+    /**
+     * Los relojes que han empezado a sonar desde que se creó la rejilla de la
+     * difusión en curso, o desde siempre si no hay ninguna en curso.
+     */
+    private List<FuenteAviso> fuentesPendientes = new ArrayList<>();
+
+    /**
+     * Indica si hay una tarea de difusión de avisos en curso.
+     */
+    private boolean difundiendo = false;
+
+    /**
+     * Crea un nuevo difusor de avisos sonoros.
+     *
+     * @param sonido El sonido del aviso.
+     * @param radio  La distancia máxima en cada eje, en bloques, a la que se
+     *               escucha un aviso.
+     */
+    DifusorAvisosHora(String sonido, int radio) {
+        this.sonido = sonido;
+        this.radio = radio;
+    }
+
+    /**
+     * Registra que el reloj de un jugador ha empezado a sonar, para que los
+     * jugadores cercanos lo escuchen en los próximos ticks. El propio jugador no
+     * lo escucha a través del difusor, pues se asume que ya ha escuchado su
+     * reloj, pero sí puede escuchar los de otros jugadores.
+     *
+     * @param propietario El jugador cuyo reloj ha sonado.
+     * @param posicion    La posición del reloj. Se copia, así que se puede
+     *                    reutilizar después.
+     */
+    synchronized void anadirFuente(Player propietario, Location posicion) {
+        fuentesPendientes.add(new FuenteAviso(propietario, posicion.clone()));
+
+        if (!difundiendo) {
+            difundiendo = true;
+            PlanificadorTiempoReal.get().registrarTarea(new TareaDifusion());
+        }
+    }
+
+    /**
+     * Calcula la clave de la celda de la rejilla espacial en la que está una
+     * posición.
+     *
+     * @param x La coordenada X de la posición.
+     * @param z La coordenada Z de la posición.
+     * @return La devandicha clave.
+     */
+    private long claveCelda(double x, double z) {
+        return claveCelda((int) Math.floor(x / radio), (int) Math.floor(z / radio));
+    }
+
+    /**
+     * Calcula la clave de una celda de la rejilla espacial a partir de sus
+     * coordenadas.
+     *
+     * @param celdaX La coordenada X de la celda.
+     * @param celdaZ La coordenada Z de la celda.
+     * @return La devandicha clave.
+     */
+    private static long claveCelda(int celdaX, int celdaZ) {
+        return ((long) celdaX << 32) | (celdaZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Tarea que recoge durante {@link #TICKS_RECOLECCION} ticks los relojes que
+     * empiezan a sonar, y después difunde sus avisos, procesando unos pocos
+     * oyentes en cada tick.
+     *
+     * @author AlexTMjugador
+     */
+    private final class TareaDifusion implements TareaPlanificada {
+        /**
+         * Los relojes que suenan, agrupados por mundo y celda de la rejilla espacial.
+         */
+        private final Map<World, Map<Long, List<FuenteAviso>>> rejilla = new HashMap<>();
+
+        /**
+         * Los jugadores para los que queda por comprobar si escuchan algún aviso.
+         */
+        private final Queue<Player> oyentes = new ArrayDeque<>();
+
+        /**
+         * Los ticks que han transcurrido recogiendo relojes que empiezan a sonar.
+         */
+        private int ticksRecoleccion = 0;
+
+        /**
+         * Crea la rejilla espacial a partir de los relojes pendientes, y determina
+         * qué jugadores podrían escucharlos.
+         */
+        private void crearRejilla() {
+            List<FuenteAviso> fuentes;
+
+            synchronized (DifusorAvisosHora.this) {
+                fuentes = fuentesPendientes;
+                fuentesPendientes = new ArrayList<>();
+            }
+
+            for (FuenteAviso fuente : fuentes) {
+                Location posicion = fuente.posicion();
+
+                rejilla.computeIfAbsent(posicion.getWorld(), mundo -> new HashMap<>())
+                    .computeIfAbsent(claveCelda(posicion.getX(), posicion.getZ()), clave -> new ArrayList<>(1))
+                    .add(fuente);
+            }
+
+            for (World mundo : rejilla.keySet()) {
+                oyentes.addAll(mundo.getPlayers());
+            }
+        }
+
+        @Override
+        public int getPeriodo() {
+            return 1;
+        }
+
+        @Override
+        public void ejecutar() {
+            // Esperar a que suenen los relojes del resto de cubetas antes de
+            // difundir nada
+            if (ticksRecoleccion < TICKS_RECOLECCION) {
+                if (++ticksRecoleccion == TICKS_RECOLECCION) {
+                    crearRejilla();
+                }
+            } else {
+                difundirAvisos();
+            }
+        }
+
+        /**
+         * Hace que unos pocos oyentes escuchen el reloj más cercano, y termina la
+         * difusión cuando no quedan más.
+         */
+        private void difundirAvisos() {
+            PlanificadorTiempoReal planificador = PlanificadorTiempoReal.get();
+            RegistroJugadores registroJugadores = RegistroJugadores.get();
+
+            for (int i = 0; i < OYENTES_POR_TICK && !oyentes.isEmpty(); ++i) {
+                Player oyente = oyentes.poll();
+                EstadoJugador estadoOyente = registroJugadores.getEstadoJugador(oyente);
+
+                if (estadoOyente != null) {
+                    planificador.ejecutarEnJugador(oyente, () -> {
+                        FuenteAviso fuente = fuenteMasCercana(oyente, estadoOyente.getPosicion());
+
+                        // Queremos que otros jugadores escuchen el reloj, pero en una
+                        // categoría de sonido diferente
+                        if (fuente != null) {
+                            oyente.playSound(fuente.posicion(), sonido, SoundCategory.PLAYERS, 1, 1);
+                        }
+                    });
+                }
+            }
+
+            if (oyentes.isEmpty()) {
+                synchronized (DifusorAvisosHora.this) {
+                    planificador.anularRegistroTarea(this);
+
+                    // Difundir los avisos de los relojes que hayan empezado a sonar
+                    // mientras tanto
+                    if (fuentesPendientes.isEmpty()) {
+                        difundiendo = false;
+                    } else {
+                        planificador.registrarTarea(new TareaDifusion());
+                    }
+                }
+            }
+        }
+
+        /**
+         * Busca el reloj que suena más cercano a un oyente, dentro del radio de
+         * audición. El reloj del propio oyente no se tiene en cuenta, pues ya lo
+         * ha escuchado.
+         *
+         * @param oyente         El oyente.
+         * @param posicionOyente La posición del oyente.
+         * @return El reloj más cercano, o nulo si el oyente no escucha ninguno.
+         */
+        private FuenteAviso fuenteMasCercana(Player oyente, Location posicionOyente) {
+            FuenteAviso toret = null;
+
+            Map<Long, List<FuenteAviso>> celdasMundo = rejilla.get(posicionOyente.getWorld());
+            if (celdasMundo != null) {
+                int celdaX = (int) Math.floor(posicionOyente.getX() / radio);
+                int celdaZ = (int) Math.floor(posicionOyente.getZ() / radio);
+                double menorDistancia = Double.POSITIVE_INFINITY;
+
+                // Las celdas tienen el lado del radio de audición, así que basta con
+                // mirar la celda del oyente y sus vecinas
+                for (int dx = -1; dx <= 1; ++dx) {
+                    for (int dz = -1; dz <= 1; ++dz) {
+                        List<FuenteAviso> fuentesCelda = celdasMundo.get(claveCelda(celdaX + dx, celdaZ + dz));
+
+                        if (fuentesCelda != null) {
+                            for (FuenteAviso fuente : fuentesCelda) {
+                                Location posicion = fuente.posicion();
+
+                                if (
+                                    !fuente.propietario().equals(oyente) &&
+                                    Math.abs(posicion.getX() - posicionOyente.getX()) <= radio &&
+                                    Math.abs(posicion.getY() - posicionOyente.getY()) <= radio &&
+                                    Math.abs(posicion.getZ() - posicionOyente.getZ()) <= radio
+                                ) {
+                                    double distancia = posicion.distanceSquared(posicionOyente);
+
+                                    if (distancia < menorDistancia) {
+                                        menorDistancia = distancia;
+                                        toret = fuente;
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+
+            return toret;
+        }
+    }
+
+    /**
+     * Un reloj que ha emitido un aviso sonoro.
+     *
+     * @param propietario El jugador que tiene el reloj.
+     * @param posicion    La posición desde la que suena el reloj.
+     * @author AlexTMjugador
+     */
+    private record FuenteAviso(Player propietario, Location posicion) {}
+}
\ No newline at end of file
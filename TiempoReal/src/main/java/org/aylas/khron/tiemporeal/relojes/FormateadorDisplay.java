@@ -0,0 +1,140 @@
+/*
+ * Plugins de Paper del Proyecto Khron
+ * Copyright (C) 2026 Comunidad Aylas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.aylas.khron.tiemporeal.relojes;
+
+import java.time.DayOfWeek;
+import java.time.format.TextStyle;
+import java.util.Locale;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.TextDecoration;
+
+/**
+ * Contiene tablas precalculadas y métodos para formatear los displays de los
+ * relojes sin recurrir a {@link String#format(String, Object...)}, cuyo
+ * análisis de la cadena de formato es demasiado costoso para ejecutarse varias
+ * veces por segundo y jugador.
+ *
+ * @author AlexTMjugador
+ */
+final class FormateadorDisplay {
+    /**
+     * Localización de Java que representa el idioma español.
+     */
+    private static final Locale LOCALIZACION_ESP = Locale.forLanguageTag("es");
+
+    /**
+     * Las representaciones textuales con dos cifras de los números del 0 al 99.
+     */
+    private static final String[] DIGITOS = new String[100];
+
+    /**
+     * Componentes de texto con las representaciones de dos cifras de los números
+     * del 0 al 59, que son los que puede tomar cualquier campo de un display de
+     * hora.
+     */
+    private static final Component[] COMPONENTES_DIGITOS = new Component[60];
+
+    /**
+     * Igual que {@link #COMPONENTES_DIGITOS}, pero con el texto ofuscado.
+     */
+    private static final Component[] COMPONENTES_DIGITOS_OFUSCADOS = new Component[60];
+
+    /**
+     * Los nombres abreviados de los días de la semana en español, indexados por
+     * el ordinal del día de la semana.
+     */
+    private static final String[] NOMBRES_DIA_SEMANA = new String[DayOfWeek.values().length];
+
+    static {
+        for (int i = 0; i < DIGITOS.length; ++i) {
+            DIGITOS[i] = new String(new char[] { (char) ('0' + i / 10), (char) ('0' + i % 10) });
+        }
+
+        for (int i = 0; i < COMPONENTES_DIGITOS.length; ++i) {
+            COMPONENTES_DIGITOS[i] = Component.text(DIGITOS[i]);
+            COMPONENTES_DIGITOS_OFUSCADOS[i] = Component.text(DIGITOS[i]).decoration(TextDecoration.OBFUSCATED, true);
+        }
+
+        for (DayOfWeek dia : DayOfWeek.values()) {
+            NOMBRES_DIA_SEMANA[dia.ordinal()] = dia.getDisplayName(TextStyle.NARROW, LOCALIZACION_ESP);
+        }
+    }
+
+    /**
+     * Restringe la instanciación de esta clase.
+     */
+    private FormateadorDisplay() {}
+
+    /**
+     * Obtiene el componente de texto compartido que representa un número del 0
+     * al 59 con dos cifras.
+     *
+     * @param numero   El número a representar, en el intervalo [0, 59].
+     * @param ofuscado Verdadero si el texto del componente debe de mostrarse
+     *                 ofuscado.
+     * @return El devandicho componente.
+     */
+    static Component getComponenteDigitos(int numero, boolean ofuscado) {
+        return ofuscado ? COMPONENTES_DIGITOS_OFUSCADOS[numero] : COMPONENTES_DIGITOS[numero];
+    }
+
+    /**
+     * Añade una fecha, en el formato "día de la semana, dd/mm/aa", al final del
+     * constructor de cadenas de texto especificado.
+     *
+     * @param sb         El constructor de cadenas de texto.
+     * @param diaSemana  El día de la semana.
+     * @param diaMes     El día del mes, en el intervalo [1, 31].
+     * @param mes        El mes, en el intervalo [1, 12].
+     * @param anio       El año. Solo se mostrarán sus dos últimas cifras.
+     */
+    static void anadirFecha(StringBuilder sb, DayOfWeek diaSemana, int diaMes, int mes, int anio) {
+        sb.append(NOMBRES_DIA_SEMANA[diaSemana.ordinal()]);
+        sb.append(", ");
+        sb.append(DIGITOS[diaMes]);
+        sb.append('/');
+        sb.append(DIGITOS[mes]);
+        sb.append('/');
+        sb.append(DIGITOS[Math.floorMod(anio, 100)]);
+    }
+
+    /**
+     * Añade una temperatura expresada en décimas de grado Celsius, con una cifra
+     * decimal y su unidad, al final del constructor de cadenas de texto
+     * especificado.
+     *
+     * @param sb                 El constructor de cadenas de texto.
+     * @param decimasTemperatura La temperatura, en décimas de grado Celsius.
+     */
+    static void anadirTemperatura(StringBuilder sb, int decimasTemperatura) {
+        // Trabajar con un long para que el valor absoluto de Integer.MIN_VALUE
+        // sea representable
+        long decimas = decimasTemperatura;
+
+        if (decimas < 0) {
+            sb.append('-');
+            decimas = -decimas;
+        }
+
+        sb.append(decimas / 10);
+        sb.append('.');
+        sb.append((char) ('0' + decimas % 10));
+        sb.append("ºC");
+    }
+}
\ No newline at end of file
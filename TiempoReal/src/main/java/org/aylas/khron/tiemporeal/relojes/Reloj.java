@@ -17,168 +17,223 @@
  */
 package org.aylas.khron.tiemporeal.relojes;
 
-import static org.bukkit.Bukkit.getServer;
-
-import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
-import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.aylas.khron.tiemporeal.PluginTiempoReal;
+import org.aylas.khron.tiemporeal.barraacciones.CompositorBarraAcciones;
+import org.aylas.khron.tiemporeal.barraacciones.FuenteBarraAcciones;
 import org.bukkit.World;
-import org.bukkit.World.Environment;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerKickEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.player.PlayerRespawnEvent;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
 
+import org.aylas.khron.tiemporeal.EstadoJugador;
+import org.aylas.khron.tiemporeal.InstantaneaMundo;
+import org.aylas.khron.tiemporeal.RegistroJugadores;
 import org.aylas.khron.tiemporeal.SimuladorTiempo;
-import org.aylas.khron.tiemporeal.configuraciones.TextoReloj;
-import net.md_5.bungee.api.chat.BaseComponent;
-import net.md_5.bungee.api.chat.TextComponent;
+import org.aylas.khron.tiemporeal.TiempoCivil;
+import org.aylas.khron.tiemporeal.configuraciones.PlantillaTextoReloj;
+import org.aylas.khron.tiemporeal.planificador.PlanificadorTiempoReal;
+import org.aylas.khron.tiemporeal.planificador.TareaPlanificada;
+
+import net.kyori.adventure.text.Component;
 
 /**
- * Modela un reloj, que muestra información de tiempo a quienes lo observan.
+ * Modela un reloj, que muestra información de tiempo a quienes lo observan. La
+ * información que un reloj asocia a cada jugador se guarda en su
+ * {@link EstadoJugador}, en la posición correspondiente al índice del reloj.
+ *
+ * <p>
+ * Los métodos que reciben el estado de un jugador se ejecutan en el hilo dueño
+ * del jugador, que en Folia es el de la región en la que está. Por ello, las
+ * colecciones compartidas entre jugadores admiten accesos concurrentes.
+ * </p>
  *
- * @param <T> El tipo de dato del estado del reloj que se puede asociar a un
- *            jugador. Puede ser {@link Void} si no se desea asociar estado.
  * @author AlexTMjugador
  */
-public abstract class Reloj<T> implements Listener {
+public abstract class Reloj implements Listener, FuenteBarraAcciones {
     /**
-     * El número de ticks que han de pasar entre ejecuciones consecutivas de la
-     * tarea que se encarga de mostrar el display de tiempo a los jugadores
-     * interesados y ejecutar el método de actualización periódica de los relojes.
-     * Este valor es el mayor que permite mostrar un display de hora actualizado,
-     * aunque no se sincronice la hora en el mundo en el que está el jugador,
-     * teniendo en cuenta que 1 minuto en Minecraft = 16,6 ticks = 0,83 s, y es lo
-     * suficientemente frecuente como para que el método de actualización periódica
-     * pueda reaccionar relativamente rápido a lo que desee.
+     * El número máximo de ticks que han de pasar entre pasadas completas
+     * consecutivas para un mismo jugador de la tarea que se encarga de mostrarle
+     * el display de tiempo y ejecutar el método de actualización periódica de los
+     * relojes. Además, se realiza una pasada en cuanto cambia el segundo de tiempo
+     * real, para que los displays no se retrasen respecto a él. Este valor es el
+     * mayor que permite mostrar un display de hora actualizado, aunque no se
+     * sincronice la hora en el mundo en el que está el jugador, teniendo en cuenta
+     * que 1 minuto en Minecraft = 16,6 ticks = 0,83 s, y es lo suficientemente
+     * frecuente como para que el método de actualización periódica pueda
+     * reaccionar relativamente rápido a lo que desee.
      */
     private static final short TICKS_TAREA_RELOJ = 8;
 
+    /**
+     * El número de ticks entre ejecuciones consecutivas de la tarea de relojes
+     * para un mismo jugador, que determina el retraso máximo con el que se
+     * atienden las solicitudes de actualización y los cambios de segundo. Debe de
+     * ser un divisor de {@link RegistroJugadores#CUBETAS}.
+     */
+    private static final int PERIODO_TAREA_RELOJ = 2;
+
+    /**
+     * El número de ticks en los que se reparte una ronda de reconciliaciones
+     * periódicas de todos los jugadores conectados, en la que se vuelve a
+     * comprobar si les corresponde ver el display de cada reloj. Esta comprobación
+     * periódica, realizada por turnos, complementa a los eventos para detectar los
+     * cambios que no notifican, como los provocados por comandos u otros plugins.
+     * El número de jugadores reconciliados en cada ejecución de la tarea de
+     * relojes se ajusta al de jugadores conectados, de forma que cada ronda dure
+     * lo mismo independientemente de cuántos haya.
+     */
+    private static final int TICKS_RONDA_RECONCILIACION = 100;
+
     /**
      * Alberga las diferentes instancias concretas de relojes creadas.
      */
-    private static final Set<Reloj<?>> RELOJES_CREADOS = new LinkedHashSet<>((int) (2 / 0.75));
+    private static final Set<Reloj> RELOJES_CREADOS = new LinkedHashSet<>((int) (2 / 0.75));
 
     /**
-     * Los componentes de texto del texto de reloj.
+     * El número de relojes instanciados, usado para asignarle a cada uno un índice
+     * diferente.
      */
-    private static BaseComponent[] componentesTextoReloj = null;
+    private static int relojesInstanciados = 0;
+
     /**
-     * Los componentes de texto del texto de reloj para dimensiones sin ciclo
-     * día-noche.
+     * La plantilla del texto de reloj.
      */
-    private static BaseComponent[] componentesTextoRelojDimensionSinCiclo = null;
+    private static volatile PlantillaTextoReloj plantillaTextoReloj = null;
     /**
-     * El índice del componente de texto donde colocar el display del reloj.
+     * La plantilla del texto de reloj para dimensiones sin ciclo día-noche.
      */
-    private static int indiceComponenteTextoDisplay = Integer.MIN_VALUE;
+    private static volatile PlantillaTextoReloj plantillaTextoRelojDimensionSinCiclo = null;
+
     /**
-     * El índice del componente de texto donde colocar el display del reloj para
-     * dimensiones sin ciclo día-noche.
+     * Los jugadores conectados a los que falta por volver a comprobar si les
+     * corresponde ver el display de los relojes en la ronda de comprobaciones
+     * actual. Cuando se vacía, se vuelve a llenar con todos los jugadores
+     * conectados.
      */
-    private static int indiceComponenteTextoDisplayDimensionSinCiclo = Integer.MIN_VALUE;
+    private static final Queue<EstadoJugador> COLA_RECONCILIACION_JUGADORES = new ArrayDeque<>();
 
     /**
-     * Relaciona cada jugador con su estado del display de este reloj, y si se
-     * encuentran viendo el display o no.
+     * Los jugadores para los que se ha solicitado comprobar si les corresponde
+     * ver el display de los relojes. Se procesan en la siguiente ejecución de la
+     * tarea de relojes para cada jugador, de forma que varias solicitudes para un
+     * mismo jugador solo supongan una comprobación.
      */
-    private final Map<Player, InformacionDisplay<T>> jugadoresEstadoDisplay = new LinkedHashMap<>(
-        (int) (Math.max(getServer().getMaxPlayers() / 4, 8) / 0.75)
-    );
+    private static final Set<Player> JUGADORES_PENDIENTES_ACTUALIZACION = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Como {@link #JUGADORES_PENDIENTES_ACTUALIZACION}, pero para los jugadores
+     * cuya información se ha solicitado reconciliar.
+     */
+    private static final Set<Player> JUGADORES_PENDIENTES_RECONCILIACION = ConcurrentHashMap.newKeySet();
+
+    /**
+     * El índice de este reloj, con el que se accede a la información que guarda
+     * sobre cada jugador en su {@link EstadoJugador}.
+     */
+    private final int indiceReloj;
+
+    /**
+     * Los jugadores a los que les correspondía ver el display de este reloj la
+     * última vez que se comprobó. Se mantiene a partir de eventos, de forma que la
+     * tarea de relojes solo tenga que considerar a estos jugadores, en vez de a
+     * todos los conectados.
+     */
+    private final Set<EstadoJugador> jugadoresCandidatosDisplay = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Los jugadores que se han añadido a {@link #jugadoresCandidatosDisplay} desde
+     * la última pasada de la tarea de relojes, a los que se les mostrará el display
+     * en la siguiente ejecución de la tarea para ellos, sin esperar a la siguiente
+     * pasada completa.
+     */
+    private final Set<EstadoJugador> jugadoresCandidatosNuevos = ConcurrentHashMap.newKeySet();
+
+    /**
+     * La caché de displays ya renderizados de este reloj, listos para ser enviados
+     * a cualquier jugador. Como la mayoría de jugadores de un mismo mundo ven el
+     * mismo texto en un mismo segundo, esto evita volver a generarlo para cada uno
+     * de ellos.
+     */
+    private final Map<ClaveCacheDisplay, Component> cacheDisplays = new ConcurrentHashMap<>();
+
+    /**
+     * El segundo de tiempo real, desde la época Unix, al que corresponden los
+     * displays guardados en {@link #cacheDisplays}.
+     */
+    private long segundoCacheDisplays = Long.MIN_VALUE;
 
     /**
      * Tarea que se encarga de mostrar el display a los jugadores interesados, y de
-     * ejecutar las actualizaciones periódicas de los relojes.
+     * ejecutar las actualizaciones periódicas de los relojes. Es compartida por
+     * todos los relojes creados.
      */
-    private BukkitTask tareaTickRelojes = null;
+    private static TickRelojes tareaTickRelojes = null;
 
     /**
      * Crea un nuevo reloj observable por un jugador.
+     *
+     * @throws IllegalStateException Si ya se han instanciado tantos relojes como
+     *                               permite {@link EstadoJugador#MAXIMO_RELOJES}.
      */
     protected Reloj() {
-        if (componentesTextoReloj == null) {
-            PluginTiempoReal plugin = PluginTiempoReal.getPlugin(PluginTiempoReal.class);
+        if (relojesInstanciados >= EstadoJugador.MAXIMO_RELOJES) {
+            throw new IllegalStateException("No se pueden instanciar más relojes");
+        }
+
+        indiceReloj = relojesInstanciados++;
 
-            componentesTextoReloj = TextComponent.fromLegacyText(plugin.getTextoReloj());
-            componentesTextoRelojDimensionSinCiclo = TextComponent.fromLegacyText(
-                plugin.getTextoRelojDimensionSinCiclo()
-            );
+        if (plantillaTextoReloj == null) {
+            PluginTiempoReal plugin = PluginTiempoReal.getPlugin(PluginTiempoReal.class);
 
-            indiceComponenteTextoDisplay = indiceComponenteTextoDisplay(componentesTextoReloj);
-            indiceComponenteTextoDisplayDimensionSinCiclo = indiceComponenteTextoDisplay(
-                componentesTextoRelojDimensionSinCiclo
-            );
+            plantillaTextoReloj = plugin.getPlantillaTextoReloj();
+            plantillaTextoRelojDimensionSinCiclo = plugin.getPlantillaTextoRelojDimensionSinCiclo();
         }
     }
 
     /**
-     * Actualiza los componentes de texto del reloj con el nuevo valor del parámetro
-     * de configuración correspondiente.
+     * Actualiza la plantilla del texto de reloj con la correspondiente al nuevo
+     * valor del parámetro de configuración.
      *
-     * @param nuevoTextoReloj El nuevo valor del parámetro de configuración. Se
-     *                        asume que es válido.
+     * @param nuevaPlantilla La nueva plantilla. Se asume que es válida.
      */
-    public static void actualizarComponentesTextoReloj(String nuevoTextoReloj) {
-        componentesTextoReloj = TextComponent.fromLegacyText(nuevoTextoReloj);
-        indiceComponenteTextoDisplay = indiceComponenteTextoDisplay(componentesTextoReloj);
+    public static void actualizarPlantillaTextoReloj(PlantillaTextoReloj nuevaPlantilla) {
+        plantillaTextoReloj = nuevaPlantilla;
+        invalidarCachesDisplays();
     }
 
     /**
-     * Actualiza los componentes de texto del reloj en dimensiones sin ciclo
-     * día-noche con el nuevo valor del parámetro de configuración correspondiente.
+     * Actualiza la plantilla del texto de reloj en dimensiones sin ciclo día-noche
+     * con la correspondiente al nuevo valor del parámetro de configuración.
      *
-     * @param nuevoTextoReloj El nuevo valor del parámetro de configuración. Se
-     *                        asume que es válido.
+     * @param nuevaPlantilla La nueva plantilla. Se asume que es válida.
      */
-    public static void actualizarComponentesTextoRelojDimensionSinCiclo(String nuevoTextoReloj) {
-        componentesTextoRelojDimensionSinCiclo = TextComponent.fromLegacyText(nuevoTextoReloj);
-        indiceComponenteTextoDisplayDimensionSinCiclo = indiceComponenteTextoDisplay(
-            componentesTextoRelojDimensionSinCiclo
-        );
+    public static void actualizarPlantillaTextoRelojDimensionSinCiclo(PlantillaTextoReloj nuevaPlantilla) {
+        plantillaTextoRelojDimensionSinCiclo = nuevaPlantilla;
+        invalidarCachesDisplays();
     }
 
     /**
-     * Obtiene el índice del componente de texto con la palabra clave a sustituir
-     * por el display de entre los componentes de texto de reloj pasados como
-     * parámetro.
-     *
-     * @param componentesTextoReloj Los componentes de texto del texto de reloj de
-     *                              los que buscar el componente de texto descrito.
-     *                              Se asume que son válidos.
-     * @return El índice del componente de texto con la palabra clave a sustituir
-     *         por el display eliminada.
+     * Descarta los displays renderizados de todos los relojes, para que se vuelvan
+     * a generar a partir de las plantillas de texto actuales.
      */
-    private static int indiceComponenteTextoDisplay(BaseComponent[] componentesTextoReloj) {
-        int i = 0;
-        boolean componenteNoEncontrado = true;
-
-        // Buscar el componente de texto que contiene la palabra clave a sustituir por
-        // el display. Siempre existe uno y solo uno
-        while (i < componentesTextoReloj.length && componenteNoEncontrado) {
-            BaseComponent componente = componentesTextoReloj[i++];
-
-            if (componente instanceof TextComponent) {
-                TextComponent componenteTexto = (TextComponent) componente;
-
-                if (componenteTexto.getText().contains(TextoReloj.DISPLAY)) {
-                    componenteTexto.setText(componenteTexto.getText().replace(TextoReloj.DISPLAY, ""));
-                    componenteNoEncontrado = false;
-                    --i;
-                }
-            }
+    private static void invalidarCachesDisplays() {
+        for (Reloj reloj : RELOJES_CREADOS) {
+            reloj.cacheDisplays.clear();
         }
-
-        return i;
     }
 
     /**
@@ -187,18 +242,37 @@ public abstract class Reloj<T> implements Listener {
      * jugadores.
      */
     public final void detener() {
-        for (Reloj<?> reloj : RELOJES_CREADOS) {
-            reloj.jugadoresEstadoDisplay.clear();
+        for (Reloj reloj : RELOJES_CREADOS) {
+            CompositorBarraAcciones.get().anularRegistroFuente(reloj);
+            reloj.jugadoresCandidatosDisplay.clear();
+            reloj.jugadoresCandidatosNuevos.clear();
+            reloj.cacheDisplays.clear();
         }
 
         RELOJES_CREADOS.clear();
+        COLA_RECONCILIACION_JUGADORES.clear();
+        JUGADORES_PENDIENTES_ACTUALIZACION.clear();
+        JUGADORES_PENDIENTES_RECONCILIACION.clear();
 
         if (tareaTickRelojes != null) {
-            tareaTickRelojes.cancel();
+            PlanificadorTiempoReal.get().anularRegistroTarea(tareaTickRelojes);
             tareaTickRelojes = null;
         }
     }
 
+    /**
+     * Decide si mostrar u ocultar el display a jugadores que realicen algún evento
+     * relacionado con ver o dejar de ver un reloj.
+     *
+     * @param event El evento realizado por el jugador.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public final void onPlayerEvent(PlayerJoinEvent event) {
+        // La solicitud se comparte con los demás relojes, de forma que el inventario
+        // del jugador solo se recorra una vez para todos
+        programarReconciliacionJugador(event.getPlayer());
+    }
+
     /**
      * Decide si mostrar u ocultar el display a jugadores que realicen algún evento
      * relacionado con ver o dejar de ver un reloj.
@@ -207,9 +281,7 @@ public abstract class Reloj<T> implements Listener {
      */
     @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
     public final void onPlayerEvent(PlayerQuitEvent event) {
-        Player p = event.getPlayer();
-        ocultarDisplay(p);
-        jugadoresEstadoDisplay.remove(p);
+        descartarJugador(event.getPlayer());
     }
 
     /**
@@ -220,9 +292,7 @@ public abstract class Reloj<T> implements Listener {
      */
     @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
     public final void onPlayerEvent(PlayerKickEvent event) {
-        Player p = event.getPlayer();
-        ocultarDisplay(p);
-        jugadoresEstadoDisplay.remove(p);
+        descartarJugador(event.getPlayer());
     }
 
     /**
@@ -232,7 +302,11 @@ public abstract class Reloj<T> implements Listener {
      */
     @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
     public final void onPlayerEvent(PlayerDeathEvent event) {
-        ocultarDisplay(event.getEntity());
+        EstadoJugador estadoJugador = RegistroJugadores.get().getEstadoJugador(event.getEntity());
+
+        if (estadoJugador != null) {
+            ocultarDisplay(estadoJugador);
+        }
     }
 
     /**
@@ -242,40 +316,93 @@ public abstract class Reloj<T> implements Listener {
      */
     @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
     public final void onPlayerEvent(PlayerRespawnEvent event) {
-        actualizarDisplay(event.getPlayer());
+        // La solicitud se comparte con los demás relojes, de forma que el inventario
+        // del jugador solo se recorra una vez para todos
+        programarReconciliacionJugador(event.getPlayer());
     }
 
     /**
-     * Formatea el display de un reloj a mostrar al usuario. Este método se ejecuta
-     * justo antes de enviarle al jugador el display actualizado de la hora.
+     * Formatea el display de un reloj a mostrar a los usuarios. El resultado de
+     * este método se guarda en una caché y se reutiliza para todos los jugadores
+     * que compartan los mismos parámetros durante un segundo, por lo que debe de
+     * depender únicamente de ellos y no tener efectos secundarios. Las acciones
+     * específicas a cada jugador deben de realizarse en
+     * {@link #onDisplayMostrado(long, EstadoJugador, InstantaneaMundo)}.
      *
-     * @param fechaHora             La hora a usar para formatear. No es nula.
-     * @param jugador               El jugador que verá el display. No es nulo.
-     * @param mundo                 El mundo del que se ha obtenido la hora. No es
-     *                              nulo.
-     * @param mundoConCicloDiaNoche Verdadero si el mundo tiene una hora válida,
-     *                              debido a que tiene un ciclo de día-noche.
+     * @param fechaHora             La hora a usar para formatear, en
+     *                              milisegundos locales desde la época Unix.
+     *                              Sus campos se obtienen con los métodos de
+     *                              {@link TiempoCivil}.
+     * @param instantaneaMundo      La instantánea del mundo del que se ha obtenido
+     *                              la hora. No es nula.
+     * @param claveDisplay          El valor devuelto por
+     *                              {@link #getClaveDisplay(long, EstadoJugador, InstantaneaMundo)}
+     *                              para los jugadores que verán el display.
      * @return Un subcomponente de display, que se incorporará en el texto final que
      *         se mostrará.
      */
-    protected abstract BaseComponent formatearDisplay(
-        ZonedDateTime fechaHora, Player jugador, World mundo, boolean mundoConCicloDiaNoche
+    protected abstract Component formatearDisplay(
+        long fechaHora, InstantaneaMundo instantaneaMundo, long claveDisplay
     );
 
+    /**
+     * Calcula un valor que resume los datos propios de un jugador de los que
+     * depende el display, además de la hora y el mundo. Dos jugadores para los
+     * que este método devuelva el mismo valor en el mismo mundo y segundo verán
+     * exactamente el mismo display. La implementación predeterminada de este
+     * método siempre devuelve cero, lo que indica que el display no depende del
+     * jugador.
+     *
+     * @param fechaHora             La hora que se mostrará, en milisegundos
+     *                              locales desde la época Unix.
+     * @param estadoJugador         El estado del jugador que verá el display. No
+     *                              es nulo.
+     * @param instantaneaMundo      La instantánea del mundo del que se ha obtenido
+     *                              la hora. No es nula.
+     * @return El devandicho valor.
+     */
+    protected long getClaveDisplay(
+        long fechaHora, EstadoJugador estadoJugador, InstantaneaMundo instantaneaMundo
+    ) {
+        return 0;
+    }
+
+    /**
+     * Método ejecutado cada vez que se actualiza el display de un jugador, tanto
+     * si se le ha tenido que volver a enviar como si no, por no haber cambiado. Las
+     * subclases pueden implementarlo para realizar acciones específicas a cada
+     * jugador, como reproducir sonidos. Por defecto, este método no hace nada.
+     *
+     * @param fechaHora             La hora mostrada, en milisegundos locales
+     *                              desde la época Unix.
+     * @param estadoJugador         El estado del jugador que ha recibido el
+     *                              display. No es nulo.
+     * @param instantaneaMundo      La instantánea del mundo del que se ha obtenido
+     *                              la hora. No es nula.
+     */
+    protected void onDisplayMostrado(
+        long fechaHora, EstadoJugador estadoJugador, InstantaneaMundo instantaneaMundo
+    ) {}
+
     /**
      * Comprueba si un determinado jugador debe de recibir actualizaciones
      * periódicas del reloj, mediante invocaciones del método
-     * {@link #onActualizacionReloj(ZonedDateTime, Player, World, boolean)}. La
-     * implementación predeterminada de este método siempre devuelve falso.
+     * {@link #onActualizacionReloj(long, EstadoJugador, InstantaneaMundo)}. Solo
+     * se consulta para los jugadores candidatos a ver el display de algún reloj,
+     * o que tengan algún reloj en su inventario o algún estado de reloj asociado
+     * (véase {@link EstadoJugador#tieneRelojesActivos()}), para no tener que
+     * atender periódicamente a los demás. La implementación predeterminada de este
+     * método siempre devuelve falso.
      *
-     * @param jugador               El jugador del que se quiere saber si debe de
-     *                              recibir actualizaciones periódicas del reloj.
+     * @param estadoJugador         El estado del jugador del que se quiere saber
+     *                              si debe de recibir actualizaciones periódicas
+     *                              del reloj.
      * @param mundoConCicloDiaNoche Verdadero si el mundo tiene una hora válida,
      *                              debido a que tiene un ciclo de día-noche.
      * @return Verdadero si el jugador debe de recibir las devandichas
      *         actualizaciones, falso en otro caso.
      */
-    protected boolean debeJugadorRecibirActualizaciones(Player jugador, boolean mundoConCicloDiaNoche) {
+    protected boolean debeJugadorRecibirActualizaciones(EstadoJugador estadoJugador, boolean mundoConCicloDiaNoche) {
         return false;
     }
 
@@ -285,19 +412,19 @@ public abstract class Reloj<T> implements Listener {
      * diferente cuando deseen ejecutar código en respuesta a esta actualización.
      * Por defecto, este método no hace nada. Este método se llama tras comprobar
      * que un jugador debe de recibir actualizaciones de reloj mediante
-     * {@link #debeJugadorRecibirActualizaciones(Player, boolean)}, solo si éste
+     * {@link #debeJugadorRecibirActualizaciones(EstadoJugador, boolean)}, solo si éste
      * devuelve verdadero.
      *
      * @param fechaHora             La hora actual en el mundo en el que está el
+     *                              jugador, en milisegundos locales desde la
+     *                              época Unix.
+     * @param estadoJugador         El estado del jugador al que va destinada la
+     *                              actualización de hora. No es nulo.
+     * @param instantaneaMundo      La instantánea del mundo en el que está el
      *                              jugador. No es nula.
-     * @param jugador               El jugador al que va destinada la actualización
-     *                              de hora. NO es nulo.
-     * @param mundo                 El mundo en el que está el jugador. No es nulo.
-     * @param mundoConCicloDiaNoche Verdadero si el mundo tiene una hora válida,
-     *                              debido a que tiene un ciclo de día-noche.
      */
     protected void onActualizacionReloj(
-        ZonedDateTime fechaHora, Player jugador, World mundo, boolean mundoConCicloDiaNoche
+        long fechaHora, EstadoJugador estadoJugador, InstantaneaMundo instantaneaMundo
     ) {}
 
     /**
@@ -306,20 +433,37 @@ public abstract class Reloj<T> implements Listener {
      * display. Por defecto, este método no hace nada. Este método se invoca tras
      * registrar el jugador como no viendo el display.
      *
-     * @param p El jugador al que se le va a ocultar el display. No es nulo.
+     * @param estadoJugador El estado del jugador al que se le va a ocultar el
+     *                      display. No es nulo.
+     */
+    protected void onOcultarDisplay(EstadoJugador estadoJugador) {}
+
+    /**
+     * Vuelve a calcular desde cero toda la información que este reloj mantiene
+     * sobre un jugador a partir de eventos. Se invoca cuando un jugador entra al
+     * servidor o revive, y periódicamente por turnos, para corregir los cambios que
+     * no se hayan podido detectar mediante eventos. La implementación por defecto
+     * de este método se limita a llamar a
+     * {@link #actualizarDisplay(EstadoJugador)}; las subclases que la redefinan
+     * deben de llamar a la implementación de la superclase.
+     *
+     * @param estadoJugador El estado del jugador cuya información recalcular. No
+     *                      es nulo.
      */
-    protected void onOcultarDisplay(Player p) {}
+    protected void reconciliarJugador(EstadoJugador estadoJugador) {
+        actualizarDisplay(estadoJugador);
+    }
 
     /**
      * Comprueba si a un jugador le corresponde ver el display en pantalla. Por
      * defecto, la implementación de este método devuelve verdadero si y solo si el
      * jugador está vivo y conectado.
      *
-     * @param p El jugador a comprobar.
+     * @param estadoJugador El estado del jugador a comprobar.
      * @return Verdadero si le corresponde, falso en otro caso.
      */
-    protected boolean leCorrespondeVerDisplay(Player p) {
-        return p.isOnline() && !p.isDead();
+    protected boolean leCorrespondeVerDisplay(EstadoJugador estadoJugador) {
+        return estadoJugador.isConectado() && !estadoJugador.getJugador().isDead();
     }
 
     /**
@@ -339,25 +483,39 @@ public abstract class Reloj<T> implements Listener {
         RELOJES_CREADOS.add(this);
 
         if (tareaTickRelojes == null) {
-            tareaTickRelojes = new TickRelojes().runTaskTimer(
-                PluginTiempoReal.getPlugin(PluginTiempoReal.class), 0, TICKS_TAREA_RELOJ
-            );
+            tareaTickRelojes = new TickRelojes();
+            PlanificadorTiempoReal.get().registrarTarea(tareaTickRelojes);
         }
+
+        // Los displays se generan en la parte por jugador de la tarea de relojes,
+        // que se ejecuta tras las partes globales de todas las tareas, así que el
+        // compositor los enviará al comienzo del siguiente tick
+        CompositorBarraAcciones.get().registrarFuente(this);
     }
 
     /**
-     * Obtiene el estado del display de reloj asociado al jugador especificado,. Las
+     * Obtiene el índice de este reloj, con el que se accede a la información que
+     * guarda sobre cada jugador en su {@link EstadoJugador}.
+     *
+     * @return El devandicho índice.
+     */
+    protected final int getIndiceReloj() {
+        return indiceReloj;
+    }
+
+    /**
+     * Obtiene el estado del display de reloj asociado al jugador especificado. Las
      * subclases pueden usar este estado como crean conveniente para mejorar el
      * display u otros propósitos.
      *
-     * @param p El jugador del que obtener el estado de reloj asociado.
-     * @return Un valor nulo si el estado ha sido recién inicializado o el jugador
-     *         no tiene un estado de reloj asociado, o el valor que una subclase
-     *         haya decidido almacenar.
+     * @param estadoJugador El estado del jugador del que obtener el estado de
+     *                      reloj asociado.
+     * @return {@link EstadoJugador#SIN_ESTADO_RELOJ} si el estado ha sido recién
+     *         inicializado o el jugador no tiene un estado de reloj asociado, o el
+     *         valor que una subclase haya decidido almacenar.
      */
-    protected final T getEstadoDisplay(Player p) {
-        InformacionDisplay<T> infoDisplay = jugadoresEstadoDisplay.get(p);
-        return infoDisplay != null ? infoDisplay.getEstado() : null;
+    protected final long getEstadoDisplay(EstadoJugador estadoJugador) {
+        return estadoJugador.getEstadoReloj(indiceReloj);
     }
 
     /**
@@ -365,196 +523,419 @@ public abstract class Reloj<T> implements Listener {
      * Las subclases pueden usar este estado como crean conveniente para mejorar el
      * display u otros propósitos.
      *
-     * @param p      El jugador del que establecer el estado de reloj asociado.
-     * @param estado El estado de reloj a asociar con el jugador.
-     */
-    protected final void setEstadoDisplay(Player p, T estado) {
-        jugadoresEstadoDisplay.compute(p, (clave, infoDisplay) -> {
-            InformacionDisplay<T> toret;
-
-            if (infoDisplay == null && estado != null) {
-                toret = new InformacionDisplay<>(false, estado);
-            } else if ((infoDisplay == null || !infoDisplay.mostrandoDisplay()) && estado == null) {
-                // Eliminar la entrada del mapa si se va a guardar un estado nulo
-                // y no se está mostrando el display
-                toret = null;
-            } else {
-                // infoDisplay no es nulo, y estamos mostrando el display.
-                // Cambiar el estado en la entrada existente
-                infoDisplay.setEstado(estado);
-                toret = infoDisplay;
-            }
+     * @param estadoJugador El estado del jugador del que establecer el estado de
+     *                      reloj asociado.
+     * @param estado        El estado de reloj a asociar con el jugador, o
+     *                      {@link EstadoJugador#SIN_ESTADO_RELOJ} para
+     *                      descartarlo.
+     */
+    protected final void setEstadoDisplay(EstadoJugador estadoJugador, long estado) {
+        estadoJugador.setEstadoReloj(indiceReloj, estado);
+    }
 
-            return toret;
-        });
+    /**
+     * Comprueba si a un jugador le corresponde ver el display, registrándolo para
+     * que se le muestre en la siguiente ejecución de la tarea de relojes en caso
+     * afirmativo, u ocultándoselo en caso contrario. Las subclases deben de llamar
+     * a este método cuando ocurra algo que pueda cambiar el resultado de
+     * {@link #leCorrespondeVerDisplay(EstadoJugador)}.
+     *
+     * @param estadoJugador El estado del jugador cuyo estado de muestra de display
+     *                      actualizar.
+     */
+    protected final void actualizarDisplay(EstadoJugador estadoJugador) {
+        if (leCorrespondeVerDisplay(estadoJugador)) {
+            if (jugadoresCandidatosDisplay.add(estadoJugador)) {
+                jugadoresCandidatosNuevos.add(estadoJugador);
+            }
+        } else {
+            jugadoresCandidatosDisplay.remove(estadoJugador);
+            jugadoresCandidatosNuevos.remove(estadoJugador);
+            ocultarDisplay(estadoJugador);
+        }
     }
 
     /**
-     * Le oculta el display a un jugador si ya no debería de verlo.
+     * Solicita que se llame a {@link #actualizarDisplay(EstadoJugador)} para un jugador en
+     * todos los relojes en los próximos ticks. Es útil para reaccionar a eventos
+     * cuyo efecto sobre el inventario del jugador aún no se ha aplicado, y no
+     * supone trabajo adicional si ya se ha solicitado para el mismo jugador en
+     * este tick.
      *
      * @param p El jugador cuyo estado de muestra de display actualizar.
      */
-    protected final void actualizarDisplay(Player p) {
-        if (!leCorrespondeVerDisplay(p)) {
-            ocultarDisplay(p);
-        }
+    protected static void programarActualizacionDisplay(Player p) {
+        JUGADORES_PENDIENTES_ACTUALIZACION.add(p);
+    }
+
+    /**
+     * Solicita que se llame a {@link #reconciliarJugador(EstadoJugador)} para un jugador
+     * en todos los relojes en los próximos ticks, con las mismas ventajas que
+     * {@link #programarActualizacionDisplay(Player)}.
+     *
+     * @param p El jugador cuya información reconciliar.
+     */
+    protected static void programarReconciliacionJugador(Player p) {
+        JUGADORES_PENDIENTES_RECONCILIACION.add(p);
     }
 
     /**
      * Realiza las operaciones necesarias para ocultarle el display del reloj a un
      * jugador.
      *
-     * @param p El jugador al que ocultarle el display.
+     * @param estadoJugador El estado del jugador al que ocultarle el display.
      */
-    private void ocultarDisplay(Player p) {
-        InformacionDisplay<T> infoDisplay = jugadoresEstadoDisplay.get(p);
+    private void ocultarDisplay(EstadoJugador estadoJugador) {
+        if (estadoJugador.isMostrandoDisplayReloj(indiceReloj)) {
+            estadoJugador.setMostrandoDisplayReloj(indiceReloj, false);
+            CompositorBarraAcciones.get().setFragmento(estadoJugador.getJugador(), this, null);
+            onOcultarDisplay(estadoJugador);
+        }
+    }
 
-        if (infoDisplay != null && infoDisplay.mostrandoDisplay()) {
-            infoDisplay.setMostrandoDisplay(false);
-            onOcultarDisplay(p);
+    /**
+     * Descarta la información que este reloj mantiene sobre un jugador que se
+     * desconecta, ocultándole el display si lo estaba viendo.
+     *
+     * @param p El jugador que se desconecta.
+     */
+    private void descartarJugador(Player p) {
+        EstadoJugador estadoJugador = RegistroJugadores.get().getEstadoJugador(p);
+
+        if (estadoJugador != null) {
+            ocultarDisplay(estadoJugador);
+            jugadoresCandidatosDisplay.remove(estadoJugador);
+            jugadoresCandidatosNuevos.remove(estadoJugador);
         }
+
+        JUGADORES_PENDIENTES_ACTUALIZACION.remove(p);
+        JUGADORES_PENDIENTES_RECONCILIACION.remove(p);
     }
 
     /**
-     * Tarea periódica que se encarga de mostrar y mantener actualizado el display
-     * de la hora en las pantallas de los jugadores, además de ejecutar
-     * periódicamente el método de actualización de los relojes.
+     * Le muestra el display de este reloj a un jugador al que le corresponde
+     * verlo, reutilizando el texto ya renderizado para otros jugadores si es
+     * posible. El texto se publica en el {@link CompositorBarraAcciones}, que se
+     * encarga de enviárselo al jugador junto con el de otras fuentes, y solo si
+     * ha cambiado.
      *
-     * @author AlexTMjugador
+     * @param estadoJugador         El estado del jugador al que mostrarle el
+     *                              display.
+     * @param hora                  La hora actual en el mundo del jugador, en
+     *                              milisegundos locales desde la época Unix.
+     * @param instantaneaMundo      La instantánea del mundo en el que está el
+     *                              jugador.
      */
-    private final class TickRelojes extends BukkitRunnable {
-        /**
-         * Ejecuta el mostrado y actualización del display de la hora en las pantallas
-         * de los jugadores, además del método de actualización de los relojes.
-         */
-        @Override
-        public void run() {
-            for (Player p : getServer().getOnlinePlayers()) {
-                World mundo = p.getWorld();
-                ZonedDateTime hora = SimuladorTiempo.get().getHoraMundo(mundo);
-                boolean mundoConCicloDiaNoche = mundo.getEnvironment() == Environment.NORMAL;
-
-                for (Reloj<?> r : RELOJES_CREADOS) {
-                    // Primero ejecutar la actualización del reloj si es necesario
-                    if (r.debeJugadorRecibirActualizaciones(p, mundoConCicloDiaNoche)) {
-                        r.onActualizacionReloj(hora, p, mundo, mundoConCicloDiaNoche);
-                    }
+    private void mostrarDisplay(EstadoJugador estadoJugador, long hora, InstantaneaMundo instantaneaMundo) {
+        // Cambiar la información del display para indicar que lo
+        // estamos mostrando
+        estadoJugador.setMostrandoDisplayReloj(indiceReloj, true);
+
+        // Obtener el texto a mostrar de la caché, generándolo si es la primera
+        // vez que se necesita en este segundo
+        ClaveCacheDisplay claveCache = new ClaveCacheDisplay(
+            instantaneaMundo.mundo(), instantaneaMundo.conCicloDiaNoche(), Math.floorDiv(hora, 1000),
+            getClaveDisplay(hora, estadoJugador, instantaneaMundo)
+        );
+        Component textoReloj = cacheDisplays.get(claveCache);
+        if (textoReloj == null) {
+            textoReloj = renderizarDisplay(hora, instantaneaMundo, claveCache.claveDisplay());
+            cacheDisplays.put(claveCache, textoReloj);
+        }
 
-                    // Ver si el jugador es candidato a que se le muestre el display
-                    if (r.leCorrespondeVerDisplay(p)) {
-                        // Cambiar la información del display para indicar que lo
-                        // estamos mostrando
-                        jugadoresEstadoDisplay.compute(p, (clave, infoDisplay) -> {
-                            InformacionDisplay<T> toret;
-
-                            if (infoDisplay == null) {
-                                toret = new InformacionDisplay<>(true, null);
-                            } else {
-                                infoDisplay.setMostrandoDisplay(true);
-                                toret = infoDisplay;
-                            }
-
-                            return toret;
-                        });
-
-                        // Generar el texto a mostrar
-                        BaseComponent[] componentesTextoRelojPlantilla = mundoConCicloDiaNoche ?
-                            Reloj.componentesTextoReloj :
-                            Reloj.componentesTextoRelojDimensionSinCiclo;
-                        int indiceComponenteTextoDisplay = mundoConCicloDiaNoche ?
-                            Reloj.indiceComponenteTextoDisplay :
-                            Reloj.indiceComponenteTextoDisplayDimensionSinCiclo;
-
-                        // Duplicamos los componentes de la plantilla a otro array debido
-                        // a necesidades de la implementación de sendActionBar, para que cada
-                        // invocación se haga con objetos específicos y diferentes
-                        BaseComponent[] componentesTextoReloj = new BaseComponent[componentesTextoRelojPlantilla.length];
-                        for (int i = 0; i < componentesTextoReloj.length; ++i) {
-                            componentesTextoReloj[i] = componentesTextoRelojPlantilla[i].duplicate();
-                        }
-
-                        // Añadir el componente generado al componente de display
-                        // (como hemos borrado la palabra clave, y la palabra clave está al final,
-                        // la reemplazará)
-                        componentesTextoReloj[indiceComponenteTextoDisplay].addExtra(
-                            r.formatearDisplay(hora, p, mundo, mundoConCicloDiaNoche)
-                        );
-
-                        // Mostrar los componentes de texto finales, con el componente correspondiente
-                        // al display ya modificado
-                        p.sendActionBar(componentesTextoReloj);
-                    } else {
-                        // No le corresponde ver un display de hora (esto puede ocurrir tras un /clear
-                        // u otros eventos que no podemos o no es factible manejar)
-                        r.ocultarDisplay(p);
-                    }
-                }
-            }
+        // Mostrar el texto final, con el display ya incorporado
+        CompositorBarraAcciones.get().setFragmento(estadoJugador.getJugador(), this, textoReloj);
+
+        onDisplayMostrado(hora, estadoJugador, instantaneaMundo);
+    }
+
+    /**
+     * Le muestra el display de este reloj a un jugador candidato a verlo si le
+     * corresponde, o lo descarta como candidato y se lo oculta en otro caso.
+     *
+     * @param estadoJugador El estado del jugador candidato.
+     * @param horaMundo     La instantánea y la hora actual del mundo en el que
+     *                      está el jugador.
+     */
+    private void mostrarDisplaySiCorresponde(EstadoJugador estadoJugador, HoraMundo horaMundo) {
+        if (leCorrespondeVerDisplay(estadoJugador)) {
+            mostrarDisplay(estadoJugador, horaMundo.fechaHora(), horaMundo.instantaneaMundo());
+        } else {
+            // No le corresponde ver un display de hora (esto puede ocurrir tras un /clear
+            // u otros eventos que no podemos o no es factible manejar)
+            jugadoresCandidatosDisplay.remove(estadoJugador);
+            jugadoresCandidatosNuevos.remove(estadoJugador);
+            ocultarDisplay(estadoJugador);
         }
     }
 
     /**
-     * Contiene la información del display de reloj para un jugador, incluyendo su
-     * estado y si se está mostrando o no.
+     * Genera el texto final a mostrar en la barra de acciones, a partir de la
+     * plantilla de texto de reloj que corresponda.
      *
-     * @author AlexTMjugador
+     * @param hora                  La hora a mostrar, en milisegundos locales
+     *                              desde la época Unix.
+     * @param instantaneaMundo      La instantánea del mundo del que se ha obtenido
+     *                              la hora.
+     * @param claveDisplay          El valor que resume los datos del jugador de
+     *                              los que depende el display.
+     * @return El texto generado.
+     */
+    private Component renderizarDisplay(
+        long hora, InstantaneaMundo instantaneaMundo, long claveDisplay
+    ) {
+        PlantillaTextoReloj plantilla = instantaneaMundo.conCicloDiaNoche() ?
+            Reloj.plantillaTextoReloj :
+            Reloj.plantillaTextoRelojDimensionSinCiclo;
+
+        // Las plantillas son inmutables, así que no es necesario copiarlas
+        return plantilla.formar(formatearDisplay(hora, instantaneaMundo, claveDisplay));
+    }
+
+    /**
+     * Descarta los displays renderizados de la caché si corresponden a un segundo
+     * de tiempo real diferente al actual, de forma que la caché no crezca
+     * indefinidamente.
      *
-     * @param <T> El tipo de dato del estado del reloj.
+     * @param segundoActual El segundo de tiempo real actual, desde la época Unix.
      */
-    private static final class InformacionDisplay<T> {
-        private boolean mostrandoDisplay;
-        private T estado;
+    private void renovarCacheDisplays(long segundoActual) {
+        if (segundoActual != segundoCacheDisplays) {
+            cacheDisplays.clear();
+            segundoCacheDisplays = segundoActual;
+        }
+    }
+
+    /**
+     * Tarea periódica que se encarga de mostrar y mantener actualizado el display
+     * de la hora en las pantallas de los jugadores, además de ejecutar
+     * periódicamente el método de actualización de los relojes. Todo el trabajo
+     * con cada jugador se realiza en la parte por jugador de la tarea, en el hilo
+     * dueño del jugador y dentro del presupuesto de tiempo por tick.
+     *
+     * @author AlexTMjugador
+     */
+    private static final class TickRelojes implements TareaPlanificada {
+        /**
+         * La instantánea y la hora actual de cada mundo en el segundo de tiempo
+         * real en curso, para no obtenerlas de nuevo para cada jugador del mundo.
+         * Se comparte entre los hilos de todos los jugadores.
+         */
+        private final Map<World, HoraMundo> horasMundos = new ConcurrentHashMap<>();
 
         /**
-         * Crea una nueva información de display.
-         *
-         * @param mostrandoDisplay Verdadero si se está mostrando el display, falso en
-         *                         caso contrario.
-         * @param estado           El estado del display, gestionado por las subclases y
-         *                         específico a cada jugador.
+         * El segundo de tiempo real, desde la época Unix, en la última ejecución
+         * de la parte global de esta tarea.
          */
-        public InformacionDisplay(boolean mostrandoDisplay, T estado) {
-            this.mostrandoDisplay = mostrandoDisplay;
-            this.estado = estado;
+        private volatile long segundoActual = Long.MIN_VALUE;
+
+        /**
+         * El tick del planificador en el que comenzó la ronda de reconciliaciones
+         * periódicas actual.
+         */
+        private long tickInicioRondaReconciliacion = -TICKS_RONDA_RECONCILIACION;
+
+        /**
+         * El número de jugadores de {@link #COLA_RECONCILIACION_JUGADORES} a
+         * reconciliar en cada ejecución de esta tarea durante la ronda de
+         * reconciliaciones periódicas actual.
+         */
+        private int jugadoresReconciliadosPorEjecucion = 0;
+
+        @Override
+        public int getPeriodo() {
+            return PERIODO_TAREA_RELOJ;
         }
 
         /**
-         * Comprueba si el display se está mostrando.
-         *
-         * @return Verdadero si se está mostrando, falso en caso contrario.
+         * Descarta las horas de los mundos y los displays renderizados que hayan
+         * quedado obsoletos, y solicita reconciliar a unos pocos jugadores por
+         * turnos para detectar los cambios que no generan un evento, como empezar a
+         * empuñar un reloj.
+         */
+        @Override
+        public void ejecutar() {
+            long segundo = System.currentTimeMillis() / 1000;
+            long tick = PlanificadorTiempoReal.get().getTickActual();
+
+            segundoActual = segundo;
+            horasMundos.clear();
+
+            for (Reloj r : RELOJES_CREADOS) {
+                r.renovarCacheDisplays(segundo);
+            }
+
+            // Al comenzar una ronda, repartir sus jugadores entre las ejecuciones que
+            // caben en ella. Si hay pocos jugadores, la ronda termina antes de tiempo,
+            // y no se comienza la siguiente hasta que le toque
+            if (
+                COLA_RECONCILIACION_JUGADORES.isEmpty() &&
+                tick - tickInicioRondaReconciliacion >= TICKS_RONDA_RECONCILIACION
+            ) {
+                tickInicioRondaReconciliacion = tick;
+                COLA_RECONCILIACION_JUGADORES.addAll(RegistroJugadores.get().getEstadosJugadores());
+                jugadoresReconciliadosPorEjecucion = (
+                    COLA_RECONCILIACION_JUGADORES.size() * PERIODO_TAREA_RELOJ + TICKS_RONDA_RECONCILIACION - 1
+                ) / TICKS_RONDA_RECONCILIACION;
+            }
+            for (int i = 0; i < jugadoresReconciliadosPorEjecucion && !COLA_RECONCILIACION_JUGADORES.isEmpty(); ++i) {
+                EstadoJugador estadoJugador = COLA_RECONCILIACION_JUGADORES.poll();
+
+                if (estadoJugador.isConectado()) {
+                    JUGADORES_PENDIENTES_RECONCILIACION.add(estadoJugador.getJugador());
+                }
+            }
+        }
+
+        @Override
+        public boolean tieneParteJugador() {
+            return true;
+        }
+
+        /**
+         * Comprueba si el jugador tiene solicitudes de actualización pendientes o
+         * acaba de empezar a ver el display de algún reloj, o si le toca una pasada
+         * completa y tiene algún reloj del que ocuparse. Así, no se programa trabajo
+         * en los hilos de los jugadores que no tienen nada que ver con los relojes.
          */
-        public boolean mostrandoDisplay() {
-            return mostrandoDisplay;
+        @Override
+        public boolean debeEjecutarJugador(EstadoJugador estadoJugador) {
+            Player p = estadoJugador.getJugador();
+            boolean pasadaCompleta = tocaPasadaCompleta(estadoJugador, PlanificadorTiempoReal.get().getTickActual());
+            boolean toret = JUGADORES_PENDIENTES_RECONCILIACION.contains(p) ||
+                JUGADORES_PENDIENTES_ACTUALIZACION.contains(p) ||
+                (pasadaCompleta && estadoJugador.tieneRelojesActivos());
+
+            Iterator<Reloj> iter = RELOJES_CREADOS.iterator();
+            while (!toret && iter.hasNext()) {
+                Reloj r = iter.next();
+
+                toret = r.jugadoresCandidatosNuevos.contains(estadoJugador) ||
+                    (pasadaCompleta && r.jugadoresCandidatosDisplay.contains(estadoJugador));
+            }
+
+            return toret;
         }
 
         /**
-         * Establece si el display se está mostrando.
-         *
-         * @param mostrandoDisplay Verdadero si se está mostrando, falso en caso
-         *                         contrario.
+         * Atiende las solicitudes de actualización pendientes del jugador y, si le
+         * toca, realiza una pasada completa de mostrado y actualización del display
+         * de la hora en su pantalla, además del método de actualización de los
+         * relojes. En otro caso, se limita a mostrarle el display de los relojes
+         * que acaba de empezar a ver.
          */
-        public void setMostrandoDisplay(boolean mostrandoDisplay) {
-            this.mostrandoDisplay = mostrandoDisplay;
+        @Override
+        public void ejecutarJugador(EstadoJugador estadoJugador) {
+            Player p = estadoJugador.getJugador();
+            long tick = PlanificadorTiempoReal.get().getTickActual();
+            long segundo = segundoActual;
+            boolean pasadaCompleta = tocaPasadaCompleta(estadoJugador, tick);
+
+            // Atender las solicitudes de actualización hechas desde la anterior
+            // ejecución. La reconciliación ya incluye la actualización del display
+            if (JUGADORES_PENDIENTES_RECONCILIACION.remove(p)) {
+                JUGADORES_PENDIENTES_ACTUALIZACION.remove(p);
+
+                // Recorrer el inventario una sola vez para todos los relojes
+                RelojItem.reconciliarInventario(estadoJugador, RELOJES_CREADOS);
+
+                for (Reloj r : RELOJES_CREADOS) {
+                    r.reconciliarJugador(estadoJugador);
+                }
+            } else if (JUGADORES_PENDIENTES_ACTUALIZACION.remove(p)) {
+                for (Reloj r : RELOJES_CREADOS) {
+                    r.actualizarDisplay(estadoJugador);
+                }
+            }
+
+            // Estamos en el hilo dueño del jugador, así que podemos consultar su mundo
+            HoraMundo horaMundo = getHoraMundo(p.getWorld(), segundo);
+
+            // Ejecutar las actualizaciones periódicas de los relojes
+            if (pasadaCompleta) {
+                boolean mundoConCicloDiaNoche = horaMundo.instantaneaMundo().conCicloDiaNoche();
+
+                estadoJugador.setUltimaPasadaRelojes(tick, segundo);
+
+                for (Reloj r : RELOJES_CREADOS) {
+                    if (r.debeJugadorRecibirActualizaciones(estadoJugador, mundoConCicloDiaNoche)) {
+                        r.onActualizacionReloj(horaMundo.fechaHora(), estadoJugador, horaMundo.instantaneaMundo());
+                    }
+                }
+            }
+
+            // Mostrar el display de los relojes de los que el jugador es candidato
+            for (Reloj r : RELOJES_CREADOS) {
+                boolean candidatoNuevo = r.jugadoresCandidatosNuevos.remove(estadoJugador);
+
+                if (pasadaCompleta ? r.jugadoresCandidatosDisplay.contains(estadoJugador) : candidatoNuevo) {
+                    r.mostrarDisplaySiCorresponde(estadoJugador, horaMundo);
+                }
+            }
         }
 
         /**
-         * Obtiene el estado del display, gestionado por las subclases y específico a
-         * cada jugador.
+         * Comprueba si le toca a un jugador una pasada completa, por haber cambiado
+         * el segundo de tiempo real o haber pasado suficientes ticks desde la
+         * anterior.
          *
-         * @return El estado del display.
+         * @param estadoJugador El estado del jugador.
+         * @param tick          El tick actual del planificador.
+         * @return Verdadero si le toca, falso en otro caso.
          */
-        public T getEstado() {
-            return estado;
+        private boolean tocaPasadaCompleta(EstadoJugador estadoJugador, long tick) {
+            return segundoActual != estadoJugador.getSegundoUltimaPasadaRelojes() ||
+                tick - estadoJugador.getTickUltimaPasadaRelojes() >= TICKS_TAREA_RELOJ;
         }
 
         /**
-         * Establece el estado del display, gestionado por las subclases y específico a
-         * cada jugador.
+         * Obtiene la instantánea y la hora actual de un mundo, calculándolas solo la
+         * primera vez que se necesitan en el segundo de tiempo real en curso desde
+         * la última ejecución de la parte global de esta tarea.
          *
-         * @param estado El estado del display
+         * @param mundo   El mundo del que obtener la hora.
+         * @param segundo El segundo de tiempo real actual, desde la época Unix.
+         * @return La devandicha hora, junto con la instantánea de la que se ha
+         *         obtenido.
          */
-        public void setEstado(T estado) {
-            this.estado = estado;
+        private HoraMundo getHoraMundo(World mundo, long segundo) {
+            HoraMundo toret = horasMundos.get(mundo);
+
+            if (toret == null || toret.segundo() != segundo) {
+                InstantaneaMundo instantaneaMundo = SimuladorTiempo.get().getInstantaneaMundo(mundo);
+
+                toret = new HoraMundo(instantaneaMundo, instantaneaMundo.getFechaHora(segundo), segundo);
+                horasMundos.put(mundo, toret);
+            }
+
+            return toret;
         }
     }
+
+    /**
+     * Asocia la hora actual de un mundo con la instantánea de la que se ha
+     * obtenido.
+     *
+     * @param instantaneaMundo La instantánea del mundo.
+     * @param fechaHora        La hora actual del mundo, en milisegundos locales
+     *                         desde la época Unix.
+     * @param segundo          El segundo de tiempo real, desde la época Unix, al
+     *                         que corresponde la hora.
+     * @author AlexTMjugador
+     */
+    private record HoraMundo(InstantaneaMundo instantaneaMundo, long fechaHora, long segundo) {}
+
+    /**
+     * Identifica un display renderizado en la caché de displays de un reloj.
+     *
+     * @param mundo                 El mundo del que se ha obtenido la hora.
+     * @param mundoConCicloDiaNoche Verdadero si el mundo tiene una hora válida.
+     * @param segundo               El segundo mostrado, desde la época Unix.
+     * @param claveDisplay          El valor que resume los datos del jugador de
+     *                              los que depende el display.
+     * @author AlexTMjugador
+     */
+    private record ClaveCacheDisplay(
+        World mundo, boolean mundoConCicloDiaNoche, long segundo, long claveDisplay
+    ) {}
 }
\ No newline at end of file
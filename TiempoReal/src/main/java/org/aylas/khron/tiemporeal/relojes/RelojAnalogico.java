@@ -17,18 +17,17 @@
  */
 package org.aylas.khron.tiemporeal.relojes;
 
-import java.time.ZonedDateTime;
-import java.time.temporal.ChronoField;
 
+import org.aylas.khron.tiemporeal.EstadoJugador;
+import org.aylas.khron.tiemporeal.InstantaneaMundo;
+import org.aylas.khron.tiemporeal.TiempoCivil;
 import org.bukkit.Material;
 import org.bukkit.SoundCategory;
-import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
 
-import net.md_5.bungee.api.chat.BaseComponent;
-import net.md_5.bungee.api.chat.TextComponent;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
 
 /**
  * Representa un reloj analógico, cuyo display muestra la hora a quien lo empuña
@@ -37,7 +36,7 @@ import net.md_5.bungee.api.chat.TextComponent;
  *
  * @author AlexTMjugador
  */
-public final class RelojAnalogico extends RelojItem<Long> {
+public final class RelojAnalogico extends RelojItem {
     /**
      * El sonido que se reproducirá cuando el jugador mantenga empuñado el reloj,
      * para indicar el movimiento de las manecillas.
@@ -49,6 +48,18 @@ public final class RelojAnalogico extends RelojItem<Long> {
      */
     private static final int ID_MODELO = 2;
 
+    /**
+     * Separador entre las cifras de la hora, los minutos y los segundos.
+     */
+    private static final Component SEPARADOR_DIGITOS = Component.text(":");
+
+    /**
+     * Reconoce los stacks de ítems de este reloj.
+     */
+    private static final ClasificadorItemsReloj CLASIFICADOR_ITEMS = new ClasificadorItemsReloj(
+        Material.CLOCK, ID_MODELO
+    );
+
     /**
      * Restringe la instanciación de esta clase a otras clases.
      */
@@ -68,67 +79,58 @@ public final class RelojAnalogico extends RelojItem<Long> {
 
     @Override
     protected boolean lePermiteStackVerReloj(Player jugador, ItemStack stack) {
-        ItemMeta metaItem;
+        return CLASIFICADOR_ITEMS.esReloj(stack);
+    }
 
-        return stack.getType() == Material.CLOCK &&
-            stack.hasItemMeta() &&
-            (metaItem = stack.getItemMeta()).hasCustomModelData() &&
-            metaItem.getCustomModelData() == ID_MODELO;
+    @Override
+    protected Component formatearDisplay(long fechaHora, InstantaneaMundo instantaneaMundo, long claveDisplay) {
+        TextComponent.Builder display = Component.text();
+        boolean ofuscar = !instantaneaMundo.conCicloDiaNoche();
+
+        // Hora en formato de 12 horas, donde la hora 0 se muestra como 12
+        int hora = TiempoCivil.getHora(fechaHora) % 12;
+        if (hora == 0) {
+            hora = 12;
+        }
+
+        display.append(FormateadorDisplay.getComponenteDigitos(hora, ofuscar));
+        display.append(SEPARADOR_DIGITOS);
+        display.append(FormateadorDisplay.getComponenteDigitos(TiempoCivil.getMinuto(fechaHora) & ~1, ofuscar));
+        display.append(SEPARADOR_DIGITOS);
+        display.append(FormateadorDisplay.getComponenteDigitos(TiempoCivil.getSegundo(fechaHora) & ~1, ofuscar));
+
+        return display.build();
     }
 
     @Override
-    protected BaseComponent formatearDisplay(ZonedDateTime fechaHora, Player jugador, World mundo, boolean mundoConCicloDiaNoche) {
-        TextComponent display = new TextComponent();
-        TextComponent separadorDigitos = new TextComponent(":");
-        TextComponent componenteHora = new TextComponent(
-            String.format("%02d", fechaHora.get(ChronoField.CLOCK_HOUR_OF_AMPM))
-        );
-        TextComponent componenteMinuto = new TextComponent(
-            String.format("%02d", (int) (fechaHora.getMinute() / 2.0) * 2)
-        );
-        TextComponent componenteSegundo = new TextComponent(
-            String.format("%02d", (int) (fechaHora.getSecond() / 2.0) * 2)
-        );
-
-        display.addExtra(componenteHora);
-        display.addExtra(separadorDigitos);
-        display.addExtra(componenteMinuto);
-        display.addExtra(separadorDigitos);
-        display.addExtra(componenteSegundo);
-
-        Long ultimaTimestamp = getEstadoDisplay(jugador);
+    protected void onDisplayMostrado(long fechaHora, EstadoJugador estadoJugador, InstantaneaMundo instantaneaMundo) {
+        long ultimaTimestamp = getEstadoDisplay(estadoJugador);
+        boolean mundoConCicloDiaNoche = instantaneaMundo.conCicloDiaNoche();
         long timestampActual;
 
-        // Ajustar cálculo de la marca de tiempo y componentes de hora
-        // dependiendo de si hay un ciclo de día-noche
+        // Ajustar cálculo de la marca de tiempo dependiendo de si hay un ciclo de día-noche
         if (mundoConCicloDiaNoche) {
             timestampActual = (long) ((System.currentTimeMillis() / 1000) / 2.0) * 2;
         } else {
             // Si no hay un ciclo de día-noche, queremos reproducir el sonido
             // con una frecuencia cuatro veces mayor
             timestampActual = System.currentTimeMillis() / 500;
-
-            componenteHora.setObfuscated(true);
-            componenteMinuto.setObfuscated(true);
-            componenteSegundo.setObfuscated(true);
         }
 
-        if (ultimaTimestamp != null && ultimaTimestamp != timestampActual) {
-            jugador.playSound(
-                jugador.getLocation(),
+        if (ultimaTimestamp != EstadoJugador.SIN_ESTADO_RELOJ && ultimaTimestamp != timestampActual) {
+            estadoJugador.getJugador().playSound(
+                estadoJugador.getPosicion(),
                 SONIDO_TICTAC, SoundCategory.MASTER, mundoConCicloDiaNoche ? 0.1f : 0.5f, 1
             );
         }
 
-        setEstadoDisplay(jugador, timestampActual);
-
-        return display;
+        setEstadoDisplay(estadoJugador, timestampActual);
     }
 
     @Override
-    protected void onOcultarDisplay(Player jugador) {
-        jugador.stopSound(SONIDO_TICTAC, SoundCategory.MASTER);
-        setEstadoDisplay(jugador, null);
+    protected void onOcultarDisplay(EstadoJugador estadoJugador) {
+        estadoJugador.getJugador().stopSound(SONIDO_TICTAC, SoundCategory.MASTER);
+        setEstadoDisplay(estadoJugador, EstadoJugador.SIN_ESTADO_RELOJ);
     }
 
     /**
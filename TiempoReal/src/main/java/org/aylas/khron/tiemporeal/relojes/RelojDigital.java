@@ -17,22 +17,24 @@
  */
 package org.aylas.khron.tiemporeal.relojes;
 
-import java.time.ZonedDateTime;
-import java.time.format.TextStyle;
-import java.util.Locale;
 
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.SoundCategory;
-import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.PlayerInventory;
-import org.bukkit.inventory.meta.ItemMeta;
 
+import org.aylas.khron.tiemporeal.EstadoJugador;
+import org.aylas.khron.tiemporeal.InstantaneaMundo;
 import org.aylas.khron.tiemporeal.SimuladorTiempo;
-import net.md_5.bungee.api.chat.BaseComponent;
-import net.md_5.bungee.api.chat.TextComponent;
+import org.aylas.khron.tiemporeal.TiempoCivil;
+
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextDecoration;
 
 /**
  * Representa un reloj digital, cuyo display muestra la hora a quien lo empuña
@@ -41,7 +43,7 @@ import net.md_5.bungee.api.chat.TextComponent;
  *
  * @author AlexTMjugador
  */
-public final class RelojDigital extends RelojItem<Byte> {
+public final class RelojDigital extends RelojItem {
     /**
      * La fuente proporcionada por un paquete de recursos que contiene los iconos
      * usados por este reloj.
@@ -54,81 +56,115 @@ public final class RelojDigital extends RelojItem<Byte> {
      */
     private static final String SONIDO_HORA = "khron.misc.clock.digital_clock_beep";
 
+    /**
+     * La distancia máxima en cada eje, en bloques, a la que otros jugadores
+     * escuchan el aviso sonoro de cambio de hora.
+     */
+    private static final int RADIO_SONIDO_HORA = 16;
+
     /**
      * El identificador del modelo personalizado del reloj.
      */
     private static final int ID_MODELO = 1;
 
     /**
-     * Localización de Java que representa el idioma español.
+     * Reconoce los stacks de ítems de este reloj.
      */
-    private static final Locale LOCALIZACION_ESP = new Locale("es");
+    private static final ClasificadorItemsReloj CLASIFICADOR_ITEMS = new ClasificadorItemsReloj(
+        Material.CLOCK, ID_MODELO
+    );
 
     /**
      * Espacio que se puede mostrar en el display.
      */
-    private static final TextComponent ESPACIO;
+    private static final Component ESPACIO;
+    /**
+     * Separador entre las cifras de la hora, los minutos y los segundos.
+     */
+    private static final Component SEPARADOR_DIGITOS;
+    /**
+     * Separador entre las cifras de la hora, los minutos y los segundos, con un
+     * color apagado, para hacerlo parpadear.
+     */
+    private static final Component SEPARADOR_DIGITOS_APAGADO;
     /**
      * Icono de fecha que se puede mostrar en el display.
      */
-    private static final TextComponent ICONO_FECHA;
+    private static final Component ICONO_FECHA;
     /**
      * Icono de temperatura que se puede mostrar en el display.
      */
-    private static final TextComponent ICONO_TEMPERATURA;
+    private static final Component ICONO_TEMPERATURA;
     /**
      * Icono de tormenta que se puede mostrar en el display.
      */
-    private static final TextComponent ICONO_TORMENTA;
+    private static final Component ICONO_TORMENTA;
     /**
      * Icono de lluvia que se puede mostrar en el display.
      */
-    private static final TextComponent ICONO_LLUVIA;
+    private static final Component ICONO_LLUVIA;
     /**
      * Icono de nieve que se puede mostrar en el display.
      */
-    private static final TextComponent ICONO_NIEVE;
+    private static final Component ICONO_NIEVE;
     /**
      * Icono de nublado que se puede mostrar en el display.
      */
-    private static final TextComponent ICONO_NUBLADO;
+    private static final Component ICONO_NUBLADO;
     /**
      * Icono de soleado que se puede mostrar en el display.
      */
-    private static final TextComponent ICONO_SOLEADO;
+    private static final Component ICONO_SOLEADO;
+    /**
+     * Los iconos de tiempo atmosférico que se pueden mostrar en el display, en el
+     * orden en el que se identifican en la clave del display.
+     */
+    private static final Component[] ICONOS_TIEMPO;
 
     /**
-     * Atributo que almacena temporalmente la última posición obtenida, con la
-     * finalidad de reducir el número de objetos creados por segundo y ejercer menos
-     * presión sobre el colector de basura. Se asume que no se ejecutan de manera
-     * concurrente los métodos que usan este atributo.
+     * Constructor de cadenas de texto reutilizado para formatear el display, con
+     * la finalidad de reducir el número de objetos creados por segundo y ejercer
+     * menos presión sobre el colector de basura. En Folia el display se formatea
+     * a la vez desde los hilos de varias regiones, así que cada hilo tiene el
+     * suyo.
      */
-    private final Location ultimaPosicionTemp = new Location(null, 0, 0, 0);
+    private static final ThreadLocal<StringBuilder> CONSTRUCTOR_TEXTO_TEMP =
+        ThreadLocal.withInitial(() -> new StringBuilder(16));
+
+    /**
+     * Hace que los jugadores cercanos escuchen el aviso sonoro de cambio de hora.
+     */
+    private final DifusorAvisosHora difusorAvisosHora = new DifusorAvisosHora(SONIDO_HORA, RADIO_SONIDO_HORA);
 
     static {
         // Crear un componente de texto con un espacio
-        ESPACIO = new TextComponent(" ");
-
-        // Crear los iconos que vamos a usar
-        ICONO_FECHA = new TextComponent("\u2004");
-        ICONO_TEMPERATURA = new TextComponent("\u2063");
-        ICONO_TORMENTA = new TextComponent("\u2002");
-        ICONO_LLUVIA = new TextComponent("\u2000");
-        ICONO_NIEVE = new TextComponent("\u00A0");
-        ICONO_NUBLADO = new TextComponent("\u2003");
-        ICONO_SOLEADO = new TextComponent("\u2001");
-
-        for (TextComponent icono : new TextComponent[] {
-            ICONO_FECHA, ICONO_TEMPERATURA, ICONO_TORMENTA, ICONO_LLUVIA,
-            ICONO_NIEVE, ICONO_NUBLADO, ICONO_SOLEADO
-        }) {
-            icono.setFont(FUENTE_ICONOS);
-            icono.setColor(net.md_5.bungee.api.ChatColor.WHITE);
-            icono.setBold(false);
-            icono.setItalic(false);
-            icono.setStrikethrough(false);
-            icono.setObfuscated(false);
-        }
+        ESPACIO = Component.text(" ");
+
+        // Crear los separadores de dígitos
+        SEPARADOR_DIGITOS = Component.text(":");
+        SEPARADOR_DIGITOS_APAGADO = Component.text(":", NamedTextColor.DARK_GRAY);
+
+        // Crear los iconos que vamos a usar, con un estilo que no herede nada del
+        // texto de reloj
+        Style estiloIconos = Style.style()
+            .font(Key.key(FUENTE_ICONOS))
+            .color(NamedTextColor.WHITE)
+            .decoration(TextDecoration.BOLD, false)
+            .decoration(TextDecoration.ITALIC, false)
+            .decoration(TextDecoration.STRIKETHROUGH, false)
+            .decoration(TextDecoration.OBFUSCATED, false)
+            .build();
+
+        ICONO_FECHA = Component.text("\u2004", estiloIconos);
+        ICONO_TEMPERATURA = Component.text("\u2063", estiloIconos);
+        ICONO_TORMENTA = Component.text("\u2002", estiloIconos);
+        ICONO_LLUVIA = Component.text("\u2000", estiloIconos);
+        ICONO_NIEVE = Component.text("\u00A0", estiloIconos);
+        ICONO_NUBLADO = Component.text("\u2003", estiloIconos);
+        ICONO_SOLEADO = Component.text("\u2001", estiloIconos);
+        ICONOS_TIEMPO = new Component[] {
+            ICONO_TORMENTA, ICONO_LLUVIA, ICONO_NIEVE, ICONO_NUBLADO, ICONO_SOLEADO
+        };
     }
 
     /**
@@ -150,151 +186,140 @@ public final class RelojDigital extends RelojItem<Byte> {
 
     @Override
     protected boolean lePermiteStackVerReloj(Player jugador, ItemStack stack) {
-        ItemMeta metaStack;
-
-        return stack.getType() == Material.CLOCK &&
-            stack.hasItemMeta() &&
-            (metaStack = stack.getItemMeta()).hasCustomModelData() &&
-            metaStack.getCustomModelData() == ID_MODELO;
+        return CLASIFICADOR_ITEMS.esReloj(stack);
     }
 
     @Override
-	protected BaseComponent formatearDisplay(ZonedDateTime fechaHora, Player jugador, World mundo, boolean mundoConCicloDiaNoche) {
-        TextComponent display = new TextComponent();
-        TextComponent separadorDigitos = new TextComponent(":");
-        int hora = fechaHora.getHour();
-        TextComponent componenteHora = new TextComponent(String.format("%02d", hora));
-        TextComponent componenteMinuto = new TextComponent(String.format("%02d", fechaHora.getMinute()));
-        int segundo = fechaHora.getSecond();
-        TextComponent componenteSegundo = new TextComponent(String.format("%02d", segundo));
-
-        if (mundoConCicloDiaNoche && segundo % 2 != 0) {
-            separadorDigitos.setColor(net.md_5.bungee.api.ChatColor.DARK_GRAY);
+    protected long getClaveDisplay(long fechaHora, EstadoJugador estadoJugador, InstantaneaMundo instantaneaMundo) {
+        long toret = 0;
+
+        // En dimensiones sin ciclo día-noche no se muestran ni la temperatura ni el
+        // tiempo atmosférico, así que el display no depende del jugador
+        if (instantaneaMundo.conCicloDiaNoche()) {
+            boolean tormenta = instantaneaMundo.tormenta();
+            boolean truenos = instantaneaMundo.truenos();
+
+            Location posicion = estadoJugador.getPosicion();
+
+            double temperaturaBioma = instantaneaMundo.mundo().getTemperature(
+                posicion.getBlockX(), posicion.getBlockY(), posicion.getBlockZ()
+            );
+
+            int iconoTiempo;
+            if (truenos && temperaturaBioma < 0.95) {
+                iconoTiempo = 0; // Tormenta
+            } else if (tormenta && temperaturaBioma >= 0.15 && temperaturaBioma < 0.95) {
+                iconoTiempo = 1; // Lluvia
+            } else if (tormenta && temperaturaBioma < 0.15) {
+                iconoTiempo = 2; // Nieve
+            } else if ((tormenta || truenos) && temperaturaBioma >= 0.95) {
+                iconoTiempo = 3; // Nublado
+            } else {
+                iconoTiempo = 4; // Soleado
+            }
+
+            // Solo se muestra una cifra decimal de la temperatura, así que jugadores
+            // con temperaturas que difieran en menos de una décima ven lo mismo
+            int decimasTemperatura = Math.round(SimuladorTiempo.get().getTemperatura(estadoJugador, instantaneaMundo) * 10);
+
+            toret = ((long) iconoTiempo << 32) | (decimasTemperatura & 0xFFFFFFFFL);
         }
 
-        display.addExtra(componenteHora);
-        display.addExtra(separadorDigitos);
-        display.addExtra(componenteMinuto);
-        display.addExtra(separadorDigitos);
-        display.addExtra(componenteSegundo);
+        return toret;
+    }
 
-        jugador.getLocation(ultimaPosicionTemp);
+    @Override
+    protected Component formatearDisplay(long fechaHora, InstantaneaMundo instantaneaMundo, long claveDisplay) {
+        TextComponent.Builder display = Component.text();
+        int segundo = TiempoCivil.getSegundo(fechaHora);
+        boolean mundoConCicloDiaNoche = instantaneaMundo.conCicloDiaNoche();
+        Component separadorDigitos = mundoConCicloDiaNoche && segundo % 2 != 0 ?
+            SEPARADOR_DIGITOS_APAGADO : SEPARADOR_DIGITOS;
+        boolean ofuscar = !mundoConCicloDiaNoche;
+
+        display.append(FormateadorDisplay.getComponenteDigitos(TiempoCivil.getHora(fechaHora), ofuscar));
+        display.append(separadorDigitos);
+        display.append(FormateadorDisplay.getComponenteDigitos(TiempoCivil.getMinuto(fechaHora), ofuscar));
+        display.append(separadorDigitos);
+        display.append(FormateadorDisplay.getComponenteDigitos(segundo, ofuscar));
 
         if (mundoConCicloDiaNoche) {
-            TextComponent componenteFecha = new TextComponent(
-                String.format(
-                    "%s, %02d/%02d/%02d",
-                    fechaHora.getDayOfWeek().getDisplayName(TextStyle.NARROW, LOCALIZACION_ESP),
-                    fechaHora.getDayOfMonth(),
-                    fechaHora.getMonthValue(),
-                    fechaHora.getYear() % 100
-                )
-            );
-            double temperaturaBioma = mundo.getTemperature(
-                ultimaPosicionTemp.getBlockX(), ultimaPosicionTemp.getBlockY(), ultimaPosicionTemp.getBlockZ()
-            );
+            StringBuilder sb = CONSTRUCTOR_TEXTO_TEMP.get();
 
             // Mostrar la fecha
-            display.addExtra(ESPACIO);
-            display.addExtra(ICONO_FECHA);
-            display.addExtra(ESPACIO);
-            display.addExtra(componenteFecha);
+            sb.setLength(0);
+            FormateadorDisplay.anadirFecha(
+                sb, TiempoCivil.getDiaSemana(fechaHora), TiempoCivil.getDiaMes(fechaHora),
+                TiempoCivil.getMes(fechaHora), TiempoCivil.getAnio(fechaHora)
+            );
+            display.append(ESPACIO);
+            display.append(ICONO_FECHA);
+            display.append(ESPACIO);
+            display.append(Component.text(sb.toString()));
 
             // Mostrar la temperatura
-            display.addExtra(ESPACIO);
-            display.addExtra(ICONO_TEMPERATURA);
-            display.addExtra(ESPACIO);
-            display.addExtra(new TextComponent(String.format(
-                "%.1fºC", SimuladorTiempo.get().getTemperatura(jugador))
-            ));
+            sb.setLength(0);
+            FormateadorDisplay.anadirTemperatura(sb, (int) claveDisplay);
+            display.append(ESPACIO);
+            display.append(ICONO_TEMPERATURA);
+            display.append(ESPACIO);
+            display.append(Component.text(sb.toString()));
 
             // Mostrar tiempo atmosférico
-            display.addExtra(ESPACIO);
-
-            TextComponent iconoTiempo;
-            if (mundo.isThundering() && temperaturaBioma < 0.95) {
-                iconoTiempo = ICONO_TORMENTA;
-            } else if (mundo.hasStorm() && temperaturaBioma >= 0.15 && temperaturaBioma < 0.95) {
-                iconoTiempo = ICONO_LLUVIA;
-            } else if (mundo.hasStorm() && temperaturaBioma < 0.15) {
-                iconoTiempo = ICONO_NIEVE;
-            } else if ((mundo.hasStorm() || mundo.isThundering()) && temperaturaBioma >= 0.95) {
-                iconoTiempo = ICONO_NUBLADO;
-            } else {
-                iconoTiempo = ICONO_SOLEADO;
-            }
+            display.append(ESPACIO);
+            display.append(ICONOS_TIEMPO[(int) (claveDisplay >>> 32)]);
+        }
+
+        return display.build();
+    }
 
-            display.addExtra(iconoTiempo);
-        } else {
+    @Override
+    protected void onDisplayMostrado(long fechaHora, EstadoJugador estadoJugador, InstantaneaMundo instantaneaMundo) {
+        if (!instantaneaMundo.conCicloDiaNoche()) {
             // Reproducir los pitidos del reloj mucho más rápidamente, para
             // dar la impresión de que algo está roto
-            jugador.playSound(
-                ultimaPosicionTemp, SONIDO_HORA, SoundCategory.MASTER, 0.5f, 1
+            estadoJugador.getJugador().playSound(
+                estadoJugador.getPosicion(), SONIDO_HORA, SoundCategory.MASTER, 0.5f, 1
             );
-
-            componenteHora.setObfuscated(true);
-            componenteMinuto.setObfuscated(true);
-            componenteSegundo.setObfuscated(true);
         }
-
-        return display;
     }
 
     @Override
-    protected boolean debeJugadorRecibirActualizaciones(Player jugador, boolean mundoConCicloDiaNoche) {
-        boolean toret = false;
+    protected boolean debeJugadorRecibirActualizaciones(EstadoJugador estadoJugador, boolean mundoConCicloDiaNoche) {
+        boolean toret;
 
         // Enviar actualizaciones a jugadores que tengan al menos un reloj digital en su inventario
-        // y estén en un mundo con ciclo día-noche.
-        // getStorageContents delega en el atributo items de la clase net.minecraft.world.entity.player.Inventory.
-        // Actualmente (1.16.3), el stack de la mano secundaria va aparte, y no se incluye en ese atributo
-        if (mundoConCicloDiaNoche) {
-            PlayerInventory pinv = jugador.getInventory();
-            ItemStack[] itemsInventario = pinv.getStorageContents();
-
-            for (int i = 0; i < itemsInventario.length && !toret; ++i) {
-                // En ocasiones las posiciones del array pueden ser nulas debido a cómo funciona
-                // Minecraft. Ignorarlas a efectos de comparación
-                toret = itemsInventario[i] != null && lePermiteStackVerReloj(jugador, itemsInventario[i]);
-            }
-
-            toret = toret || lePermiteStackVerReloj(jugador, pinv.getItemInOffHand());
-        }
+        // y estén en un mundo con ciclo día-noche
+        toret = mundoConCicloDiaNoche && tieneRelojEnInventario(estadoJugador);
 
         // En caso de que dejemos de recibir actualizaciones (es decir, no tengamos el reloj en el inventario),
         // eliminar el estado del display. De esta forma, si pasa una hora y volvemos a coger el reloj, no
         // sonará inmediatamente la alarma, y se esperará a la hora siguiente
         if (!toret) {
-            setEstadoDisplay(jugador, null);
+            setEstadoDisplay(estadoJugador, EstadoJugador.SIN_ESTADO_RELOJ);
         }
 
         return toret;
     }
 
     @Override
-    protected void onActualizacionReloj(ZonedDateTime fechaHora, Player jugador, World mundo, boolean mundoConCicloDiaNoche) {
-        byte hora = (byte) fechaHora.getHour();
-        Byte ultimaHora = getEstadoDisplay(jugador);
+    protected void onActualizacionReloj(long fechaHora, EstadoJugador estadoJugador, InstantaneaMundo instantaneaMundo) {
+        int hora = TiempoCivil.getHora(fechaHora);
+        long ultimaHora = getEstadoDisplay(estadoJugador);
 
-        if (ultimaHora != null && hora != ultimaHora) {
-            jugador.getLocation(ultimaPosicionTemp);
+        if (ultimaHora != EstadoJugador.SIN_ESTADO_RELOJ && hora != ultimaHora) {
+            Player jugador = estadoJugador.getJugador();
+            Location posicion = estadoJugador.getPosicion();
 
             jugador.playSound(
-                ultimaPosicionTemp, SONIDO_HORA, SoundCategory.MASTER, 1, 1
+                posicion, SONIDO_HORA, SoundCategory.MASTER, 1, 1
             );
 
-            // Queremos que otros jugadores escuchen el reloj, pero en una
-            // categoría de sonido diferente
-            for (Player jugadorCercano : mundo.getNearbyPlayers(ultimaPosicionTemp, 16)) {
-                if (!jugador.equals(jugadorCercano)) {
-                    jugadorCercano.playSound(
-                        ultimaPosicionTemp, SONIDO_HORA, SoundCategory.PLAYERS, 1, 1
-                    );
-                }
-            }
+            // Los jugadores cercanos lo escucharán en los próximos ticks
+            difusorAvisosHora.anadirFuente(jugador, posicion);
         }
 
-        setEstadoDisplay(jugador, hora);
+        setEstadoDisplay(estadoJugador, hora);
     }
 
     /**
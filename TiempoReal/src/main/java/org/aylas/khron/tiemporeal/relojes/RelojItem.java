@@ -17,7 +17,10 @@
  */
 package org.aylas.khron.tiemporeal.relojes;
 
-import org.aylas.khron.tiemporeal.PluginTiempoReal;
+import java.util.Collection;
+
+import org.aylas.khron.tiemporeal.EstadoJugador;
+import org.aylas.khron.tiemporeal.RegistroJugadores;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -26,19 +29,17 @@ import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryDragEvent;
 import org.bukkit.event.player.PlayerDropItemEvent;
 import org.bukkit.event.player.PlayerItemHeldEvent;
+import org.bukkit.event.player.PlayerSwapHandItemsEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.PlayerInventory;
-import org.bukkit.scheduler.BukkitRunnable;
 
 /**
  * Modela un reloj empuñable, que muestra información de tiempo a quienes lo
  * observan mientras lo tienen en una mano.
  *
- * @param <T> El tipo de dato del estado del reloj que se puede asociar a un
- *            jugador. Puede ser {@link Void} si no se desea asociar estado.
  * @author AlexTMjugador
  */
-public abstract class RelojItem<T> extends Reloj<T> {
+public abstract class RelojItem extends Reloj {
     /**
      * Decide si mostrar u ocultar el display a jugadores que realicen algún evento
      * relacionado con su inventario.
@@ -47,12 +48,13 @@ public abstract class RelojItem<T> extends Reloj<T> {
      */
     @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
     public final void onPlayerEvent(PlayerDropItemEvent event) {
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                actualizarDisplay(event.getPlayer());
-            }
-        }.runTask(PluginTiempoReal.getPlugin(PluginTiempoReal.class));
+        Player p = event.getPlayer();
+
+        // Tirar otros ítems no cambia si el jugador tiene el reloj. Si tira el reloj,
+        // puede que aún le queden otros, así que hay que recorrer el inventario
+        if (lePermiteStackVerReloj(p, event.getItemDrop().getItemStack())) {
+            programarReconciliacionJugador(p);
+        }
     }
 
     /**
@@ -63,12 +65,18 @@ public abstract class RelojItem<T> extends Reloj<T> {
      */
     @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
     public final void onPlayerEvent(PlayerItemHeldEvent event) {
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                actualizarDisplay(event.getPlayer());
-            }
-        }.runTask(PluginTiempoReal.getPlugin(PluginTiempoReal.class));
+        programarActualizacionDisplay(event.getPlayer());
+    }
+
+    /**
+     * Decide si mostrar u ocultar la hora a jugadores que intercambien los ítems
+     * de sus manos.
+     *
+     * @param event El evento realizado por el jugador.
+     */
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+    public final void onPlayerEvent(PlayerSwapHandItemsEvent event) {
+        programarActualizacionDisplay(event.getPlayer());
     }
 
     /**
@@ -83,27 +91,46 @@ public abstract class RelojItem<T> extends Reloj<T> {
 
         if (p != null) {
             switch (event.getAction()) {
+            case PLACE_ALL: // Se mueven al inventario uno o más ítems del cursor
+            case PLACE_ONE:
+            case PLACE_SOME:
+                // Si el reloj del cursor se coloca en el inventario del jugador, seguro que
+                // lo tiene, sin necesidad de recorrerlo. En otro caso, puede que haya dejado
+                // de tenerlo
+                if (esStackReloj(p, event.getCursor())) {
+                    if (event.getClickedInventory() == p.getInventory()) {
+                        anotarRelojEnInventario(p);
+                    } else {
+                        programarReconciliacionJugador(p);
+                    }
+                }
+                break;
+            case HOTBAR_SWAP: // Se intercambian slots. Uno de ellos está en hotbar o es la mano secundaria
+                int botonHotbar = event.getHotbarButton();
+                ItemStack stackHotbar = botonHotbar >= 0 ?
+                    p.getInventory().getItem(botonHotbar) :
+                    p.getInventory().getItemInOffHand();
+
+                if (esStackReloj(p, event.getCurrentItem()) || esStackReloj(p, stackHotbar)) {
+                    programarReconciliacionJugador(p);
+                }
+                break;
             case COLLECT_TO_CURSOR: // Recoger ítems de un determinado tipo al cursor
             case HOTBAR_MOVE_AND_READD: // Se mueve stack a la hotbar
-            case HOTBAR_SWAP: // Se intercambian slots. Uno de ellos está en hotbar
             case MOVE_TO_OTHER_INVENTORY: // Se mueve stack a otro inventario
             case PICKUP_ALL: // Se mueven al cursor uno o más ítems de un stack en el inventario
             case PICKUP_HALF:
             case PICKUP_ONE:
             case PICKUP_SOME:
-            case PLACE_ALL: // Se mueven al inventario uno o más ítems del cursor
-            case PLACE_ONE:
-            case PLACE_SOME:
             case SWAP_WITH_CURSOR: // Se intercambia cursor con slot de inventario
-            case UNKNOWN:
                 // Todas estas actividades pueden provocar un cambio en el ítem que se empuña en
-                // alguna mano
-                new BukkitRunnable() {
-                    @Override
-                    public void run() {
-                        actualizarDisplay(p);
-                    }
-                }.runTask(PluginTiempoReal.getPlugin(PluginTiempoReal.class));
+                // alguna mano, pero solo si alguno de los stacks implicados es el reloj
+                if (esStackReloj(p, event.getCurrentItem()) || esStackReloj(p, event.getCursor())) {
+                    programarReconciliacionJugador(p);
+                }
+                break;
+            case UNKNOWN:
+                programarReconciliacionJugador(p);
                 break;
             default:
                 break;
@@ -121,15 +148,10 @@ public abstract class RelojItem<T> extends Reloj<T> {
     public final void onInventoryEvent(InventoryDragEvent event) {
         Player p = (event.getWhoClicked() instanceof Player) ? (Player) event.getWhoClicked() : null;
 
-        if (p != null) {
+        if (p != null && esStackReloj(p, event.getOldCursor())) {
             // No sabemos cuál será el resultado exacto de este evento ahora mismo,
-            // así que retrasamos la comprobación al siguiente tick
-            new BukkitRunnable() {
-                @Override
-                public void run() {
-                    actualizarDisplay(p);
-                }
-            }.runTask(PluginTiempoReal.getPlugin(PluginTiempoReal.class));
+            // así que retrasamos la comprobación a los próximos ticks
+            programarReconciliacionJugador(p);
         }
     }
 
@@ -144,14 +166,11 @@ public abstract class RelojItem<T> extends Reloj<T> {
         Player p = (event.getEntity() instanceof Player) ? (Player) event.getEntity() : null;
 
         if (p != null && lePermiteStackVerReloj(p, event.getItem().getItemStack())) {
-            new BukkitRunnable() {
-                @Override
-                public void run() {
-                    actualizarDisplay(p);
-                }
-            }.runTask(PluginTiempoReal.getPlugin(PluginTiempoReal.class));
+            // El jugador se queda con al menos parte del stack recogido
+            anotarRelojEnInventario(p);
         }
     }
+
     /**
      * Comprueba si el stack de ítems empuñado especificado le permite a un jugador
      * observar el reloj.
@@ -163,15 +182,128 @@ public abstract class RelojItem<T> extends Reloj<T> {
      */
     protected abstract boolean lePermiteStackVerReloj(Player jugador, ItemStack stack);
 
+    /**
+     * Comprueba si un jugador tiene, en algún lugar de su inventario, un stack de
+     * ítems que le permita ver este reloj. Este método no recorre el inventario,
+     * sino que consulta información mantenida a partir de eventos, por lo que
+     * puede devolver un resultado desactualizado durante unos pocos ticks.
+     *
+     * @param estadoJugador El estado del jugador a comprobar. No es nulo.
+     * @return Verdadero si el jugador tiene el devandicho stack de ítems, falso en
+     *         otro caso.
+     */
+    protected final boolean tieneRelojEnInventario(EstadoJugador estadoJugador) {
+        return estadoJugador.tieneRelojEnInventario(getIndiceReloj());
+    }
+
+    /**
+     * Vuelve a comprobar qué relojes empuñables tiene un jugador en su
+     * inventario, recorriéndolo una sola vez para todos ellos. Se invoca antes
+     * de reconciliar la información de los relojes sobre el jugador.
+     *
+     * @param estadoJugador El estado del jugador a comprobar. No es nulo.
+     * @param relojes       Los relojes creados, de entre los que se comprobarán
+     *                      los empuñables.
+     */
+    static void reconciliarInventario(EstadoJugador estadoJugador, Collection<Reloj> relojes) {
+        Player p = estadoJugador.getJugador();
+        int relojesItem = 0;
+        int relojesEncontrados = 0;
+
+        for (Reloj r : relojes) {
+            if (r instanceof RelojItem) {
+                relojesItem |= 1 << r.getIndiceReloj();
+            }
+        }
+
+        // getStorageContents delega en el atributo items de la clase net.minecraft.world.entity.player.Inventory.
+        // Actualmente (1.16.3), el stack de la mano secundaria va aparte, y no se incluye en ese atributo
+        if (relojesItem != 0 && estadoJugador.isConectado()) {
+            PlayerInventory pinv = p.getInventory();
+            ItemStack[] itemsInventario = pinv.getStorageContents();
+
+            for (int i = 0; i < itemsInventario.length && relojesEncontrados != relojesItem; ++i) {
+                // En ocasiones las posiciones del array pueden ser nulas debido a cómo funciona
+                // Minecraft. Ignorarlas a efectos de comparación
+                if (itemsInventario[i] != null) {
+                    relojesEncontrados |= getRelojesPermitidos(p, itemsInventario[i], relojes);
+                }
+            }
+
+            relojesEncontrados |= getRelojesPermitidos(p, pinv.getItemInOffHand(), relojes);
+        }
+
+        for (Reloj r : relojes) {
+            if (r instanceof RelojItem) {
+                int indiceReloj = r.getIndiceReloj();
+
+                estadoJugador.setRelojEnInventario(indiceReloj, (relojesEncontrados & (1 << indiceReloj)) != 0);
+            }
+        }
+    }
+
+    /**
+     * Obtiene los relojes empuñables que un stack de ítems le permite observar a
+     * un jugador.
+     *
+     * @param jugador El jugador que tiene el stack de ítems.
+     * @param stack   El stack de ítems.
+     * @param relojes Los relojes creados.
+     * @return Una máscara de bits con los devandichos relojes, indexada por el
+     *         índice de cada reloj.
+     */
+    private static int getRelojesPermitidos(Player jugador, ItemStack stack, Collection<Reloj> relojes) {
+        int toret = 0;
+
+        for (Reloj r : relojes) {
+            if (r instanceof RelojItem && ((RelojItem) r).lePermiteStackVerReloj(jugador, stack)) {
+                toret |= 1 << r.getIndiceReloj();
+            }
+        }
+
+        return toret;
+    }
+
+    /**
+     * Comprueba si un stack de ítems, que puede ser nulo, le permite a un jugador
+     * observar el reloj.
+     *
+     * @param jugador El jugador que tiene el stack de ítems.
+     * @param stack   El stack de ítems a comprobar.
+     * @return Verdadero si el stack no es nulo y le permite observar el reloj,
+     *         falso en otro caso.
+     */
+    private boolean esStackReloj(Player jugador, ItemStack stack) {
+        return stack != null && lePermiteStackVerReloj(jugador, stack);
+    }
+
+    /**
+     * Registra que un jugador tiene el reloj en su inventario, sabiéndolo por un
+     * evento y sin necesidad de recorrerlo, y solicita comprobar si le
+     * corresponde ver el display, por si lo ha empuñado.
+     *
+     * @param jugador El jugador que tiene el reloj.
+     */
+    private void anotarRelojEnInventario(Player jugador) {
+        EstadoJugador estadoJugador = RegistroJugadores.get().getEstadoJugador(jugador);
+
+        if (estadoJugador != null) {
+            estadoJugador.setRelojEnInventario(getIndiceReloj(), true);
+        }
+
+        programarActualizacionDisplay(jugador);
+    }
+
     /**
      * {@inheritDoc} Los relojes empuñables devuelven verdadero si y solo si el
      * jugador tiene un stack de ítems determinado en una de sus manos, además
      * de las condiciones estipuladas en la implementación por defecto.
      */
-    protected final boolean leCorrespondeVerDisplay(Player p) {
+    protected final boolean leCorrespondeVerDisplay(EstadoJugador estadoJugador) {
+        Player p = estadoJugador.getJugador();
         PlayerInventory pinv;
 
-        return super.leCorrespondeVerDisplay(p) && (
+        return super.leCorrespondeVerDisplay(estadoJugador) && (
             lePermiteStackVerReloj(p, (pinv = p.getInventory()).getItemInMainHand()) ||
             lePermiteStackVerReloj(p, pinv.getItemInOffHand())
         );